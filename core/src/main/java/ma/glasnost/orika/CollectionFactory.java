@@ -0,0 +1,63 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika;
+
+import java.util.Collection;
+import java.util.Map;
+
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * CollectionFactory defines the contract for creating the collections and maps
+ * into which multi-occurrence values are mapped.<br>
+ * <br>
+ *
+ * The factory is given the declared type of the destination, which may be an
+ * interface such as <code>java.util.List</code>, so that it can choose the
+ * implementation to create; and the number of elements of the source, so that
+ * the new collection can be created with the capacity it needs. A factory is
+ * registered using
+ * {@link MapperFactory#registerCollectionFactory(CollectionFactory)}.
+ */
+public interface CollectionFactory {
+
+    /**
+     * Creates a new, empty collection assignable to the specified type.
+     *
+     * @param collectionType
+     *            the declared type of the collection
+     * @param expectedSize
+     *            the number of elements expected to be added, or 0 if that is
+     *            not known
+     * @return a new collection assignable to the specified type
+     */
+    <E> Collection<E> newCollection(Type<?> collectionType, int expectedSize);
+
+    /**
+     * Creates a new, empty map assignable to the specified type.
+     *
+     * @param mapType
+     *            the declared type of the map
+     * @param expectedSize
+     *            the number of entries expected to be put, or 0 if that is not
+     *            known
+     * @return a new map assignable to the specified type
+     */
+    <K, V> Map<K, V> newMap(Type<?> mapType, int expectedSize);
+}
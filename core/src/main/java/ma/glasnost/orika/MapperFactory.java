@@ -19,13 +19,18 @@
 package ma.glasnost.orika;
 
 import ma.glasnost.orika.converter.ConverterFactory;
+import ma.glasnost.orika.impl.DefaultCollectionFactory;
 import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.ClassMapBuilder;
 import ma.glasnost.orika.metadata.MapperKey;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.unenhance.UnenhanceStrategy;
 
+import java.util.Collection;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 /**
  * MapperFactory is used to both configure, register, and generate the
@@ -351,6 +356,34 @@ public interface MapperFactory {
      */
     ConverterFactory getConverterFactory();
     
+    /**
+     * Register the CollectionFactory used to create the collections and maps
+     * into which multi-occurrence values are mapped, replacing the default
+     * one.<br>
+     * This default implementation does not support replacing the factory.
+     * 
+     * @param collectionFactory
+     *            the CollectionFactory to register
+     * @throws UnsupportedOperationException
+     *             if this MapperFactory does not support registering a
+     *             CollectionFactory
+     */
+    default void registerCollectionFactory(CollectionFactory collectionFactory) {
+        throw new UnsupportedOperationException(getClass().getName() + " does not support registering a CollectionFactory");
+    }
+    
+    /**
+     * Get the CollectionFactory associated with this MapperFactory; it creates
+     * the collections and maps into which multi-occurrence values are mapped.<br>
+     * This default implementation returns a shared DefaultCollectionFactory.
+     * 
+     * @return the CollectionFactory instance associated with this
+     *         MapperFactory
+     */
+    default CollectionFactory getCollectionFactory() {
+        return DefaultCollectionFactory.getSharedInstance();
+    }
+    
     /**
      * Builds this MapperFactory.
      * 
@@ -448,4 +481,32 @@ public interface MapperFactory {
      */
     void registerFilter(Filter<?, ?> filter);
     
+    /**
+     * Prepares, on the specified executor, everything needed to map each of the
+     * specified pairs of types: the mappers and object factories which would
+     * otherwise be generated on their first use. No instance of the types is
+     * created. This factory is built first, if it has not been built yet.<br>
+     * Mapping any of the types while they are being prepared is safe; it waits
+     * for (or shares) the generation in progress.<br>
+     * This default implementation only obtains the BoundMapperFacade of each
+     * pair, on the specified executor.
+     * 
+     * @see WarmUpResult#warmUp(Collection, Executor, Consumer)
+     * 
+     * @param typePairs
+     *            the pairs of types to prepare, as (source, destination)
+     * @param executor
+     *            the executor on which the pairs are prepared (one task per
+     *            pair)
+     * @return a future completed once every pair has been prepared or has
+     *         failed, with the failures reported by the result
+     */
+    default CompletableFuture<WarmUpResult> warmUp(Collection<MapperKey> typePairs, Executor executor) {
+        return WarmUpResult.warmUp(typePairs, executor, new Consumer<MapperKey>() {
+            public void accept(MapperKey pair) {
+                getMapperFacade(pair.getAType(), pair.getBType());
+            }
+        });
+    }
+    
 }
@@ -40,6 +40,10 @@ public class MappingContext {
     
     protected final Map<Type<?>, Type<?>> mapping;
     protected final OpenIntObjectHashMap typeCache;
+    /**
+     * The number of mapped objects held by the maps of the typeCache
+     */
+    protected int cachedObjectCount;
     protected List<Map<MapperKey, ClassMap<?, ?>>> mappersSeen;
     protected Map<Object, Object> properties;
     protected Map<Object, Object> globalProperties;
@@ -179,7 +183,9 @@ public class MappingContext {
                 typeCache.put(destinationType.getUniqueIndex(), localCache);
                 
             }
-            localCache.put(source, destination);
+            if (localCache.put(source, destination) == null) {
+                ++cachedObjectCount;
+            }
             
             isNew = false;
         }
@@ -454,6 +460,7 @@ public class MappingContext {
     public void reset() {
         mapping.clear();
         typeCache.clear();
+        cachedObjectCount = 0;
         if (properties != null) {
             properties.clear();
         }
@@ -470,6 +477,29 @@ public class MappingContext {
         depth = 0;
     }
     
+    /**
+     * Returns the number of entries currently held by the per-request caches
+     * of this context (registered concrete types, mapped objects,
+     * properties and captured field context); pooling factories may use this
+     * before calling {@link #reset()} to avoid retaining contexts whose tables
+     * have grown unusually large.
+     * 
+     * @return the number of cached entries held by this context
+     */
+    public int getCachedEntryCount() {
+        int count = mapping.size() + cachedObjectCount;
+        if (properties != null) {
+            count += properties.size();
+        }
+        if (mappersSeen != null) {
+            count += mappersSeen.size();
+        }
+        if (fieldMappingStack != null) {
+            count += fieldMappingStack.size();
+        }
+        return count;
+    }
+    
     /**
      * Sets an instance property on this MappingContext
      * 
@@ -65,6 +65,16 @@ public final class OrikaSystemProperties {
      */
     public static final String WRITE_CLASS_FILES_TO_PATH = "ma.glasnost.orika.writeClassFilesToPath";
     
+    /**
+     * Specifies a location where the bytecode of generated objects is cached across restarts, so that
+     * identical generated sources are loaded rather than compiled again. The location may be a directory,
+     * which is created if needed and to which newly compiled classes are added, such as
+     * "/var/cache/orika/"; or a ".jar" or ".zip" archive of previously cached classes, which is only read.<br>
+     * If this property is not specified, only classes precompiled at build time (see
+     * {@link ma.glasnost.orika.impl.MapperPrecompiler}) are loaded from the class-path, if any.
+     */
+    public static final String BYTECODE_CACHE_PATH = "ma.glasnost.orika.bytecodeCachePath";
+    
     /**
      * Specifies the fully-qualified class name of the compiler strategy to use when creating generated objects;
      * default value is determined by the MapperFactory implementation.
@@ -0,0 +1,159 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika;
+
+import ma.glasnost.orika.metadata.MapperKey;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * WarmUpResult reports the outcome of a
+ * {@link MapperFactory#warmUp(java.util.Collection, java.util.concurrent.Executor)
+ * warm-up}: the pairs of types which were prepared, and the failure (if any)
+ * raised while preparing each of the others.<br>
+ * <br>
+ *
+ * A pair which failed to warm up fails in the same way when it is first
+ * mapped.
+ */
+public final class WarmUpResult {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WarmUpResult.class);
+
+    private final List<MapperKey> preparedTypePairs;
+    private final Map<MapperKey, Throwable> failures;
+
+    /**
+     * @param preparedTypePairs
+     *            the pairs of types which were prepared
+     * @param failures
+     *            the failure of each pair which could not be prepared
+     */
+    public WarmUpResult(List<MapperKey> preparedTypePairs, Map<MapperKey, Throwable> failures) {
+        this.preparedTypePairs = Collections.unmodifiableList(preparedTypePairs);
+        this.failures = Collections.unmodifiableMap(failures);
+    }
+
+    /**
+     * @return true if every pair of types was prepared
+     */
+    public boolean isSuccessful() {
+        return failures.isEmpty();
+    }
+
+    /**
+     * @return the pairs of types which were prepared, as (source, destination)
+     */
+    public List<MapperKey> getPreparedTypePairs() {
+        return preparedTypePairs;
+    }
+
+    /**
+     * @return the failure raised for each pair of types which could not be
+     *         prepared
+     */
+    public Map<MapperKey, Throwable> getFailures() {
+        return failures;
+    }
+
+    /**
+     * Prepares each of the specified pairs of types with the provided action,
+     * on the specified executor; this is the common implementation of
+     * {@link MapperFactory#warmUp(Collection, Executor)}.<br>
+     * Each task runs with the context class-loader of the calling thread; a
+     * task rejected by the executor is run on the calling thread instead.
+     * 
+     * @param typePairs
+     *            the pairs of types to prepare, as (source, destination)
+     * @param executor
+     *            the executor on which the pairs are prepared (one task per
+     *            pair)
+     * @param warmUp
+     *            the action preparing a single pair
+     * @return a future completed once every pair has been prepared or has
+     *         failed, with the failures reported by the result
+     */
+    public static CompletableFuture<WarmUpResult> warmUp(Collection<MapperKey> typePairs, Executor executor,
+            final Consumer<MapperKey> warmUp) {
+        
+        final List<MapperKey> pairs = new ArrayList<>(typePairs);
+        final Map<MapperKey, Throwable> failures = new ConcurrentHashMap<>();
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        
+        CompletableFuture<?>[] tasks = new CompletableFuture<?>[pairs.size()];
+        for (int i = 0; i < pairs.size(); ++i) {
+            final MapperKey pair = pairs.get(i);
+            Runnable task = new Runnable() {
+                public void run() {
+                    Thread thread = Thread.currentThread();
+                    ClassLoader previousClassLoader = thread.getContextClassLoader();
+                    thread.setContextClassLoader(contextClassLoader);
+                    try {
+                        warmUp.accept(pair);
+                    } catch (Throwable e) {
+                        LOGGER.debug("Could not warm up the mapping of " + pair.getAType() + " to " + pair.getBType(), e);
+                        failures.put(pair, e);
+                    } finally {
+                        thread.setContextClassLoader(previousClassLoader);
+                    }
+                }
+            };
+            try {
+                tasks[i] = CompletableFuture.runAsync(task, executor);
+            } catch (RejectedExecutionException e) {
+                task.run();
+                tasks[i] = CompletableFuture.completedFuture(null);
+            }
+        }
+        
+        return CompletableFuture.allOf(tasks).thenApply(new Function<Void, WarmUpResult>() {
+            public WarmUpResult apply(Void ignored) {
+                List<MapperKey> prepared = new ArrayList<>();
+                Map<MapperKey, Throwable> failed = new LinkedHashMap<>();
+                for (MapperKey pair : pairs) {
+                    Throwable failure = failures.get(pair);
+                    if (failure == null) {
+                        prepared.add(pair);
+                    } else {
+                        failed.put(pair, failure);
+                    }
+                }
+                return new WarmUpResult(prepared, failed);
+            }
+        });
+    }
+
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "[prepared=" + preparedTypePairs.size() + ", failed=" + failures.keySet() + "]";
+    }
+}
@@ -259,6 +259,13 @@ public class OpenIntObjectHashMap {
         return i; // found, return index where key is contained
     }
     
+    /**
+     * @return the number of (key,value) associations currently contained
+     */
+    public int size() {
+        return distinct;
+    }
+    
     /**
      * Removes all entries from this map
      */
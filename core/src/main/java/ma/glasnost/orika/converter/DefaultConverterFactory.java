@@ -26,6 +26,7 @@ import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
 
 import java.util.Collection;
+import java.util.Collections;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -45,9 +46,19 @@ import static ma.glasnost.orika.StateReporter.humanReadableSizeInMemory;
 public class DefaultConverterFactory implements ConverterFactory, Reportable {
     
     private final Map<ConverterKey, Converter<Object, Object>> converterCache;
-    private Collection<Converter<Object, Object>> converters;
+    /**
+     * Keys for which no registered converter applies; consulted before
+     * scanning the converters so that repeated misses are as cheap as hits
+     */
+    private final Set<ConverterKey> unconvertibleCache;
+    private volatile Collection<Converter<Object, Object>> converters;
     private final Map<String, Converter<Object, Object>> convertersMap;
-    private MapperFacade mapperFacade;
+    private volatile MapperFacade mapperFacade;
+    /**
+     * Incremented whenever the set of converters changes, so that lookups
+     * which raced with a registration do not leave stale cache entries
+     */
+    private volatile int generation;
     
     /**
      * @param converterCache
@@ -56,6 +67,7 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
     public DefaultConverterFactory(Map<ConverterKey, Converter<Object, Object>> converterCache, Set<Converter<Object, Object>> converters) {
         super();
         this.converterCache = converterCache;
+        this.unconvertibleCache = Collections.newSetFromMap(new ConcurrentHashMap<ConverterKey, Boolean>());
         this.converters = new CopyOnWriteArrayList<>();
         this.convertersMap = new ConcurrentHashMap<>();
     }
@@ -112,7 +124,7 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
      * ma.glasnost.orika.converter.ConverterFactory#getConverter(java.lang.Class
      * , java.lang.Class)
      */
-    public synchronized Converter<Object, Object> getConverter(Type<?> sourceClass, Type<?> destinationClass) {
+    public Converter<Object, Object> getConverter(Type<?> sourceClass, Type<?> destinationClass) {
         
         // Step verify if converter exists for sourceClass and destination
         Converter<Object, Object> converter = _converter(sourceClass, destinationClass);
@@ -140,20 +152,42 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
     
     private Converter<Object, Object> _converter(Type<?> sourceClass, Type<?> destinationClass) {
         ConverterKey key = new ConverterKey(sourceClass, destinationClass);
-        if (converterCache.containsKey(key)) {
-            return converterCache.get(key);
+        Converter<Object, Object> cached = converterCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (unconvertibleCache.contains(key)) {
+            return null;
         }
         
+        int currentGeneration = generation;
         for (Converter<Object, Object> converter : converters) {
             if (converter.canConvert(sourceClass, destinationClass)) {
                 converterCache.put(key, converter);
+                if (currentGeneration != generation) {
+                    converterCache.remove(key, converter);
+                }
                 return converter;
             }
         }
         
+        unconvertibleCache.add(key);
+        if (currentGeneration != generation) {
+            unconvertibleCache.remove(key);
+        }
         return null;
     }
     
+    /**
+     * Discards all cached lookup results; called whenever the set of
+     * registered converters changes.
+     */
+    private void invalidateCache() {
+        ++generation;
+        converterCache.clear();
+        unconvertibleCache.clear();
+    }
+    
     /*
      * (non-Javadoc)
      * 
@@ -173,7 +207,7 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
      * .orika.converter.Converter)
      */
     @SuppressWarnings({ "unchecked" })
-    public <S, D> void registerConverter(Converter<S, D> converter) {
+    public synchronized <S, D> void registerConverter(Converter<S, D> converter) {
         if (mapperFacade != null) {
             throw new IllegalStateException("Cannot register converters after MapperFacade has been initialized");
         }
@@ -181,6 +215,7 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
         if (converter instanceof BidirectionalConverter && !converter.getAType().equals(converter.getBType())) {
             converters.add((Converter<Object, Object>) ((BidirectionalConverter<?, ?>) converter).reverse());
         }
+        invalidateCache();
     }
     
     /*
@@ -230,5 +265,6 @@ public class DefaultConverterFactory implements ConverterFactory, Reportable {
             
             out.append("\n  [").append(srcName).append(" -> ").append(dstName).append("] : ").append(entry.getValue());
         }
+        out.append("\nCached lookups without converter: ").append(unconvertibleCache.size());
     }
 }
@@ -22,14 +22,15 @@ import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.security.AccessController;
 import java.security.PrivilegedAction;
 import java.util.HashSet;
-import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 /**
  * CloneableConverter allows configuration of a number of specific types which
@@ -37,19 +38,37 @@ import java.util.WeakHashMap;
  * <br>
  * 
  * This allows you to declare your own set of types which should be cloned
- * instead of mapped.
+ * instead of mapped.<br>
+ * <br>
+ * 
+ * The clone method of each class is resolved once, into a cached method
+ * handle. The common JDK types (Date, Calendar, XMLGregorianCalendar) are
+ * already copied by the built-in converters, which call clone directly.
  * 
  * @author matt.deboer@gmail.com
  *
- * @deprecated This class does not work starting from Java 17
+ * @deprecated Starting from Java 17, this class can only clone types which
+ *             override clone() with a public method
  *
  */
 @Deprecated
 public class CloneableConverter extends CustomConverter<Object, Object> {
     
     private final Set<Type<Cloneable>> clonedTypes = new HashSet<>();
-    private final Map<Class<?>, Method> cachedMethods;
-    private final Method cloneMethod;
+    private final ClassValue<MethodHandle> cloneMethods = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(final Class<?> type) {
+            if (System.getSecurityManager() != null) {
+                return AccessController.doPrivileged(new PrivilegedAction<MethodHandle>() {
+                    public MethodHandle run() {
+                        return resolveCloneMethod(type);
+                    }
+                });
+            } else {
+                return resolveCloneMethod(type);
+            }
+        }
+    };
     private final String description;
     
     /**
@@ -60,21 +79,6 @@ public class CloneableConverter extends CustomConverter<Object, Object> {
      *            one or more types that should be treated as immutable
      */
     public CloneableConverter(java.lang.reflect.Type... types) {
-        Method clone;
-        Map<Class<?>, Method> methodCache;
-        try {
-            clone = Object.class.getDeclaredMethod("clone");
-            clone.setAccessible(true);
-            methodCache = null;
-        } catch (SecurityException e) {
-            clone = null;
-            methodCache = new WeakHashMap<>();
-        } catch (NoSuchMethodException e) {
-            throw new IllegalStateException(e);
-        }
-        cloneMethod = clone;
-        cachedMethods = methodCache;
-        
         StringBuilder desc = new StringBuilder(CloneableConverter.class.getSimpleName() + "(Copy by cloning:");
         String separator = "";
         for (java.lang.reflect.Type type : types) {
@@ -116,35 +120,44 @@ public class CloneableConverter extends CustomConverter<Object, Object> {
     		return null;
     	}
     	
+        MethodHandle clone = cloneMethods.get(source.getClass());
         try {
-            Method clone;
-            if (cloneMethod != null) {
-                clone = cloneMethod;
-            } else {
-                clone = cachedMethods.get(source.getClass());
-                if (clone == null) {
-                    /*
-                     * Keep a cache of 'clone' methods based on the assumption
-                     * that it's faster to lookup a method by source class than
-                     * to call Class.getMethod on that class.
-                     */
-                    synchronized (cachedMethods) {
-                        try {
-                            clone = destinationType.getRawType().getMethod("clone");
-                            cachedMethods.put(source.getClass(), clone);
-                        } catch (NoSuchMethodException | SecurityException e) {
-                            throw new IllegalStateException(e);
-                        }
-                    }
-                }
+            return clone.invokeExact(source);
+        } catch (Throwable e) {
+            throw new IllegalStateException("Call to clone method failed for " + source.getClass().getCanonicalName(), e);
+        }
+    }
+    
+    /**
+     * Resolves the clone method of a type: the public clone method which it
+     * declares or inherits, or else the protected one of Object, made
+     * accessible.
+     * 
+     * @param type
+     *            the type to clone
+     * @return a handle on the clone method, typed as <code>(Object)Object</code>
+     */
+    private static MethodHandle resolveCloneMethod(Class<?> type) {
+        Method clone;
+        try {
+            clone = type.getMethod("clone");
+            if (!Modifier.isPublic(clone.getDeclaringClass().getModifiers())) {
+                clone.setAccessible(true);
             }
-            if (System.getSecurityManager() != null) {
-                return AccessController.doPrivileged(new CloneAction(clone, source));
-            } else {
-                return clone.invoke(source);
+        } catch (NoSuchMethodException e) {
+            try {
+                clone = Object.class.getDeclaredMethod("clone");
+                clone.setAccessible(true);
+            } catch (NoSuchMethodException | RuntimeException e1) {
+                throw new IllegalStateException("Call to clone method not accessible for " + type.getCanonicalName(), e1);
             }
-        } catch (IllegalArgumentException | InvocationTargetException | IllegalAccessException e) {
-            throw new IllegalStateException(e);
+        } catch (RuntimeException e) {
+            throw new IllegalStateException("Call to clone method not accessible for " + type.getCanonicalName(), e);
+        }
+        try {
+            return MethodHandles.lookup().unreflect(clone).asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Call to clone method not accessible for " + type.getCanonicalName(), e);
         }
     }
     
@@ -178,35 +191,6 @@ public class CloneableConverter extends CustomConverter<Object, Object> {
         return true;
     }
     
-    /**
-     * CloneAction provides privileged access to the clone method in presence of
-     * a SecurityManager
-     */
-    private static final class CloneAction implements PrivilegedAction<Object> {
-        
-        private final Method method;
-        private final Object target;
-        
-        private CloneAction(Method method, Object target) {
-            this.method = method;
-            this.target = target;
-        }
-        
-        public Object run() {
-            try {
-                return method.invoke(target);
-            } catch (IllegalAccessException e) {
-                String accessibleClause = method.isAccessible() ? "(even though " + method + " is accessible)" : "";
-                throw new IllegalStateException("Call to clone method not accessible for " + target.getClass().getCanonicalName()
-                        + accessibleClause, e);
-            } catch (InvocationTargetException e) {
-                throw new IllegalStateException("Call to clone method failed for " + target.getClass().getCanonicalName(),
-                        e.getTargetException());
-            }
-        }
-        
-    }
-    
     /**
      * Extends CloneableConverter for use as a built-in Converter
      */
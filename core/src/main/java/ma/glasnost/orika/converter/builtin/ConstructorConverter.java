@@ -17,6 +17,14 @@
  */
 package ma.glasnost.orika.converter.builtin;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
 import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.impl.util.ClassUtil;
 import ma.glasnost.orika.metadata.Type;
@@ -25,51 +33,95 @@ import ma.glasnost.orika.metadata.TypeFactory;
 /**
  * ConstructorConverter will converter from one type to another if there exists
  * a constructor for the destinationType with a single argument matching the
- * type of the source.
+ * type of the source.<br>
+ * <br>
+ * 
+ * The constructor resolved for each pair of source and destination classes
+ * (including the absence of one) is cached as a method handle, so that a
+ * conversion looks up no constructor. The handles are held with the
+ * destination class, weakly keyed by the source class, so that the cache
+ * prevents no class from being unloaded.
  * 
  * @author matt.deboer@gmail.com
  * @author elaatifi@gmail.com
  */
 public class ConstructorConverter extends BuiltinCustomConverter<Object, Object> {
     
+    /**
+     * The handle cached for a pair of classes without a matching (accessible)
+     * constructor; it converts to <code>false</code>, as the constructor
+     * lookup has always done
+     */
+    private static final MethodHandle NO_CONSTRUCTOR = MethodHandles.dropArguments(
+            MethodHandles.constant(Object.class, Boolean.FALSE), 0, Object.class);
+    
+    /**
+     * The constructor handles of each destination class, weakly keyed by
+     * source class; a handle only references classes which its destination
+     * class references itself. The maps are made of JDK classes only, so
+     * that storing them with a JDK destination class does not keep the
+     * class-loader of this converter reachable.
+     */
+    private final ClassValue<Map<Class<?>, MethodHandle>> constructors = new ClassValue<Map<Class<?>, MethodHandle>>() {
+        @Override
+        protected Map<Class<?>, MethodHandle> computeValue(Class<?> destinationClass) {
+            return Collections.synchronizedMap(new WeakHashMap<Class<?>, MethodHandle>());
+        }
+    };
+    
     public boolean canConvert(Type<?> sourceType, Type<?> destinationType) {
+        return getConstructor(sourceType.getRawType(), destinationType.getRawType()) != NO_CONSTRUCTOR;
+    }
+    
+    public Object convert(Object source, Type<?> destinationType, MappingContext context) {
+        MethodHandle constructor = getConstructor(source.getClass(), destinationType.getRawType());
         try {
-            return destinationType.getRawType().getConstructor(sourceType.getRawType()) != null;
-        } catch (NoSuchMethodException e) {
-            try {
-                if (sourceType.isPrimitive()) {
-                    return destinationType.getRawType().getConstructor(ClassUtil.getWrapperType(sourceType.getRawType())) != null;
-                } else if (sourceType.isPrimitiveWrapper()) {
-                    return destinationType.getRawType().getConstructor(ClassUtil.getPrimitiveType(sourceType.getRawType())) != null;
-                } else {
-                    return false;
-                }
-            } catch (NoSuchMethodException e1) {
-                return false;
+            return constructor.invokeExact(source);
+        } catch (Throwable e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+    
+    /**
+     * @return the handle of the constructor of the destination class taking
+     *         the source class (or its primitive or wrapper counterpart), typed
+     *         as <code>(Object)Object</code>; or {@link #NO_CONSTRUCTOR}
+     */
+    private MethodHandle getConstructor(Class<?> sourceClass, Class<?> destinationClass) {
+        Map<Class<?>, MethodHandle> constructorsBySource = constructors.get(destinationClass);
+        MethodHandle constructor = constructorsBySource.get(sourceClass);
+        if (constructor == null) {
+            constructor = resolveConstructor(sourceClass, destinationClass);
+            constructorsBySource.put(sourceClass, constructor);
+        }
+        return constructor;
+    }
+    
+    private static MethodHandle resolveConstructor(Class<?> sourceClass, Class<?> destinationClass) {
+        Constructor<?> constructor = findConstructor(destinationClass, sourceClass);
+        if (constructor == null) {
+            if (sourceClass.isPrimitive()) {
+                constructor = findConstructor(destinationClass, ClassUtil.getWrapperType(sourceClass));
+            } else if (TypeFactory.valueOf(sourceClass).isPrimitiveWrapper()) {
+                constructor = findConstructor(destinationClass, ClassUtil.getPrimitiveType(sourceClass));
             }
-        } catch (Exception e) {
-            return false;
+        }
+        if (constructor == null) {
+            return NO_CONSTRUCTOR;
+        }
+        try {
+            return MethodHandles.lookup().unreflectConstructor(constructor)
+                    .asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException e) {
+            return NO_CONSTRUCTOR;
         }
     }
     
-    public Object convert(Object source, Type<?> destinationType, MappingContext context) {
+    private static Constructor<?> findConstructor(Class<?> destinationClass, Class<?> parameterType) {
         try {
-            return destinationType.getRawType().getConstructor(source.getClass()).newInstance(source);
-        } catch (NoSuchMethodException e) {
-            Type<?> sourceType = TypeFactory.valueOf(source.getClass());
-            try {
-                if (sourceType.isPrimitive()) {
-                    return destinationType.getRawType().getConstructor(ClassUtil.getWrapperType(sourceType.getRawType())).newInstance(source);
-                } else if (sourceType.isPrimitiveWrapper()) {
-                    return destinationType.getRawType().getConstructor(ClassUtil.getPrimitiveType(sourceType.getRawType())).newInstance(source);
-                } else {
-                    return false;
-                }
-            } catch (Exception e1) {
-                return false;
-            }
-        } catch (Exception e) {
-            throw new IllegalArgumentException(e);
+            return destinationClass.getConstructor(parameterType);
+        } catch (NoSuchMethodException | SecurityException e) {
+            return null;
         }
     }
     
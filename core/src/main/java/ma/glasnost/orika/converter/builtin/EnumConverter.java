@@ -18,6 +18,7 @@
 package ma.glasnost.orika.converter.builtin;
 
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.util.EnumUtil;
 import ma.glasnost.orika.metadata.Type;
 
 /**
@@ -40,7 +41,7 @@ public class EnumConverter extends BuiltinCustomConverter<Object, Object> {
      */
     public Object convert(Object source, Type<?> destinationType, MappingContext context) {
         @SuppressWarnings({ "unchecked", "rawtypes" })
-        Enum<?> result = (Enum<?>) Enum.valueOf((Class<Enum>) destinationType.getRawType(), ((Enum) source).name());
+        Enum<?> result = EnumUtil.convert((Enum<?>) source, (Class<Enum>) destinationType.getRawType());
         return result;
     }
 }
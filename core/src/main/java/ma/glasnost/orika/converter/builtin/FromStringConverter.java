@@ -18,6 +18,7 @@
 package ma.glasnost.orika.converter.builtin;
 
 import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.util.EnumUtil;
 import ma.glasnost.orika.metadata.Type;
 
 /**
@@ -50,7 +51,7 @@ public class FromStringConverter extends BuiltinCustomConverter<Object, Object>
     
     @SuppressWarnings({ "unchecked", "rawtypes" })
     private Object convertToEnum(String source, Type<?> destinationType) {
-        return Enum.valueOf((Class<Enum>) destinationType.getRawType(), source.toString());
+        return EnumUtil.valueOf((Class<Enum>) destinationType.getRawType(), source);
     }
     
     private Object convertToPrimitive(String source, Type<?> destinationType) {
@@ -121,6 +121,16 @@ public class ConfigurableMapper implements MapperFacade {
         facade = factory.getMapperFacade();
     }
     
+    /**
+     * @return the factory of this mapper, initializing it first if necessary
+     */
+    DefaultMapperFactory getMapperFactory() {
+        if (factory == null) {
+            init();
+        }
+        return factory;
+    }
+    
     /**
      * Implement this method to provide your own configurations to the Orika
      * MapperFactory used by this mapper.
@@ -0,0 +1,155 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import ma.glasnost.orika.CollectionFactory;
+import ma.glasnost.orika.ObjectFactory;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * DefaultCollectionFactory creates the common collection types directly, with
+ * the capacity needed for the expected number of elements, and instantiates
+ * other types through their default constructor.<br>
+ * <br>
+ *
+ * Interfaces and abstract classes are instantiated as the concrete type
+ * provided by {@link DefaultConcreteTypeMap}; a <code>List</code> (or plain
+ * <code>Collection</code>) as an <code>ArrayList</code>, a <code>Set</code> as
+ * a <code>LinkedHashSet</code> and a <code>Map</code> as a
+ * <code>LinkedHashMap</code>. This class may be extended to create other
+ * implementations for some of the declared types.
+ */
+public class DefaultCollectionFactory implements CollectionFactory {
+
+    private static final DefaultCollectionFactory SHARED_INSTANCE = new DefaultCollectionFactory();
+
+    /**
+     * The factory used to instantiate each (declared) type which is not
+     * created directly; held by this instance, so that no JDK class refers to
+     * the factories (and so to the class loader which loaded Orika)
+     */
+    private final ConcurrentHashMap<Class<?>, ObjectFactory<?>> instantiators = new ConcurrentHashMap<>();
+
+    /**
+     * @return a DefaultCollectionFactory shared by the MapperFactory
+     *         implementations which do not provide their own
+     */
+    public static DefaultCollectionFactory getSharedInstance() {
+        return SHARED_INSTANCE;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <E> Collection<E> newCollection(Type<?> collectionType, int expectedSize) {
+        Class<?> rawType = collectionType.getRawType();
+        if (rawType == List.class || rawType == Collection.class || rawType == ArrayList.class) {
+            return expectedSize > 0 ? new ArrayList<E>(expectedSize) : new ArrayList<E>();
+        } else if (rawType == Set.class || rawType == LinkedHashSet.class) {
+            return new LinkedHashSet<>(hashCapacity(expectedSize));
+        } else if (rawType == HashSet.class) {
+            return new HashSet<>(hashCapacity(expectedSize));
+        } else if (rawType == SortedSet.class || rawType == NavigableSet.class || rawType == TreeSet.class) {
+            return new TreeSet<>();
+        } else if (rawType == LinkedList.class) {
+            return new LinkedList<>();
+        } else {
+            return (Collection<E>) instantiatorFor(rawType).create(null, null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <K, V> Map<K, V> newMap(Type<?> mapType, int expectedSize) {
+        Class<?> rawType = mapType.getRawType();
+        if (rawType == Map.class || rawType == LinkedHashMap.class) {
+            return new LinkedHashMap<>(hashCapacity(expectedSize));
+        } else if (rawType == HashMap.class) {
+            return new HashMap<>(hashCapacity(expectedSize));
+        } else if (rawType == SortedMap.class || rawType == NavigableMap.class || rawType == TreeMap.class) {
+            return new TreeMap<>();
+        } else {
+            return (Map<K, V>) instantiatorFor(rawType).create(null, null);
+        }
+    }
+    
+    private ObjectFactory<?> instantiatorFor(Class<?> type) {
+        ObjectFactory<?> instantiator = instantiators.get(type);
+        if (instantiator == null) {
+            Class<?> concreteType = concreteTypeOf(type);
+            try {
+                concreteType.getConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(concreteType + " has no public default constructor", e);
+            }
+            instantiator = new DefaultConstructorObjectFactory<>(concreteType);
+            ObjectFactory<?> existing = instantiators.putIfAbsent(type, instantiator);
+            if (existing != null) {
+                instantiator = existing;
+            }
+        }
+        return instantiator;
+    }
+
+    /**
+     * @return the initial capacity of a hash table which holds the expected
+     *         number of elements without being resized (at the default load
+     *         factor)
+     */
+    private static int hashCapacity(int expectedSize) {
+        if (expectedSize < 3) {
+            return expectedSize + 1;
+        } else if (expectedSize < (1 << 30)) {
+            return (int) (expectedSize / 0.75f + 1.0f);
+        } else {
+            return Integer.MAX_VALUE;
+        }
+    }
+
+    private static Class<?> concreteTypeOf(Class<?> type) {
+        if (!type.isInterface() && !Modifier.isAbstract(type.getModifiers())) {
+            return type;
+        }
+        Class<?> concreteType = DefaultConcreteTypeMap.get(type);
+        if (concreteType != null) {
+            return concreteType;
+        } else if (type.isAssignableFrom(TreeSet.class) && SortedSet.class.isAssignableFrom(type)) {
+            return TreeSet.class;
+        } else if (type.isAssignableFrom(TreeMap.class) && SortedMap.class.isAssignableFrom(type)) {
+            return TreeMap.class;
+        }
+        throw new IllegalArgumentException("No concrete type is known for " + type);
+    }
+}
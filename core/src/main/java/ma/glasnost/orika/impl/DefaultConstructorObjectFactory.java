@@ -20,24 +20,82 @@ package ma.glasnost.orika.impl;
 import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.ObjectFactory;
 
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaConversionException;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 /**
  * DefaultConstructorObjectFactory is used for types which should be instantiated
- * using their default constructor.
+ * using their default constructor.<br>
+ * <br>
+ * 
+ * Where possible, the constructor is bound to a <code>Supplier</code> through
+ * <code>LambdaMetafactory</code>, which the JIT compiles (and inlines) like a
+ * plain <code>new</code>; this requires full privilege access to the type,
+ * which Orika only has (on Java 9 and later) for types of its own module, such
+ * as those loaded by the same class-loader. Other types are instantiated
+ * through <code>Constructor.newInstance</code>; a method handle held in a field
+ * cannot be inlined either, and was measured to be slower than reflection.
  * 
  * @author matt.deboer@gmail.com
  *
  */
 public class DefaultConstructorObjectFactory<T> implements ObjectFactory<T> {
 
+    private static final Logger LOG = LoggerFactory.getLogger(DefaultConstructorObjectFactory.class);
+    
+    /*
+     * MethodHandles.privateLookupIn is resolved reflectively, since it is not
+     * available on Java 8
+     */
+    private static final Method PRIVATE_LOOKUP_IN;
+    
+    static {
+        Method privateLookupIn = null;
+        try {
+            privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+        } catch (NoSuchMethodException e) {
+            /*
+             * Not supported by this Java version
+             */
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+    }
+    
+    /**
+     * The Supplier bound to the default constructor of each type (or null if
+     * none could be bound), so that a lambda class is spun once per type
+     * rather than once per factory; the Supplier is defined in the type's own
+     * class-loader, so it does not keep Orika's class-loader reachable
+     */
+    private static final ClassValue<Supplier<?>> INSTANTIATORS = new ClassValue<Supplier<?>>() {
+        @Override
+        protected Supplier<?> computeValue(Class<?> type) {
+            return createInstantiator(type);
+        }
+    };
+    
     private final String description;
     private final Constructor<T> constructor;
+    private final Supplier<T> instantiator;
     
+    @SuppressWarnings("unchecked")
     public DefaultConstructorObjectFactory(Class<T> type) {
         this.constructor = getDefaultConstructor(type);
         constructor.setAccessible(true);
+        this.instantiator = (Supplier<T>) INSTANTIATORS.get(type);
         this.description = getClass().getSimpleName() + "<" + type.getSimpleName() + ">";
     }
     
@@ -51,11 +109,60 @@ public class DefaultConstructorObjectFactory<T> implements ObjectFactory<T> {
         return null;
     }
     
+    /**
+     * @return a Supplier invoking the default constructor of the type, or null
+     *         if none can be created
+     */
+    private static Supplier<?> createInstantiator(Class<?> type) {
+        if (PRIVATE_LOOKUP_IN == null || Modifier.isAbstract(type.getModifiers())) {
+            return null;
+        }
+        try {
+            Lookup lookup = (Lookup) PRIVATE_LOOKUP_IN.invoke(null, type, MethodHandles.lookup());
+            CallSite factory = LambdaMetafactory.metafactory(lookup, "get", MethodType.methodType(Supplier.class),
+                    MethodType.methodType(Object.class), lookup.findConstructor(type, MethodType.methodType(void.class)),
+                    MethodType.methodType(type));
+            return invokeFactory(factory.getTarget());
+        } catch (InvocationTargetException e) {
+            LOG.debug("No private access to {}; instantiating it through reflection", type, e.getCause());
+        } catch (ReflectiveOperationException | LambdaConversionException e) {
+            /*
+             * Typically, a type of another module, to which the lookup has no
+             * full privilege access
+             */
+            LOG.debug("Cannot bind the constructor of {}; instantiating it through reflection", type, e);
+        }
+        return null;
+    }
+    
+    /**
+     * @param factory
+     *            the factory of a non-capturing lambda, which declares no
+     *            (checked) exception
+     * @return the Supplier created by the factory
+     */
+    private static Supplier<?> invokeFactory(MethodHandle factory) {
+        try {
+            return (Supplier<?>) factory.invoke();
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
     /* (non-Javadoc)
      * @see ma.glasnost.orika.ObjectFactory#create(java.lang.Object, ma.glasnost.orika.MappingContext)
      */
     @Override
     public T create(Object source, MappingContext mappingContext) {
+        if (instantiator != null) {
+            try {
+                return instantiator.get();
+            } catch (RuntimeException e) {
+                throw new IllegalStateException(new InvocationTargetException(e));
+            }
+        }
         try {
             return constructor.newInstance();
         } catch (InstantiationException | InvocationTargetException | IllegalAccessException e) {
@@ -19,6 +19,7 @@
 package ma.glasnost.orika.impl;
 
 import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.CollectionFactory;
 import ma.glasnost.orika.Converter;
 import ma.glasnost.orika.DefaultFieldMapper;
 import ma.glasnost.orika.Filter;
@@ -32,6 +33,7 @@ import ma.glasnost.orika.MappingException;
 import ma.glasnost.orika.ObjectFactory;
 import ma.glasnost.orika.Properties;
 import ma.glasnost.orika.StateReporter.Reportable;
+import ma.glasnost.orika.WarmUpResult;
 import ma.glasnost.orika.constructor.ConstructorResolverStrategy;
 import ma.glasnost.orika.converter.ConverterFactory;
 import ma.glasnost.orika.converter.builtin.BuiltinConverters;
@@ -71,8 +73,12 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
 
 import static java.lang.Boolean.valueOf;
 import static java.lang.System.getProperty;
@@ -97,6 +103,12 @@ import static ma.glasnost.orika.StateReporter.humanReadableSizeInMemory;
 public class DefaultMapperFactory implements MapperFactory, Reportable {
     
     private static final Logger LOGGER = LoggerFactory.getLogger(DefaultMapperFactory.class);
+    
+    /**
+     * Identifies the factory (if any) for which the current thread is
+     * generating mappers on behalf of a parallel build()
+     */
+    private static final ThreadLocal<DefaultMapperFactory> BUILD_WORKER = new ThreadLocal<>();
 
     protected final MapperFacade mapperFacade;
     protected final MapperGenerator mapperGenerator;
@@ -114,6 +126,9 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     protected final UnenhanceStrategy unenhanceStrategy;
     protected final UnenhanceStrategy userUnenahanceStrategy;
     protected final ConverterFactory converterFactory;
+    /** @see #registerCollectionFactory(CollectionFactory) */
+    protected volatile CollectionFactory collectionFactory;
+    protected final CollectionFactory collectionFactoryFacade;
     protected final CompilerStrategy compilerStrategy;
     protected final PropertyResolverStrategy propertyResolverStrategy;
     protected final Map<java.lang.reflect.Type, Type<?>> concreteTypeRegistry;
@@ -122,12 +137,38 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     protected final ClassMapBuilderFactory classMapBuilderFactory;
     protected ClassMapBuilderFactory chainClassMapBuilderFactory;
     protected final Map<MapperKey, Set<ClassMap<Object, Object>>> usedMapperMetadataRegistry;
+    /**
+     * The mappers being generated on demand, by key; a MapperKey equals (and
+     * hashes as) the key of the reverse direction, so a mapper is generated
+     * once for both directions
+     */
+    private final ConcurrentHashMap<MapperKey, PendingMapper> pendingMappers = new ConcurrentHashMap<>();
+    /**
+     * The pending mapper awaited by each thread
+     * 
+     * @see PendingMapper#await()
+     */
+    private final Map<Thread, PendingMapper> awaitedMappers = new HashMap<>();
 
     protected final boolean useAutoMapping;
     protected final boolean useBuiltinConverters;
     protected final boolean favorExtension;
     protected volatile boolean isBuilt = false;
     protected volatile boolean isBuilding = false;
+    /** @see MapperFactoryBuilder#buildExecutor(Executor) */
+    protected final Executor buildExecutor;
+    /**
+     * The thread running build() while mappers are being generated in
+     * parallel; guarded by this factory's monitor
+     */
+    private Thread parallelBuildThread;
+    
+    /**
+     * Incremented (while holding this factory's monitor) whenever the content
+     * of the mappersRegistry changes
+     */
+    private volatile int mappersRegistryVersion;
+    private volatile RegisteredMapperIndex mapperIndex;
 
     protected final ExceptionUtility exceptionUtil;
     
@@ -139,6 +180,8 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     protected DefaultMapperFactory(MapperFactoryBuilder<?, ?> builder) {
         
         this.converterFactory = new ConverterFactoryFacade(builder.converterFactory);
+        this.collectionFactory = builder.collectionFactory;
+        this.collectionFactoryFacade = new CollectionFactoryFacade();
         this.compilerStrategy = builder.compilerStrategy;
         this.classMapRegistry = new ConcurrentHashMap<>();
         this.mappersRegistry = new SortedCollection<>(Ordering.MAPPER);
@@ -151,11 +194,12 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         this.userUnenahanceStrategy = builder.unenhanceStrategy;
         this.unenhanceStrategy = buildUnenhanceStrategy(builder.unenhanceStrategy, builder.superTypeStrategy);
         this.contextFactory = builder.mappingContextFactory;
-        this.nonCyclicContextFactory = new NonCyclicMappingContext.Factory(this.contextFactory.getGlobalProperties());
+        this.nonCyclicContextFactory = buildNonCyclicContextFactory(this.contextFactory);
         this.exceptionUtil = new ExceptionUtility(this, builder.dumpStateOnException);
         this.mapperFacade = buildMapperFacade(contextFactory, unenhanceStrategy);
         this.concreteTypeRegistry = new ConcurrentHashMap<>();
         this.alwaysCreateMultipleMapperWrapper = builder.alwaysCreateMultipleMapperWrapper;
+        this.buildExecutor = builder.buildExecutor;
         
         if (builder.classMaps != null) {
             for (final ClassMap<?, ?> classMap : builder.classMaps) {
@@ -247,6 +291,10 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
          * The class maps configured to initialize the MapperFactory
          */
         protected Set<ClassMap<?, ?>> classMaps;
+        /**
+         * The CollectionFactory configured for the MapperFactory
+         */
+        protected CollectionFactory collectionFactory;
         /**
          * The ConverterFactory configured for the MapperFactory
          */
@@ -320,12 +368,19 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
          * <p>
          */
         protected Boolean getDestinationOnMapping;
+        /**
+         * The Executor on which the mappers for the registered class-maps are
+         * generated during build(); if null, they are generated on the thread
+         * which calls build().
+         */
+        protected Executor buildExecutor;
 
         /**
          * Instantiates a new MapperFactoryBuilder
          */
         public MapperFactoryBuilder() {
             converterFactory = UtilityResolver.getDefaultConverterFactory();
+            collectionFactory = new DefaultCollectionFactory();
             constructorResolverStrategy = UtilityResolver.getDefaultConstructorResolverStrategy();
             compilerStrategy = UtilityResolver.getDefaultCompilerStrategy();
             propertyResolverStrategy = UtilityResolver.getDefaultPropertyResolverStrategy();
@@ -409,6 +464,18 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             return self();
         }
         
+        /**
+         * Configure the CollectionFactory to use with the generated
+         * MapperFactory
+         * 
+         * @param collectionFactory
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B collectionFactory(CollectionFactory collectionFactory) {
+            this.collectionFactory = collectionFactory;
+            return self();
+        }
+        
         /**
          * Configure the CompilerStrategy to use with the generated
          * MapperFactory
@@ -592,6 +659,22 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             return self();
         }
 
+        /**
+         * Configure an Executor on which the mappers for the class-maps
+         * registered before build() are generated and compiled, in parallel.
+         * Mappers are still registered and initialized in the same order as
+         * a sequential build, so the resulting mappers are the same.<br>
+         * By default (<code>null</code>), mappers are generated one at a time
+         * on the thread which calls build().
+         *
+         * @param buildExecutor
+         * @return a reference to <code>this</code> MapperFactoryBuilder
+         */
+        public B buildExecutor(Executor buildExecutor) {
+            this.buildExecutor = buildExecutor;
+            return self();
+        }
+
         /**
          * @return a new instance of the Factory for which this builder is
          *         defined. The construction should be performed via the
@@ -713,6 +796,21 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         return unenhancer;
     }
     
+    /**
+     * Builds the MappingContextFactory used for mapping requests which are
+     * known not to contain cycles, sharing the global properties of the passed
+     * (cyclic) context factory.
+     * 
+     * @param contextFactory
+     * @return the MappingContextFactory to use for non-cyclic mapping
+     */
+    protected MappingContextFactory buildNonCyclicContextFactory(MappingContextFactory contextFactory) {
+        if (contextFactory instanceof StripedMappingContextFactory) {
+            return ((StripedMappingContextFactory) contextFactory).nonCyclic();
+        }
+        return new NonCyclicMappingContext.Factory(contextFactory.getGlobalProperties());
+    }
+    
     /**
      * Builds the MapperFacade for this factory. Subclasses can override this
      * method to build a custom MapperFacade. Please note that this method is
@@ -761,53 +859,115 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
             mapper = null;
         }
         if (mapper == null && useAutoMapping) {
-            synchronized (this) {
-                mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
-                boolean internalMapperMustBeGenerated = internalMapperMustBeGenerated(mapper, mapperKey);
-                if (internalMapperMustBeGenerated) {
-                    mapper = null;
+            if (Thread.holdsLock(this)) {
+                /*
+                 * A thread holding this factory's monitor (while building, or
+                 * registering a class-map) must not wait for another thread,
+                 * which may need the monitor to register its mapper
+                 */
+                mapper = generateMapper(mapperKey, context);
+            } else {
+                mapper = generateOrAwaitMapper(mapperKey, context);
+            }
+        }
+        return (Mapper<Object, Object>) mapper;
+    }
+    
+    /**
+     * Generates the mapper for the specified key, unless another thread is
+     * already generating it, in which case the mapper generated by that thread
+     * is returned once it is available. The generation of a mapper is also
+     * awaited by threads requesting the reverse direction, since the same
+     * mapper serves both. Mappers for distinct pairs of types are generated
+     * concurrently.
+     * 
+     * @param mapperKey
+     * @param context
+     * @return the generated mapper
+     */
+    private Mapper<Object, Object> generateOrAwaitMapper(MapperKey mapperKey, MappingContext context) {
+        PendingMapper pending = new PendingMapper(Thread.currentThread(), awaitedMappers);
+        PendingMapper existing = pendingMappers.putIfAbsent(mapperKey, pending);
+        if (existing == null) {
+            try {
+                Mapper<Object, Object> mapper = generateMapper(mapperKey, context);
+                pending.complete(mapper);
+                return mapper;
+            } catch (RuntimeException | Error e) {
+                pending.fail(e);
+                throw e;
+            } finally {
+                pendingMappers.remove(mapperKey, pending);
+            }
+        } else if (existing.await()) {
+            /*
+             * The mapper may have been generated for the reverse direction;
+             * this returns the registered mapper for the requested direction,
+             * which is only generated again if that one does not serve it
+             */
+            existing.getMapper();
+            return generateMapper(mapperKey, context);
+        } else {
+            /*
+             * The mapper is (indirectly) required by its own generation
+             */
+            return generateMapper(mapperKey, context);
+        }
+    }
+    
+    /**
+     * Generates and registers a mapper for the specified key, unless a mapper
+     * has been registered for it in the meantime.
+     * 
+     * @param mapperKey
+     * @param context
+     * @return the mapper for the specified key
+     */
+    @SuppressWarnings("unchecked")
+    private Mapper<Object, Object> generateMapper(MapperKey mapperKey, MappingContext context) {
+        Mapper<?, ?> mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
+        boolean internalMapperMustBeGenerated = internalMapperMustBeGenerated(mapper, mapperKey);
+        if (internalMapperMustBeGenerated) {
+            mapper = null;
+        }
+        if (mapper == null) {
+            try {
+                /*
+                 * We shouldn't create a mapper for an immutable type;
+                 * although it will succeed in generating an empty
+                 * mapper, it won't actually result in a valid mapping,
+                 * so it's better to throw an exception to indicate more
+                 * clearly that something went wrong. However, there is
+                 * a possibility that a custom ObjectFactory was
+                 * registered for the immutable type, which would be
+                 * valid.
+                 */
+                if (mapperKey.getBType().isImmutable() && !objectFactoryRegistry.containsKey(mapperKey.getBType())) {
+                    throw new MappingException("No converter registered for conversion from " + mapperKey.getAType() + " to "
+                            + mapperKey.getBType() + ", nor any ObjectFactory which can generate " + mapperKey.getBType()
+                            + " from " + mapperKey.getAType());
                 }
-                if (mapper == null) {
-                    try {
-                        /*
-                         * We shouldn't create a mapper for an immutable type;
-                         * although it will succeed in generating an empty
-                         * mapper, it won't actually result in a valid mapping,
-                         * so it's better to throw an exception to indicate more
-                         * clearly that something went wrong. However, there is
-                         * a possibility that a custom ObjectFactory was
-                         * registered for the immutable type, which would be
-                         * valid.
-                         */
-                        if (mapperKey.getBType().isImmutable() && !objectFactoryRegistry.containsKey(mapperKey.getBType())) {
-                            throw new MappingException("No converter registered for conversion from " + mapperKey.getAType() + " to "
-                                    + mapperKey.getBType() + ", nor any ObjectFactory which can generate " + mapperKey.getBType()
-                                    + " from " + mapperKey.getAType());
-                        }
-                        
-                        LOGGER.debug("No mapper registered for {}: attempting to generate", mapperKey);
-                        
-                        ClassMapBuilder<?, ?> builder = classMap(mapperKey.getAType(), mapperKey.getBType()).byDefault();
-                        for (MapperKey key : discoverUsedMappers(builder)) {
-                            builder.use(key.getAType(), key.getBType());
-                        }
-                        final ClassMap<?, ?> classMap = builder.toClassMap();
-                        
-                        buildObjectFactories(classMap, context);
-                        mapper = buildMapper(classMap, true, context);
-                        initializeUsedMappers(mapper, classMap, context);
-                        if (internalMapperMustBeGenerated || alwaysCreateMultipleMapperWrapper) {
-                            // regenerate MultipleMapperWrapper.
-                            mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
-                        }
-                    } catch (MappingException e) {
-                        e.setSourceType(mapperKey.getAType());
-                        e.setDestinationType(mapperKey.getBType());
-                        throw exceptionUtil.decorate(e);
-                    }
+                
+                LOGGER.debug("No mapper registered for {}: attempting to generate", mapperKey);
+                
+                ClassMapBuilder<?, ?> builder = classMap(mapperKey.getAType(), mapperKey.getBType()).byDefault();
+                for (MapperKey key : discoverUsedMappers(builder)) {
+                    builder.use(key.getAType(), key.getBType());
                 }
+                final ClassMap<?, ?> classMap = builder.toClassMap();
+                
+                buildObjectFactories(classMap, context);
+                mapper = buildMapper(classMap, true, context);
+                initializeUsedMappers(mapper, classMap, context);
+                if (internalMapperMustBeGenerated || alwaysCreateMultipleMapperWrapper) {
+                    // regenerate MultipleMapperWrapper.
+                    mapper = getRegisteredMapper(mapperKey.getAType(), mapperKey.getBType(), false);
+                }
+            } catch (MappingException e) {
+                e.setSourceType(mapperKey.getAType());
+                e.setDestinationType(mapperKey.getBType());
+                throw exceptionUtil.decorate(e);
             }
-            
         }
         return (Mapper<Object, Object>) mapper;
     }
@@ -856,10 +1016,15 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     private <A, B> Mapper<A, B> getRegisteredMapper(Type<A> typeA, Type<B> typeB, boolean includeAutoGeneratedMappers) {
         List<Mapper<A, B>> foundMappers = new ArrayList<>();
         
+        List<Mapper<Object, Object>> candidates = getMapperIndex().candidatesFor(typeA);
+        if (candidates.isEmpty()) {
+            return null;
+        }
+        
         boolean objFactoryBExists = customObjectFactoryForDestinationExists(typeA, typeB);
         boolean objFactoryAExists = customObjectFactoryForDestinationExists(typeB, typeA);
         
-        for (Mapper<?, ?> mapper : mappersRegistry) {
+        for (Mapper<?, ?> mapper : candidates) {
             if ((mapper.getAType().equals(typeA) && mapper.getBType().equals(typeB))
                     || (mapper.getAType().equals(typeB) && mapper.getBType().equals(typeA))) {
                 foundMappers.add((Mapper<A, B>) mapper);
@@ -900,6 +1065,37 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         return null;
     }
     
+    /**
+     * @return an index over the current content of the mappersRegistry,
+     *         rebuilt whenever the registry has changed since it was last built
+     */
+    private RegisteredMapperIndex getMapperIndex() {
+        RegisteredMapperIndex index = mapperIndex;
+        if (index == null || index.getVersion() != mappersRegistryVersion) {
+            /*
+             * The registry is only modified while holding this monitor, so
+             * hold it while copying the registry into a new index
+             */
+            synchronized (this) {
+                index = mapperIndex;
+                int version = mappersRegistryVersion;
+                if (index == null || index.getVersion() != version) {
+                    index = new RegisteredMapperIndex(version, mappersRegistry);
+                    mapperIndex = index;
+                }
+            }
+        }
+        return index;
+    }
+    
+    /**
+     * Records a change to the content of the mappersRegistry; must be called
+     * while holding this factory's monitor.
+     */
+    private void mappersRegistryChanged() {
+        ++mappersRegistryVersion;
+    }
+    
     private boolean favorsExtension(Mapper<?, ?> mapper) {
         return mapper.favorsExtension() == null ? favorExtension : mapper.favorsExtension();
     }
@@ -934,7 +1130,11 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
      * getMapperFacade() again.
      */
     public MapperFacade getMapperFacade() {
-        if (!isBuilt) {
+        /*
+         * Threads generating mappers for a parallel build() act on behalf of
+         * the building thread, which already holds the monitor below
+         */
+        if (!isBuilt && BUILD_WORKER.get() != this) {
             synchronized (mapperFacade) {
                 if (!isBuilt) {
                     build();
@@ -1099,66 +1299,67 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         ObjectFactory<T> result = lookupExistingObjectFactory(targetType, sourceType, context);
         
         if (result == null) {
-            // Check if we can use default constructor...
-            synchronized (this) {
-                if (!targetType.isConcrete()) {
-                    targetType = (Type<T>) resolveConcreteType(targetType, targetType);
-                }
-                if (targetType == null) {
-                    throw new IllegalStateException(String.format(
-                            "Cannot create ObjectFactory for \n\t destinationType = %s\n\t sourceType = %s",
-                            destinationType,
-                            sourceType));
-                }
-                
-                Constructor<?>[] constructors = targetType.getRawType().getDeclaredConstructors();
-                if (useAutoMapping || !isBuilt) {
-                    if (constructors.length == 1 && constructors[0].getParameterTypes().length == 0) {
-                        /*
-                         * Use the default constructor in the case where it is
-                         * the only option
-                         */
-                        result = new DefaultConstructorObjectFactory<>(targetType.getRawType());
-                    } else {
-                        try {
-                            result = (ObjectFactory<T>) objectFactoryGenerator.build(targetType, sourceType, context);
-                        } catch (MappingException e) {
-                            for (Constructor<?> c : constructors) {
-                                if (c.getParameterTypes().length == 0) {
-                                    result = new DefaultConstructorObjectFactory<>(targetType.getRawType());
-                                    break;
-                                }
-                            }
-                            if (result == null) {
-                                throw exceptionUtil.decorate(e);
+            /*
+             * The object factory is generated without holding this factory's
+             * monitor; should another thread register one for the same types
+             * in the meantime, that one is used
+             */
+            if (!targetType.isConcrete()) {
+                targetType = (Type<T>) resolveConcreteType(targetType, targetType);
+            }
+            if (targetType == null) {
+                throw new IllegalStateException(String.format(
+                        "Cannot create ObjectFactory for \n\t destinationType = %s\n\t sourceType = %s",
+                        destinationType,
+                        sourceType));
+            }
+            
+            Constructor<?>[] constructors = targetType.getRawType().getDeclaredConstructors();
+            if (useAutoMapping || !isBuilt) {
+                if (constructors.length == 1 && constructors[0].getParameterTypes().length == 0) {
+                    /*
+                     * Use the default constructor in the case where it is
+                     * the only option
+                     */
+                    result = new DefaultConstructorObjectFactory<>(targetType.getRawType());
+                } else {
+                    try {
+                        result = (ObjectFactory<T>) objectFactoryGenerator.build(targetType, sourceType, context);
+                    } catch (MappingException e) {
+                        for (Constructor<?> c : constructors) {
+                            if (c.getParameterTypes().length == 0) {
+                                result = new DefaultConstructorObjectFactory<>(targetType.getRawType());
+                                break;
                             }
                         }
-                    }
-                    
-                    ConcurrentHashMap<Type<?>, ObjectFactory<?>> localCache = objectFactoryRegistry.get(targetType);
-                    if (localCache == null) {
-                        localCache = new ConcurrentHashMap<>();
-                        ConcurrentHashMap<Type<?>, ObjectFactory<?>> existing = objectFactoryRegistry.putIfAbsent(
-                                targetType, localCache);
-                        if (existing != null) {
-                            localCache = existing;
+                        if (result == null) {
+                            throw exceptionUtil.decorate(e);
                         }
                     }
-                    
-                    ObjectFactory<T> existing = (ObjectFactory<T>) localCache.putIfAbsent(sourceType, result);
+                }
+                
+                ConcurrentHashMap<Type<?>, ObjectFactory<?>> localCache = objectFactoryRegistry.get(targetType);
+                if (localCache == null) {
+                    localCache = new ConcurrentHashMap<>();
+                    ConcurrentHashMap<Type<?>, ObjectFactory<?>> existing = objectFactoryRegistry.putIfAbsent(
+                            targetType, localCache);
                     if (existing != null) {
-                        result = existing;
-                    }
-                    
-                } else {
-                    for (Constructor<?> constructor : constructors) {
-                        if (constructor.getParameterTypes().length == 0) {
-                            result = new DefaultConstructorObjectFactory<>(targetType.getRawType());
-                            break;
-                        }
+                        localCache = existing;
                     }
                 }
                 
+                ObjectFactory<T> existing = (ObjectFactory<T>) localCache.putIfAbsent(sourceType, result);
+                if (existing != null) {
+                    result = existing;
+                }
+                
+            } else {
+                for (Constructor<?> constructor : constructors) {
+                    if (constructor.getParameterTypes().length == 0) {
+                        result = new DefaultConstructorObjectFactory<>(targetType.getRawType());
+                        break;
+                    }
+                }
             }
         }
         return result;
@@ -1303,6 +1504,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
 
     @SuppressWarnings("unchecked")
     public synchronized <A, B> void registerClassMap(ClassMap<A, B> classMap) {
+        awaitParallelBuild();
         classMapRegistry.put(new MapperKey(classMap.getAType(), classMap.getBType()), (ClassMap<Object, Object>) classMap);
         if (isBuilding || isBuilt) {
             MappingContext context = contextFactory.getContext();
@@ -1328,6 +1530,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
     
     public synchronized void build() {
         
+        awaitParallelBuild();
         if (!isBuilding && !isBuilt) {
             isBuilding = true;
             
@@ -1347,9 +1550,14 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
 
                 buildClassMapRegistry();
 
-                Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers = new HashMap<>();
-                for (ClassMap<?, ?> classMap : classMapRegistry.values()) {
-                    generatedMappers.put(classMap, buildMapper(classMap, false, context));
+                Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers;
+                if (buildExecutor == null) {
+                    generatedMappers = new HashMap<>();
+                    for (ClassMap<?, ?> classMap : classMapRegistry.values()) {
+                        generatedMappers.put(classMap, buildMapper(classMap, false, context));
+                    }
+                } else {
+                    generatedMappers = buildMappersInParallel(new ArrayList<ClassMap<?, ?>>(classMapRegistry.values()));
                 }
                 
                 Set<Entry<ClassMap<?, ?>, GeneratedMapperBase>> generatedMapperEntries = generatedMappers.entrySet();
@@ -1367,6 +1575,113 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         }
     }
     
+    /**
+     * Generates and compiles the mappers for the specified class-maps on the
+     * configured buildExecutor, and then registers them in the order given.<br>
+     * While waiting for the generation to complete, the calling thread
+     * releases this factory's monitor, since generation may need it (to
+     * register class-maps for the elements of multi-occurrence fields, for
+     * example).
+     * 
+     * @param classMaps
+     * @return the generated mappers, keyed by class-map
+     */
+    private Map<ClassMap<?, ?>, GeneratedMapperBase> buildMappersInParallel(final List<ClassMap<?, ?>> classMaps) {
+        
+        for (ClassMap<?, ?> classMap : classMaps) {
+            register(classMap.getAType(), classMap.getBType(), false);
+            register(classMap.getBType(), classMap.getAType(), false);
+        }
+        
+        final GeneratedMapperBase[] mappers = new GeneratedMapperBase[classMaps.size()];
+        final Throwable[] failures = new Throwable[classMaps.size()];
+        final int[] pending = { classMaps.size() };
+        final ClassLoader contextClassLoader = Thread.currentThread().getContextClassLoader();
+        
+        parallelBuildThread = Thread.currentThread();
+        try {
+            for (int i = 0; i < classMaps.size(); ++i) {
+                final int index = i;
+                Runnable task = new Runnable() {
+                    public void run() {
+                        Thread thread = Thread.currentThread();
+                        ClassLoader previousClassLoader = thread.getContextClassLoader();
+                        DefaultMapperFactory previousFactory = BUILD_WORKER.get();
+                        thread.setContextClassLoader(contextClassLoader);
+                        BUILD_WORKER.set(DefaultMapperFactory.this);
+                        MappingContext context = contextFactory.getContext();
+                        try {
+                            mappers[index] = mapperGenerator.build(classMaps.get(index), context);
+                        } catch (Throwable e) {
+                            failures[index] = e;
+                        } finally {
+                            contextFactory.release(context);
+                            BUILD_WORKER.set(previousFactory);
+                            thread.setContextClassLoader(previousClassLoader);
+                            synchronized (DefaultMapperFactory.this) {
+                                --pending[0];
+                                DefaultMapperFactory.this.notifyAll();
+                            }
+                        }
+                    }
+                };
+                try {
+                    buildExecutor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    task.run();
+                }
+            }
+            
+            boolean interrupted = false;
+            while (pending[0] > 0) {
+                try {
+                    wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        } finally {
+            parallelBuildThread = null;
+            notifyAll();
+        }
+        
+        Map<ClassMap<?, ?>, GeneratedMapperBase> generatedMappers = new HashMap<>();
+        for (int i = 0; i < mappers.length; ++i) {
+            if (failures[i] instanceof RuntimeException) {
+                throw (RuntimeException) failures[i];
+            } else if (failures[i] instanceof Error) {
+                throw (Error) failures[i];
+            } else if (failures[i] != null) {
+                throw new MappingException(failures[i]);
+            }
+            generatedMappers.put(classMaps.get(i), addGeneratedMapper(classMaps.get(i), false, mappers[i]));
+        }
+        return generatedMappers;
+    }
+    
+    /**
+     * Blocks any thread other than the building thread (and the threads
+     * generating mappers on its behalf) while a parallel build() is waiting
+     * for its mappers, so that they observe the same state as they would
+     * have after a sequential build().
+     */
+    private void awaitParallelBuild() {
+        boolean interrupted = false;
+        while (parallelBuildThread != null && parallelBuildThread != Thread.currentThread() && BUILD_WORKER.get() != this) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
     public Set<ClassMap<Object, Object>> lookupUsedClassMap(MapperKey mapperKey) {
         Set<ClassMap<Object, Object>> usedClassMapSet = usedMapperMetadataRegistry.get(mapperKey);
         if (usedClassMapSet == null) {
@@ -1527,14 +1842,35 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         }
     }
     
-    @SuppressWarnings("unchecked")
     private GeneratedMapperBase buildMapper(ClassMap<?, ?> classMap, boolean isAutoGenerated, MappingContext context) {
         
-        register(classMap.getAType(), classMap.getBType(), isAutoGenerated);
-        register(classMap.getBType(), classMap.getAType(), isAutoGenerated);
+        synchronized (this) {
+            register(classMap.getAType(), classMap.getBType(), isAutoGenerated);
+            register(classMap.getBType(), classMap.getAType(), isAutoGenerated);
+        }
+        
+        /*
+         * Mappers are generated without holding this factory's monitor, so
+         * that mappers for distinct types can be generated concurrently
+         */
+        GeneratedMapperBase mapper = mapperGenerator.build(classMap, context);
+        synchronized (this) {
+            return addGeneratedMapper(classMap, isAutoGenerated, mapper);
+        }
+    }
+    
+    /**
+     * Registers a mapper generated for the specified class-map
+     * 
+     * @param classMap
+     * @param isAutoGenerated
+     * @param mapper
+     * @return the registered mapper
+     */
+    @SuppressWarnings("unchecked")
+    private GeneratedMapperBase addGeneratedMapper(ClassMap<?, ?> classMap, boolean isAutoGenerated, GeneratedMapperBase mapper) {
         
         final MapperKey mapperKey = new MapperKey(classMap.getAType(), classMap.getBType());
-        final GeneratedMapperBase mapper = mapperGenerator.build(classMap, context);
         mapper.setMapperFacade(mapperFacade);
         mapper.setFromAutoMapping(isAutoGenerated);
         if (classMap.getCustomizedMapper() != null) {
@@ -1543,6 +1879,7 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         }
         mappersRegistry.remove(mapper);
         mappersRegistry.add(mapper);
+        mappersRegistryChanged();
         classMapRegistry.put(mapperKey, (ClassMap<Object, Object>) classMap);
         
         return mapper;
@@ -1597,6 +1934,17 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         return converterFactory;
     }
     
+    public void registerCollectionFactory(CollectionFactory collectionFactory) {
+        if (collectionFactory == null) {
+            throw new IllegalArgumentException("collectionFactory must not be null");
+        }
+        this.collectionFactory = collectionFactory;
+    }
+    
+    public CollectionFactory getCollectionFactory() {
+        return collectionFactoryFacade;
+    }
+    
     public <T> void registerObjectFactory(ObjectFactory<T> objectFactory, Class<T> targetClass) {
         registerObjectFactory(objectFactory, TypeFactory.<T> valueOf(targetClass));
     }
@@ -1642,7 +1990,9 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
      */
     @SuppressWarnings("unchecked")
     public synchronized <A, B> void registerMapper(Mapper<A, B> mapper) {
+        awaitParallelBuild();
         this.mappersRegistry.add((Mapper<Object, Object>) mapper);
+        mappersRegistryChanged();
         mapper.setMapperFacade(this.mapperFacade);
         register(mapper.getAType(), mapper.getBType(), false);
         register(mapper.getBType(), mapper.getAType(), false);
@@ -1709,6 +2059,55 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         this.filtersRegistry.add((Filter<Object, Object>) filter);
     }
     
+    /*
+     * (non-Javadoc)
+     * 
+     * @see ma.glasnost.orika.MapperFactory#warmUp(java.util.Collection,
+     * java.util.concurrent.Executor)
+     */
+    public CompletableFuture<WarmUpResult> warmUp(Collection<MapperKey> typePairs, Executor executor) {
+        return WarmUpResult.warmUp(typePairs, executor, new Consumer<MapperKey>() {
+            public void accept(MapperKey pair) {
+                warmUp(pair);
+            }
+        });
+    }
+    
+    /**
+     * Generates the mapper and object factory needed to map from the source to
+     * the destination type of the specified pair. If the source type is
+     * concrete, the mapping strategies used by the MapperFacade for source
+     * objects of exactly that class are resolved as well; no such object is
+     * created.
+     * 
+     * @param typePair
+     */
+    private void warmUp(MapperKey typePair) {
+        MapperFacade facade = getMapperFacade();
+        Type<Object> sourceType = typePair.getAType();
+        Type<Object> destinationType = typePair.getBType();
+        
+        MappingContext context = contextFactory.getContext();
+        try {
+            if (!converterFactory.canConvert(sourceType, destinationType)) {
+                lookupMapper(typePair, context);
+                if (destinationType.isConcrete()) {
+                    lookupObjectFactory(destinationType, sourceType, context);
+                }
+            }
+            if (sourceType.isConcrete() && facade instanceof MapperFacadeImpl) {
+                MapperFacadeImpl facadeImpl = (MapperFacadeImpl) facade;
+                Class<?> rawSourceClass = sourceType.getRawType();
+                if (!destinationType.isParameterized()) {
+                    facadeImpl.resolveMappingStrategy(rawSourceClass, null, destinationType.getRawType(), false, context);
+                }
+                facadeImpl.resolveMappingStrategy(rawSourceClass, sourceType, destinationType, false, context);
+            }
+        } finally {
+            contextFactory.release(context);
+        }
+    }
+    
     /*
      * (non-Javadoc)
      * 
@@ -1795,4 +2194,20 @@ public class DefaultMapperFactory implements MapperFactory, Reportable {
         }
     }
     
+    /**
+     * CollectionFactoryFacade delegates to the CollectionFactory currently
+     * registered, so that the generated mappers (which hold on to this
+     * instance) use a factory registered after they were generated.
+     */
+    private class CollectionFactoryFacade implements CollectionFactory {
+        
+        public <E> Collection<E> newCollection(Type<?> collectionType, int expectedSize) {
+            return collectionFactory.newCollection(collectionType, expectedSize);
+        }
+        
+        public <K, V> Map<K, V> newMap(Type<?> mapType, int expectedSize) {
+            return collectionFactory.newMap(mapType, expectedSize);
+        }
+    }
+    
 }
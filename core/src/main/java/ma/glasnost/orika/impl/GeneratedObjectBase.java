@@ -19,6 +19,7 @@
 package ma.glasnost.orika.impl;
 
 import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.CollectionFactory;
 import ma.glasnost.orika.Converter;
 import ma.glasnost.orika.Filter;
 import ma.glasnost.orika.MapperFacade;
@@ -40,6 +41,7 @@ public abstract class GeneratedObjectBase {
     protected BoundMapperFacade<Object, Object>[] usedMapperFacades;
     protected Filter<Object, Object>[] usedFilters;
     protected MapperFacade mapperFacade;
+    protected CollectionFactory collectionFactory;
     protected boolean fromAutoMapping;
     
     public void setMapperFacade(MapperFacade mapper) {
@@ -62,6 +64,10 @@ public abstract class GeneratedObjectBase {
         this.usedFilters = usedFilters;
     }
     
+    public void setCollectionFactory(CollectionFactory collectionFactory) {
+        this.collectionFactory = collectionFactory;
+    }
+    
     public boolean isFromAutoMapping() {
         return fromAutoMapping;
     }
@@ -94,7 +100,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(byte[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -102,7 +108,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(int[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -110,7 +116,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(char[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -118,7 +124,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(long[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -126,7 +132,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(float[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -134,7 +140,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(double[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -142,7 +148,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(boolean[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
@@ -150,7 +156,7 @@ public abstract class GeneratedObjectBase {
     }
     
     protected static List<Object> asList(short[] iterable) {
-        ArrayList<Object> ts = new ArrayList<>();
+        ArrayList<Object> ts = new ArrayList<>(iterable.length);
         for (Object i : iterable) {
             ts.add(i);
         }
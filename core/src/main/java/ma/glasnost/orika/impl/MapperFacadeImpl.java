@@ -18,7 +18,6 @@
 
 package ma.glasnost.orika.impl;
 
-import com.google.common.collect.Iterables;
 import ma.glasnost.orika.Converter;
 import ma.glasnost.orika.MapEntry;
 import ma.glasnost.orika.Mapper;
@@ -42,7 +41,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.lang.reflect.Method;
-import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -65,10 +63,26 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     private final MappingContextFactory contextFactory;
     protected final UnenhanceStrategy unenhanceStrategy;
     private final UnenhanceStrategy userUnenhanceStrategy;
-    private final ConcurrentHashMap<Key, MappingStrategy> strategyCache = new ConcurrentHashMap<>();
+    /*
+     * Resolved strategies, indexed first by destination type (one table for
+     * in-place mapping and one for new instances), then by the declared source
+     * type, then by the raw class of the source object; each level is probed
+     * with an existing object, so a cache hit does not allocate
+     */
+    private final ConcurrentHashMap<java.lang.reflect.Type, StrategyTable> strategyCache = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<java.lang.reflect.Type, StrategyTable> inPlaceStrategyCache = new ConcurrentHashMap<>();
     private final Logger log = LoggerFactory.getLogger(getClass());
     private final ExceptionUtility exceptionUtil;
     
+    private static final Type<?> LIST_TYPE = TypeFactory.valueOf(List.class);
+    /*
+     * Sets, and maps of mapped elements, are created as HashSet and HashMap
+     * (rather than as the insertion-ordered default of the CollectionFactory
+     * for a Set or Map), as they always were
+     */
+    private static final Type<?> HASH_SET_TYPE = TypeFactory.valueOf(HashSet.class);
+    private static final Type<?> HASH_MAP_TYPE = TypeFactory.valueOf(HashMap.class);
+    
     /**
      * Constructs a new MapperFacadeImpl
      * 
@@ -89,13 +103,17 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
      * Normalize the source type based on the registered converters, mappers and
      * accessible super types, as well as available unenhancers
      * 
+     * @param sourceClass
+     *            the class of the source object
      * @param sourceObject
+     *            the source object, or null if only its class is known
      * @param sourceType
      * @param destinationType
      * @return
      */
     @SuppressWarnings("unchecked")
-    private <S, D> Type<S> normalizeSourceType(final S sourceObject, Type<S> sourceType, final Type<D> destinationType) {
+    private <S, D> Type<S> normalizeSourceType(final Class<?> sourceClass, final S sourceObject, Type<S> sourceType,
+            final Type<D> destinationType) {
         
         Type<?> resolvedType;
         
@@ -110,17 +128,18 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
                 resolvedType = sourceType;
             } else {
                 
-                if (sourceType.isAssignableFrom(sourceObject.getClass())) {
-                    sourceType = (Type<S>) TypeFactory.valueOf(sourceObject.getClass());
+                if (sourceType.isAssignableFrom(sourceClass)) {
+                    sourceType = (Type<S>) TypeFactory.valueOf(sourceClass);
                 }
                 if (sourceType.isConcrete()) {
                     resolvedType = unenhanceStrategy.unenhanceType(sourceObject, sourceType);
                 } else {
-                    resolvedType = unenhanceStrategy.unenhanceType(sourceObject, resolveTypeOf(sourceObject, sourceType));
+                    resolvedType = unenhanceStrategy.unenhanceType(sourceObject,
+                            TypeFactory.resolveValueOf((Class<S>) sourceClass, sourceType));
                 }
             }
         } else {
-            resolvedType = unenhanceStrategy.unenhanceType(sourceObject, typeOf(sourceObject));
+            resolvedType = unenhanceStrategy.unenhanceType(sourceObject, TypeFactory.valueOf((Class<S>) sourceClass));
         }
         
         return (Type<S>) resolvedType;
@@ -159,20 +178,45 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
      */
     public <S, D> MappingStrategy resolveMappingStrategy(final S sourceObject, final java.lang.reflect.Type initialSourceType,
             final java.lang.reflect.Type initialDestinationType, final boolean mapInPlace, final MappingContext context) {
+        return resolveMappingStrategy(getClass(sourceObject), sourceObject.getClass(), sourceObject, initialSourceType,
+                initialDestinationType, mapInPlace, context);
+    }
+    
+    /**
+     * Resolves the reusable MappingStrategy used for source objects of the
+     * given class, without an actual source object; this is used to resolve
+     * strategies ahead of the first mapping.
+     * 
+     * @param rawSourceClass
+     *            the (unenhanced) class of the source objects
+     * @param context
+     * @return a MappingStrategy suitable to map objects of the source class to
+     *         the destination type
+     */
+    public MappingStrategy resolveMappingStrategy(final Class<?> rawSourceClass, final java.lang.reflect.Type initialSourceType,
+            final java.lang.reflect.Type initialDestinationType, final boolean mapInPlace, final MappingContext context) {
+        return resolveMappingStrategy(rawSourceClass, rawSourceClass, null, initialSourceType, initialDestinationType, mapInPlace,
+                context);
+    }
+    
+    private <S, D> MappingStrategy resolveMappingStrategy(final Class<?> rawSourceType, final Class<?> sourceClass,
+            final S sourceObject, final java.lang.reflect.Type initialSourceType, final java.lang.reflect.Type initialDestinationType,
+            final boolean mapInPlace, final MappingContext context) {
         
-        Key key = new Key(getClass(sourceObject), initialSourceType, initialDestinationType, mapInPlace);
-        MappingStrategy strategy = strategyCache.get(key);
+        ConcurrentHashMap<Class<?>, MappingStrategy> strategies = strategiesFor(initialSourceType, initialDestinationType, mapInPlace);
+        MappingStrategy strategy = strategies.get(rawSourceType);
         
         if (strategy == null) {
             
+            Key key = new Key(rawSourceType, initialSourceType, initialDestinationType, mapInPlace);
             @SuppressWarnings("unchecked")
             Type<S> sourceType = (Type<S>) (initialSourceType != null ? TypeFactory.valueOf(initialSourceType)
-                    : typeOf(sourceObject));
+                    : TypeFactory.valueOf(sourceClass));
             Type<D> destinationType = TypeFactory.valueOf(initialDestinationType);
             
             MappingStrategyRecorder strategyRecorder = new MappingStrategyRecorder(key, unenhanceStrategy);
             
-            final Type<S> resolvedSourceType = normalizeSourceType(sourceObject, sourceType, destinationType);
+            final Type<S> resolvedSourceType = normalizeSourceType(sourceClass, sourceObject, sourceType, destinationType);
             
             strategyRecorder.setResolvedSourceType(resolvedSourceType);
             strategyRecorder.setResolvedDestinationType(destinationType);
@@ -202,7 +246,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
             if (log.isDebugEnabled()) {
                 log.debug(strategyRecorder.describeDetails());
             }
-            MappingStrategy existing = strategyCache.putIfAbsent(key, strategy);
+            MappingStrategy existing = strategies.putIfAbsent(rawSourceType, strategy);
             if (existing != null) {
             	strategy = existing;
             }
@@ -218,6 +262,30 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
         
         return strategy;
     }
+    
+    /**
+     * Returns the strategies resolved so far for the specified declared types,
+     * indexed by the raw class of the source object.
+     * 
+     * @param initialSourceType
+     * @param initialDestinationType
+     * @param mapInPlace
+     * @return the (possibly empty) strategies for the specified types
+     */
+    private ConcurrentHashMap<Class<?>, MappingStrategy> strategiesFor(final java.lang.reflect.Type initialSourceType,
+            final java.lang.reflect.Type initialDestinationType, final boolean mapInPlace) {
+        
+        ConcurrentHashMap<java.lang.reflect.Type, StrategyTable> cache = mapInPlace ? inPlaceStrategyCache : strategyCache;
+        StrategyTable table = cache.get(initialDestinationType);
+        if (table == null) {
+            table = new StrategyTable();
+            StrategyTable existing = cache.putIfAbsent(initialDestinationType, table);
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        return table.forSourceType(initialSourceType);
+    }
 
     private <S, D> Type<? extends D> resolveDestinationType(MappingContext context, Type<S> sourceType, Type<D> destinationType, Type<S> resolvedSourceType) {
         Type<? extends D> resolvedDestinationType = mapperFactory.lookupConcreteDestinationType(resolvedSourceType, destinationType, context);
@@ -424,14 +492,14 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     
     public final <S, D> Set<D> mapAsSet(final Iterable<S> source, final Type<S> sourceType, final Type<D> destinationType,
             final MappingContext context) {
-        HashSet<D> destination = source instanceof Collection<?> ? new HashSet<>(Iterables.size(source)) : new HashSet<>();
+        Set<D> destination = newSet(sizeOf(source));
         return (Set<D>) mapAsCollection(source, sourceType, destinationType, destination, context);
     }
     
     public final <S, D> List<D> mapAsList(final Iterable<S> source, final Type<S> sourceType, final Type<D> destinationType) {
         MappingContext context = contextFactory.getContext();
         try {
-            List<D> destination = source instanceof Collection<?> ? new ArrayList<>(Iterables.size(source)) : new ArrayList<>();
+            List<D> destination = newList(sizeOf(source));
             return (List<D>) mapAsCollection(source, sourceType, destinationType, destination, context);
         } finally {
             contextFactory.release(context);
@@ -440,7 +508,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     
     public final <S, D> List<D> mapAsList(final Iterable<S> source, final Type<S> sourceType, final Type<D> destinationType,
             final MappingContext context) {
-        ArrayList<D> destination = source instanceof Collection<?> ? new ArrayList<>(Iterables.size(source)) : new ArrayList<>();
+        List<D> destination = newList(sizeOf(source));
         return (List<D>) mapAsCollection(source, sourceType, destinationType, destination, context);
     }
     
@@ -508,7 +576,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     }
     
     public <S, D> List<D> mapAsList(final S[] source, final Type<S> sourceType, final Type<D> destinationType, final MappingContext context) {
-        final List<D> destination = new ArrayList<>(source.length);
+        final List<D> destination = newList(source.length);
         for (final S s : source) {
             destination.add(map(s, sourceType, destinationType, context));
         }
@@ -525,13 +593,47 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     }
     
     public <S, D> Set<D> mapAsSet(final S[] source, final Type<S> sourceType, final Type<D> destinationType, final MappingContext context) {
-        final Set<D> destination = new HashSet<>(source.length);
+        final Set<D> destination = newSet(source.length);
         for (final S s : source) {
             destination.add(map(s, sourceType, destinationType, context));
         }
         return destination;
     }
     
+    /**
+     * @return a new List, created by the CollectionFactory, for the expected
+     *         number of elements
+     */
+    private <D> List<D> newList(int expectedSize) {
+        return (List<D>) mapperFactory.getCollectionFactory().<D> newCollection(LIST_TYPE, expectedSize);
+    }
+    
+    /**
+     * @return a new HashSet, created by the CollectionFactory, for the
+     *         expected number of elements
+     */
+    private <D> Set<D> newSet(int expectedSize) {
+        return (Set<D>) mapperFactory.getCollectionFactory().<D> newCollection(HASH_SET_TYPE, expectedSize);
+    }
+    
+    /**
+     * @return a new Map, created by the CollectionFactory, for the expected
+     *         number of entries mapped from the elements of a source; a
+     *         declared Map is created as a HashMap
+     */
+    private <Dk, Dv> Map<Dk, Dv> newMapOfElements(final Type<? extends Map<Dk, Dv>> destinationType, int expectedSize) {
+        Type<?> mapType = Map.class.equals(destinationType.getRawType()) ? HASH_MAP_TYPE : destinationType;
+        return mapperFactory.getCollectionFactory().newMap(mapType, expectedSize);
+    }
+    
+    /**
+     * @return the number of elements of the source, if it is a collection, or
+     *         0 if it is not known
+     */
+    private static int sizeOf(Iterable<?> source) {
+        return source instanceof Collection<?> ? ((Collection<?>) source).size() : 0;
+    }
+    
     /**
      * Map an iterable onto an existing collection
      * 
@@ -648,7 +750,8 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
         Converter<S, D> converter;
         ConverterFactory converterFactory = mapperFactory.getConverterFactory();
         if (converterId == null) {
-            final Type<?> sourceClass = normalizeSourceType(source, sourceType, destinationType);
+            final Type<?> sourceClass = normalizeSourceType(source != null ? source.getClass() : null, source, sourceType,
+                    destinationType);
             converter = (Converter<S, D>) converterFactory.getConverter(sourceClass, destinationType);
         } else {
             converter = (Converter<S, D>) converterFactory.getConverter(converterId);
@@ -818,12 +921,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     public <Sk, Sv, Dk, Dv> Map<Dk, Dv> mapAsMap(final Map<Sk, Sv> source, final Type<? extends Map<Sk, Sv>> sourceType,
             final Type<? extends Map<Dk, Dv>> destinationType, final MappingContext context) {
         
-        // TODO: should use the registered concrete type for Map here...
-        // Type<? extends Map<Dk, Dv>> destType =
-        // mapperFactory.lookupConcreteDestinationType(sourceType,
-        // destinationType, context);
-        
-        Map<Dk, Dv> destination = new LinkedHashMap<>(source.size());
+        Map<Dk, Dv> destination = mapperFactory.getCollectionFactory().newMap(destinationType, source.size());
         
         /*
          * Resolve the strategy used for the key and value; only re-resolve a
@@ -870,7 +968,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     public <S, Dk, Dv> Map<Dk, Dv> mapAsMap(final Iterable<S> source, final Type<S> sourceType,
             final Type<? extends Map<Dk, Dv>> destinationType, final MappingContext context) {
         
-        Map<Dk, Dv> destination = source instanceof Collection<?> ? new HashMap<>(Iterables.size(source)) : new HashMap<>();
+        Map<Dk, Dv> destination = newMapOfElements(destinationType, sizeOf(source));
         
         Type<?> entryType = TypeFactory.valueOf(Entry.class, destinationType.getNestedType(0), destinationType.getNestedType(1));
         ElementStrategyContext<S, Entry<Dk, Dv>> elementContext = new ElementStrategyContext<>(context, sourceType,
@@ -897,7 +995,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     public <S, Dk, Dv> Map<Dk, Dv> mapAsMap(final S[] source, final Type<S> sourceType, final Type<? extends Map<Dk, Dv>> destinationType,
             final MappingContext context) {
         
-        Map<Dk, Dv> destination = new HashMap<>(source.length);
+        Map<Dk, Dv> destination = newMapOfElements(destinationType, source.length);
         Type<MapEntry<Dk, Dv>> entryType = MapEntry.concreteEntryType(destinationType);
         ElementStrategyContext<S, MapEntry<Dk, Dv>> elementContext = new ElementStrategyContext<>(context, sourceType,
                 entryType);
@@ -928,7 +1026,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
          * Use map as collection to map the entry set to a list; requires an
          * existing mapping for Map.Entry to to type D.
          */
-        List<D> destination = new ArrayList<>(source.size());
+        List<D> destination = newList(source.size());
         
         Type<MapEntry<Sk, Sv>> entryType = MapEntry.concreteEntryType(sourceType);
         
@@ -950,7 +1048,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
          * Use map as collection to map the entry set to a list; requires an
          * existing mapping for Map.Entry to to type D.
          */
-        Set<D> destination = new HashSet<>(source.size());
+        Set<D> destination = newSet(source.size());
         Type<Entry<Sk, Sv>> entryType = resolveTypeOf(source.entrySet(), sourceType).getNestedType(0);
         return (Set<D>) mapAsCollection(source.entrySet(), entryType, destinationType, destination, context);
     }
@@ -1025,6 +1123,7 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
     
     public void factoryModified(MapperFactory factory) {
         strategyCache.clear();
+        inPlaceStrategyCache.clear();
     }
     
     /**
@@ -1034,18 +1133,35 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
      * @param out
      */
     public void reportCurrentState(StringBuilder out) {
+        Map<Key, MappingStrategy> strategies = new LinkedHashMap<>();
+        collectStrategies(strategyCache, false, strategies);
+        collectStrategies(inPlaceStrategyCache, true, strategies);
+        
         out.append(DIVIDER);
         out.append("\nResolved strategies: ")
-                .append(strategyCache.size())
+                .append(strategies.size())
                 .append(" (approximate size: ")
-                .append(humanReadableSizeInMemory(strategyCache))
+                .append(humanReadableSizeInMemory(strategyCache, inPlaceStrategyCache))
                 .append(")");
-        for (Entry<Key, MappingStrategy> entry : strategyCache.entrySet()) {
+        for (Entry<Key, MappingStrategy> entry : strategies.entrySet()) {
             out.append("\n").append(entry.getKey()).append(": ").append(entry.getValue());
         }
         out.append(DIVIDER);
         out.append("\nUnenhance strategy: ").append(unenhanceStrategy);
     }
+    
+    private static void collectStrategies(Map<java.lang.reflect.Type, StrategyTable> cache, boolean mapInPlace,
+            Map<Key, MappingStrategy> strategies) {
+        for (Entry<java.lang.reflect.Type, StrategyTable> table : cache.entrySet()) {
+            for (Entry<Object, ConcurrentHashMap<Class<?>, MappingStrategy>> bySourceType : table.getValue().bySourceType.entrySet()) {
+                java.lang.reflect.Type sourceType = bySourceType.getKey() == StrategyTable.UNDECLARED ? null
+                        : (java.lang.reflect.Type) bySourceType.getKey();
+                for (Entry<Class<?>, MappingStrategy> entry : bySourceType.getValue().entrySet()) {
+                    strategies.put(new Key(entry.getKey(), sourceType, table.getKey(), mapInPlace), entry.getValue());
+                }
+            }
+        }
+    }
 
     /**
      * Return the Type for the given object.
@@ -1098,4 +1214,30 @@ public class MapperFacadeImpl implements MapperFacade, Reportable {
         }
     }
     
+    /**
+     * StrategyTable holds the strategies resolved for a single destination
+     * type, indexed by declared source type and then by source class.
+     */
+    private static final class StrategyTable {
+        
+        /**
+         * Stands in for a <code>null</code> declared source type
+         */
+        private static final Object UNDECLARED = new Object();
+        
+        private final ConcurrentHashMap<Object, ConcurrentHashMap<Class<?>, MappingStrategy>> bySourceType = new ConcurrentHashMap<>();
+        
+        ConcurrentHashMap<Class<?>, MappingStrategy> forSourceType(java.lang.reflect.Type sourceType) {
+            Object key = sourceType == null ? UNDECLARED : sourceType;
+            ConcurrentHashMap<Class<?>, MappingStrategy> strategies = bySourceType.get(key);
+            if (strategies == null) {
+                strategies = new ConcurrentHashMap<>();
+                ConcurrentHashMap<Class<?>, MappingStrategy> existing = bySourceType.putIfAbsent(key, strategies);
+                if (existing != null) {
+                    strategies = existing;
+                }
+            }
+            return strategies;
+        }
+    }
 }
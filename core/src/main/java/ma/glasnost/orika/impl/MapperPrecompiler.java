@@ -0,0 +1,188 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.generator.BytecodeCache;
+import ma.glasnost.orika.metadata.ClassMap;
+import ma.glasnost.orika.metadata.Type;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * MapperPrecompiler generates, at build time, the mappers and object factories
+ * of one or more mapper configurations, and writes their compiled classes to
+ * an output directory (normally the class-path root of the project being
+ * built), from where they are discovered at runtime instead of being compiled
+ * again.<br>
+ * <br>
+ *
+ * A configuration is the name of a class with a no-argument constructor which
+ * either extends {@link ConfigurableMapper}, or implements
+ * <code>java.util.function.Supplier&lt;MapperFactory&gt;</code>; the mappers
+ * of all class-maps registered with the resulting factory are generated, along
+ * with the object factories for their types.<br>
+ * <br>
+ *
+ * The classes are written through a {@link BytecodeCache} located at
+ * {@value BytecodeCache#PRECOMPILED_CLASSES_PATH} below the output directory,
+ * so only the mappers of factories using the default
+ * {@link ma.glasnost.orika.impl.generator.JavassistCompilerStrategy} are
+ * precompiled. At runtime, the generated sources are still produced (they bind
+ * each mapper to the converters, types and mapper facades of its factory, and
+ * their digest is the key of the precompiled class), but are matched to the
+ * precompiled classes without compiling them; only the compilation is saved,
+ * not the generation of the source.
+ *
+ * @see BytecodeCache#getDefault()
+ */
+public final class MapperPrecompiler {
+
+    private static final Logger LOG = LoggerFactory.getLogger(MapperPrecompiler.class);
+
+    private MapperPrecompiler() {
+
+    }
+
+    /**
+     * Precompiles the mappers of the specified configurations.
+     *
+     * @param outputDirectory
+     *            the class-path root to which the classes are written
+     * @param configurations
+     *            the names of the configuration classes
+     * @param classLoader
+     *            the class-loader from which to load the configurations (and
+     *            the types they map)
+     * @return the number of classes written
+     * @throws IOException
+     *             if the classes could not be written
+     * @throws ClassNotFoundException
+     *             if a configuration class could not be found
+     */
+    public static int precompile(File outputDirectory, Collection<String> configurations, ClassLoader classLoader) throws IOException,
+            ClassNotFoundException {
+
+        File location = new File(outputDirectory, BytecodeCache.PRECOMPILED_CLASSES_PATH);
+        BytecodeCache cache = new BytecodeCache(location);
+        cache.clear();
+
+        Thread currentThread = Thread.currentThread();
+        ClassLoader contextClassLoader = currentThread.getContextClassLoader();
+
+        /*
+         * Factories created by the configurations obtain their (default)
+         * compiler strategy themselves; direct the strategies created by this
+         * thread to the output directory
+         */
+        currentThread.setContextClassLoader(classLoader);
+        BytecodeCache threadCache = BytecodeCache.setThreadDefault(cache);
+        try {
+            for (String configuration : configurations) {
+                LOG.debug("Precompiling mappers of {}", configuration);
+                generate(configure(Class.forName(configuration.trim(), true, classLoader)));
+            }
+        } finally {
+            BytecodeCache.setThreadDefault(threadCache);
+            currentThread.setContextClassLoader(contextClassLoader);
+        }
+
+        return cache.writeIndex();
+    }
+
+    /**
+     * Precompiles the mappers of the configurations named by the arguments
+     * following the output directory, loading them from the class-path; the
+     * outcome is reported through the logger.
+     *
+     * @param args
+     *            the output directory, followed by the names of the
+     *            configuration classes
+     * @throws IllegalArgumentException
+     *             if no output directory or configuration is specified
+     * @throws Exception
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            throw new IllegalArgumentException("Usage: MapperPrecompiler <output directory> <configuration class>...");
+        }
+        List<String> configurations = Arrays.asList(args).subList(1, args.length);
+        int count = precompile(new File(args[0]), configurations, MapperPrecompiler.class.getClassLoader());
+        LOG.info("Precompiled {} classes to {}", count, args[0]);
+    }
+
+    private static MapperFactory configure(Class<?> configurationClass) {
+        Object configuration;
+        try {
+            Constructor<?> constructor = configurationClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            configuration = constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Could not instantiate configuration " + configurationClass.getName(), e);
+        }
+
+        if (configuration instanceof ConfigurableMapper) {
+            return ((ConfigurableMapper) configuration).getMapperFactory();
+        } else if (configuration instanceof Supplier) {
+            Object factory = ((Supplier<?>) configuration).get();
+            if (factory instanceof MapperFactory) {
+                return (MapperFactory) factory;
+            }
+        }
+        throw new IllegalArgumentException(configurationClass.getName() + " is neither a " + ConfigurableMapper.class.getName()
+                + " nor a " + Supplier.class.getName() + " of " + MapperFactory.class.getName());
+    }
+
+    private static void generate(MapperFactory factory) {
+        /*
+         * Building the factory generates the mappers of the registered
+         * class-maps
+         */
+        factory.getMapperFacade();
+        if (!(factory instanceof DefaultMapperFactory)) {
+            return;
+        }
+        List<ClassMap<?, ?>> classMaps = new ArrayList<ClassMap<?, ?>>(((DefaultMapperFactory) factory).classMapRegistry.values());
+        for (ClassMap<?, ?> classMap : classMaps) {
+            generateObjectFactory(factory, classMap.getBType(), classMap.getAType());
+            generateObjectFactory(factory, classMap.getAType(), classMap.getBType());
+        }
+    }
+
+    private static void generateObjectFactory(MapperFactory factory, Type<?> targetType, Type<?> sourceType) {
+        try {
+            factory.lookupObjectFactory(targetType, sourceType);
+        } catch (RuntimeException e) {
+            /*
+             * Not every mapped type can be instantiated (or needs to be)
+             */
+            LOG.debug("No object factory generated for " + targetType + " from " + sourceType, e);
+        }
+    }
+}
@@ -25,14 +25,14 @@ import ma.glasnost.orika.metadata.TypeFactory;
 import ma.glasnost.orika.util.Ordering;
 import ma.glasnost.orika.util.SortedCollection;
 
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.WeakHashMap;
 
 /**
  * The MultipleMapperWrapper wraps multiple instances of {@link Mapper} and decide dynamically during Mapping which {@link Mapper} should be
@@ -42,15 +42,29 @@ import java.util.WeakHashMap;
  * @see <a href="https://github.com/orika-mapper/orika/issues/176">https://github.com/orika-mapper/orika/issues/176</a>
  */
 public final class MultipleMapperWrapper extends GeneratedMapperBase {
+    
+    /**
+     * The maximum number of (source class, destination class) pairs for which
+     * the resolved mapper is cached; when the limit is reached, the oldest
+     * entry is evicted.
+     */
+    static final int MAX_CACHED_MAPPERS = 64;
+    
     private final Collection<Mapper<Object, Object>> mappersRegistry;
-    private final Map<MapperKey, Mapper<Object, Object>> mappersCache;
+    
+    /**
+     * Copy-on-write cache of the mappers resolved for the runtime classes of
+     * the mapped objects, oldest entry first; classes are weakly referenced so
+     * that the cache does not prevent them from being unloaded.
+     */
+    private volatile CacheEntry[] mappersCache;
     
     public MultipleMapperWrapper(Type<Object> typeA, Type<Object> typeB, List<Mapper<Object, Object>> mappers) {
         super();
         setAType(typeA);
         setBType(typeB);
         mappersRegistry = new SortedCollection<>(mappers, Ordering.MAPPER);
-        mappersCache = new WeakHashMap<>();
+        mappersCache = new CacheEntry[0];
     }
     
     @Override
@@ -76,12 +90,18 @@ public final class MultipleMapperWrapper extends GeneratedMapperBase {
     }
     
     private Mapper<Object, Object> getMapperFor(Object a, Object b) {
-        MapperKey mapperKey = createMapperKey(a, b);
-        Mapper<Object, Object> mapper = mappersCache.get(mapperKey);
-        if (mapper != null) {
-            return mapper;
+        Class<?> aClass = a.getClass();
+        Class<?> bClass = b.getClass();
+        CacheEntry[] cache = mappersCache;
+        for (int i = cache.length - 1; i >= 0; --i) {
+            CacheEntry entry = cache[i];
+            if (entry.aClass.get() == aClass && entry.bClass.get() == bClass) {
+                return entry.mapper;
+            }
         }
-        mapper = findMapperFor(mapperKey);
+        
+        MapperKey mapperKey = createMapperKey(a, b);
+        Mapper<Object, Object> mapper = findMapperFor(mapperKey);
         if (mapper == null) {
             StringBuilder sb = new StringBuilder();
             sb.append(String.format("No matching Mapper found for %s <-> %s", mapperKey.getAType(), mapperKey.getBType()));
@@ -98,10 +118,31 @@ public final class MultipleMapperWrapper extends GeneratedMapperBase {
             }
             throw new IllegalStateException(sb.toString());
         }
-        mappersCache.put(mapperKey, mapper);
+        cacheMapper(aClass, bClass, mapper);
         return mapper;
     }
     
+    /**
+     * Publishes a new copy of the cache including the specified entry, dropping
+     * entries whose classes have been collected and, if the cache is full, the
+     * oldest entry. Concurrent updates may overwrite each other, in which case
+     * the lost entry is simply resolved again.
+     */
+    private void cacheMapper(Class<?> aClass, Class<?> bClass, Mapper<Object, Object> mapper) {
+        CacheEntry[] cache = mappersCache;
+        List<CacheEntry> entries = new ArrayList<>(cache.length + 1);
+        for (CacheEntry entry : cache) {
+            if (entry.aClass.get() != null && entry.bClass.get() != null) {
+                entries.add(entry);
+            }
+        }
+        if (entries.size() >= MAX_CACHED_MAPPERS) {
+            entries.subList(0, entries.size() - MAX_CACHED_MAPPERS + 1).clear();
+        }
+        entries.add(new CacheEntry(aClass, bClass, mapper));
+        mappersCache = entries.toArray(new CacheEntry[entries.size()]);
+    }
+    
     @SuppressWarnings({ "rawtypes", "unchecked" })
     public Mapper<Object, Object> findMapperFor(MapperKey mapperKey) {
         for (Mapper mapper : mappersRegistry) {
@@ -146,4 +187,19 @@ public final class MultipleMapperWrapper extends GeneratedMapperBase {
         return Collections.unmodifiableCollection(mappersRegistry);
     }
     
+    /**
+     * A resolved mapper for a particular pair of runtime classes
+     */
+    private static final class CacheEntry {
+        private final WeakReference<Class<?>> aClass;
+        private final WeakReference<Class<?>> bClass;
+        private final Mapper<Object, Object> mapper;
+        
+        private CacheEntry(Class<?> aClass, Class<?> bClass, Mapper<Object, Object> mapper) {
+            this.aClass = new WeakReference<Class<?>>(aClass);
+            this.bClass = new WeakReference<Class<?>>(bClass);
+            this.mapper = mapper;
+        }
+    }
+    
 }
\ No newline at end of file
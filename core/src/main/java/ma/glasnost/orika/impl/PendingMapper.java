@@ -0,0 +1,137 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import ma.glasnost.orika.Mapper;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * PendingMapper is a mapper which is being generated by one thread, and for
+ * which other threads requesting the same mapper wait instead of generating it
+ * again.<br>
+ * <br>
+ *
+ * Generating a mapper may require other mappers, so threads generating
+ * mappers which depend on each other could each end up waiting for the other;
+ * a thread therefore only waits if doing so does not close a cycle of threads
+ * waiting for each other's mappers (including one waiting for a mapper it is
+ * generating itself), and otherwise generates the mapper itself, as it would
+ * without any other thread involved.
+ */
+final class PendingMapper {
+
+    /**
+     * The pending mapper (if any) awaited by each thread, shared by the
+     * pending mappers of one MapperFactory; guarded by its own monitor, so
+     * that a wait is only registered if it closes no cycle
+     */
+    private final Map<Thread, PendingMapper> awaitedMappers;
+    private final Thread owner;
+    private final CountDownLatch done = new CountDownLatch(1);
+    private volatile Mapper<Object, Object> mapper;
+    private volatile Throwable failure;
+
+    /**
+     * @param owner
+     *            the thread generating the mapper
+     * @param awaitedMappers
+     *            the pending mapper awaited by each thread, for the
+     *            MapperFactory generating the mapper
+     */
+    PendingMapper(Thread owner, Map<Thread, PendingMapper> awaitedMappers) {
+        this.owner = owner;
+        this.awaitedMappers = awaitedMappers;
+    }
+
+    /**
+     * Provides the generated mapper to the waiting threads
+     *
+     * @param mapper
+     */
+    void complete(Mapper<Object, Object> mapper) {
+        this.mapper = mapper;
+        done.countDown();
+    }
+
+    /**
+     * Provides the failure of the generation to the waiting threads
+     *
+     * @param failure
+     */
+    void fail(Throwable failure) {
+        this.failure = failure;
+        done.countDown();
+    }
+
+    /**
+     * Waits for the generation of the mapper to complete, unless it would
+     * wait (directly or through other threads) for the current thread.
+     *
+     * @return false if the current thread did not wait, in which case it
+     *         should generate the mapper itself
+     */
+    boolean await() {
+        if (done.getCount() == 0) {
+            return true;
+        }
+        Thread current = Thread.currentThread();
+        synchronized (awaitedMappers) {
+            for (PendingMapper awaited = this; awaited != null; awaited = awaitedMappers.get(awaited.owner)) {
+                if (awaited.owner == current) {
+                    return false;
+                }
+            }
+            awaitedMappers.put(current, this);
+        }
+        boolean interrupted = false;
+        try {
+            while (done.getCount() > 0) {
+                try {
+                    done.await();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            synchronized (awaitedMappers) {
+                awaitedMappers.remove(current);
+            }
+            if (interrupted) {
+                current.interrupt();
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the generated mapper, once the generation has completed
+     * @throws RuntimeException
+     *             the failure of the generation
+     */
+    Mapper<Object, Object> getMapper() {
+        if (failure instanceof RuntimeException) {
+            throw (RuntimeException) failure;
+        } else if (failure instanceof Error) {
+            throw (Error) failure;
+        }
+        return mapper;
+    }
+}
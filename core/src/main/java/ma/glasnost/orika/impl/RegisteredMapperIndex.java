@@ -0,0 +1,172 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.metadata.Type;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * RegisteredMapperIndex is an immutable snapshot of the registered mappers,
+ * indexed by the raw classes of their A and B types.<br>
+ * <br>
+ *
+ * A mapper can only apply to a type if one of its own types is assignable from
+ * that type; so the candidates for a given type are found by visiting the
+ * buckets of the type's raw class and of each of its super-classes and
+ * interfaces, rather than by testing every registered mapper. Candidates are
+ * returned in the same order as the registry they were built from (i.e.
+ * {@link ma.glasnost.orika.util.Ordering#MAPPER}).
+ */
+final class RegisteredMapperIndex {
+
+    /**
+     * The raw class, its super-classes and all of its interfaces, computed once
+     * per class
+     */
+    private static final ClassValue<Class<?>[]> SUPER_TYPES = new ClassValue<Class<?>[]>() {
+        @Override
+        protected Class<?>[] computeValue(Class<?> type) {
+            Set<Class<?>> superTypes = new LinkedHashSet<>();
+            collectSuperTypes(type, superTypes);
+            if (!type.isPrimitive()) {
+                superTypes.add(Object.class);
+            }
+            return superTypes.toArray(new Class<?>[superTypes.size()]);
+        }
+    };
+
+    private final int version;
+    private final Mapper<Object, Object>[] mappers;
+    private final Map<Class<?>, int[]> positionsByRawType;
+
+    /**
+     * @param version
+     *            the registry version from which this index was built
+     * @param sortedMappers
+     *            the registered mappers, in registry order
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    RegisteredMapperIndex(int version, Collection<Mapper<Object, Object>> sortedMappers) {
+        this.version = version;
+        this.mappers = sortedMappers.toArray(new Mapper[0]);
+
+        Map<Class<?>, List<Integer>> positions = new HashMap<>();
+        for (int i = 0; i < mappers.length; ++i) {
+            addPosition(positions, mappers[i].getAType().getRawType(), i);
+            if (!mappers[i].getBType().getRawType().equals(mappers[i].getAType().getRawType())) {
+                addPosition(positions, mappers[i].getBType().getRawType(), i);
+            }
+        }
+        this.positionsByRawType = new HashMap<>(positions.size() * 2);
+        for (Map.Entry<Class<?>, List<Integer>> entry : positions.entrySet()) {
+            List<Integer> list = entry.getValue();
+            int[] array = new int[list.size()];
+            for (int i = 0; i < array.length; ++i) {
+                array[i] = list.get(i);
+            }
+            positionsByRawType.put(entry.getKey(), array);
+        }
+    }
+
+    /**
+     * @return the registry version from which this index was built
+     */
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns the registered mappers having an A or B type whose raw class is
+     * assignable from the raw class of the specified type, in registry order.
+     *
+     * @param type
+     * @return the candidate mappers for the specified type
+     */
+    List<Mapper<Object, Object>> candidatesFor(Type<?> type) {
+        Class<?> rawType = type.getRawType();
+        if (rawType.isArray()) {
+            /*
+             * Array assignability also involves the component types; arrays are
+             * rarely mapped with registered mappers, so just return them all
+             */
+            return Arrays.asList(mappers);
+        }
+
+        int[] found = null;
+        int count = 0;
+        for (Class<?> superType : SUPER_TYPES.get(rawType)) {
+            int[] positions = positionsByRawType.get(superType);
+            if (positions != null) {
+                if (found == null) {
+                    found = positions.clone();
+                    count = positions.length;
+                } else {
+                    if (count + positions.length > found.length) {
+                        found = Arrays.copyOf(found, Math.max(found.length * 2, count + positions.length));
+                    }
+                    System.arraycopy(positions, 0, found, count, positions.length);
+                    count += positions.length;
+                }
+            }
+        }
+        if (found == null) {
+            return Collections.emptyList();
+        }
+
+        Arrays.sort(found, 0, count);
+        List<Mapper<Object, Object>> candidates = new ArrayList<>(count);
+        int previous = -1;
+        for (int i = 0; i < count; ++i) {
+            if (found[i] != previous) {
+                previous = found[i];
+                candidates.add(mappers[previous]);
+            }
+        }
+        return candidates;
+    }
+
+    private static void addPosition(Map<Class<?>, List<Integer>> positions, Class<?> rawType, int position) {
+        List<Integer> list = positions.get(rawType);
+        if (list == null) {
+            list = new ArrayList<>(2);
+            positions.put(rawType, list);
+        }
+        list.add(position);
+    }
+
+    private static void collectSuperTypes(Class<?> type, Set<Class<?>> superTypes) {
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            if (superTypes.add(current)) {
+                for (Class<?> superInterface : current.getInterfaces()) {
+                    collectSuperTypes(superInterface, superTypes);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingContextFactory;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * StripedMappingContextFactory is a MappingContextFactory which pools released
+ * MappingContext instances in a fixed number of slots, rather than in a single
+ * shared queue.<br>
+ * <br>
+ *
+ * Each thread starts probing at a slot derived from its id, so threads tend to
+ * reuse their own contexts and rarely touch the same slot as another thread.
+ * The pool never holds more than <code>maxPoolSize</code> contexts; contexts
+ * released while no slot is free are simply dropped. Contexts whose caches held
+ * more than <code>maxRetainedEntries</code> entries are also dropped on release,
+ * so that tables grown by an unusually large object graph are not kept alive.<br>
+ * <br>
+ *
+ * It may be selected using
+ * {@link DefaultMapperFactory.MapperFactoryBuilder#mappingContextFactory(MappingContextFactory)},
+ * or through the {@link ma.glasnost.orika.OrikaSystemProperties#MAPPING_CONTEXT_FACTORY}
+ * system property.
+ */
+public class StripedMappingContextFactory implements MappingContextFactory {
+
+    /**
+     * The default maximum number of pooled contexts
+     */
+    public static final int DEFAULT_MAX_POOL_SIZE = Math.max(8, 2 * Runtime.getRuntime().availableProcessors());
+
+    /**
+     * The default maximum number of cached entries a released context may have
+     * held and still be returned to the pool
+     */
+    public static final int DEFAULT_MAX_RETAINED_ENTRIES = 256;
+
+    /**
+     * The number of slots examined before giving up on the pool
+     */
+    private static final int PROBES = 4;
+
+    private final AtomicReferenceArray<MappingContext> slots;
+    private final int maxRetainedEntries;
+    private final Map<Object, Object> globalProperties;
+    private final boolean containsCycle;
+
+    /**
+     * Constructs a new StripedMappingContextFactory using the default pool size
+     * and retained entry limit
+     */
+    public StripedMappingContextFactory() {
+        this(DEFAULT_MAX_POOL_SIZE, DEFAULT_MAX_RETAINED_ENTRIES);
+    }
+
+    /**
+     * Constructs a new StripedMappingContextFactory
+     *
+     * @param maxPoolSize
+     *            the maximum number of contexts to keep for reuse; a value of
+     *            zero disables pooling
+     * @param maxRetainedEntries
+     *            the maximum number of cached entries a released context may
+     *            have held and still be kept for reuse
+     */
+    public StripedMappingContextFactory(int maxPoolSize, int maxRetainedEntries) {
+        this(new ConcurrentHashMap<>(), true, maxPoolSize, maxRetainedEntries);
+    }
+
+    /**
+     * @param globalProperties
+     * @param containsCycle
+     * @param maxPoolSize
+     * @param maxRetainedEntries
+     */
+    protected StripedMappingContextFactory(Map<Object, Object> globalProperties, boolean containsCycle, int maxPoolSize,
+            int maxRetainedEntries) {
+        if (maxPoolSize < 0) {
+            throw new IllegalArgumentException("maxPoolSize must not be negative");
+        }
+        if (maxRetainedEntries < 0) {
+            throw new IllegalArgumentException("maxRetainedEntries must not be negative");
+        }
+        this.slots = new AtomicReferenceArray<>(maxPoolSize);
+        this.maxRetainedEntries = maxRetainedEntries;
+        this.globalProperties = globalProperties;
+        this.containsCycle = containsCycle;
+    }
+
+    /**
+     * Creates a factory with the same pool settings and global properties as
+     * this one, which produces contexts that do not guard against cycles.
+     *
+     * @return a non-cyclic counterpart of this factory
+     */
+    public StripedMappingContextFactory nonCyclic() {
+        return new StripedMappingContextFactory(globalProperties, false, slots.length(), maxRetainedEntries);
+    }
+
+    /**
+     * Creates a new MappingContext instance when none is available in the pool.
+     *
+     * @param globalProperties
+     * @return a new MappingContext
+     */
+    protected MappingContext newContext(Map<Object, Object> globalProperties) {
+        return containsCycle ? new MappingContext(globalProperties) : new NonCyclicMappingContext(globalProperties);
+    }
+
+    public MappingContext getContext() {
+        int length = slots.length();
+        if (length > 0) {
+            int start = slotOf(Thread.currentThread(), length);
+            for (int i = 0, probes = Math.min(PROBES, length); i < probes; ++i) {
+                int slot = (start + i) % length;
+                MappingContext context = slots.get(slot);
+                if (context != null && slots.compareAndSet(slot, context, null)) {
+                    context.containsCycle(containsCycle);
+                    return context;
+                }
+            }
+        }
+        MappingContext context = newContext(globalProperties);
+        context.containsCycle(containsCycle);
+        return context;
+    }
+
+    public void release(MappingContext context) {
+        boolean retain = context.getCachedEntryCount() <= maxRetainedEntries;
+        context.reset();
+        int length = slots.length();
+        if (retain && length > 0) {
+            int start = slotOf(Thread.currentThread(), length);
+            for (int i = 0, probes = Math.min(PROBES, length); i < probes; ++i) {
+                int slot = (start + i) % length;
+                if (slots.get(slot) == null && slots.compareAndSet(slot, null, context)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /*
+     * (non-Javadoc)
+     *
+     * @see ma.glasnost.orika.MappingContextFactory#getGlobalProperties()
+     */
+    public Map<Object, Object> getGlobalProperties() {
+        return globalProperties;
+    }
+
+    /**
+     * @return the number of contexts currently held for reuse
+     */
+    public int getPooledCount() {
+        int count = 0;
+        for (int i = 0, length = slots.length(); i < length; ++i) {
+            if (slots.get(i) != null) {
+                ++count;
+            }
+        }
+        return count;
+    }
+
+    private static int slotOf(Thread thread, int length) {
+        long id = thread.getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9;
+        hash ^= hash >>> 16;
+        return (hash & 0x7FFFFFFF) % length;
+    }
+}
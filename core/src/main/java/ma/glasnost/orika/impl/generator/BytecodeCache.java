@@ -0,0 +1,625 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.metadata.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.ref.WeakReference;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * BytecodeCache keeps the bytecode compiled for generated sources in a
+ * directory (or reads it from an archive, or from the class-path), so that a
+ * generated source which was already compiled by an earlier run, or ahead of
+ * time by the build, can be loaded instead of compiled again.<br>
+ * <br>
+ *
+ * Entries are keyed by a digest of the generated fields and methods (in which
+ * the unique class name is replaced by a placeholder), the package, the
+ * super-class, the compiler strategy and the Orika version, together with
+ * digests of the class files of the mapped types and of every type used by
+ * the generated source (and of their super-classes and interfaces), so that a
+ * class compiled against an earlier version of a mapped class is not loaded
+ * for the current one; bytecode compiled
+ * by a newer Java version than the one running fails to define, and is
+ * compiled again instead. The source is generated from the ClassMap, the
+ * resolved properties and the converters in use, so a change to any of them
+ * produces a different key; the converters, types and mapper facades
+ * themselves are supplied to each new instance at runtime, as
+ * they would be for a freshly compiled class.<br>
+ * <br>
+ *
+ * A cached class is defined with the name it was compiled under; classes
+ * compiled or defined for a key are remembered (weakly), so that several
+ * factories within one JVM share a class rather than attempt to redefine it.<br>
+ * <br>
+ *
+ * Entries are never evicted from the directory: as the mapped classes change,
+ * entries for their earlier versions remain (unused) until the directory is
+ * deleted, or emptied with {@link #clear()}; a directory shared by builds of
+ * changing code should therefore be cleared from time to time.<br>
+ * <br>
+ *
+ * Classes precompiled at build time (see
+ * {@link ma.glasnost.orika.impl.MapperPrecompiler}) are written below
+ * {@value #PRECOMPILED_CLASSES_PATH} along with an index of their keys, and
+ * are discovered on the class-path by {@link #getDefault()}.
+ *
+ * @see OrikaSystemProperties#BYTECODE_CACHE_PATH
+ */
+public class BytecodeCache {
+
+    private static final Logger LOG = LoggerFactory.getLogger(BytecodeCache.class);
+
+    /**
+     * The resource path below which precompiled classes are found on the
+     * class-path
+     */
+    public static final String PRECOMPILED_CLASSES_PATH = "META-INF/orika/precompiled";
+
+    private static final String INDEX_NAME = "orika.index";
+    private static final int ENTRY_MAGIC = 0x0B1CA001;
+    private static final String ENTRY_SUFFIX = ".bytecode";
+    private static final String CLASS_NAME_PLACEHOLDER = "$$OrikaGeneratedClass$$";
+
+    /**
+     * The Orika version, or (when running without a manifest, as from a build
+     * directory) a digest of the class file of the source generator
+     */
+    private static final String ORIKA_VERSION = orikaVersion();
+
+    /**
+     * Classes defined from cached entries within this JVM, by key
+     */
+    private static final ConcurrentHashMap<String, WeakReference<Class<?>>> DEFINED_CLASSES = new ConcurrentHashMap<>();
+
+    /**
+     * The cache returned by {@link #getDefault()} on each thread for which one
+     * was set explicitly
+     */
+    private static final ThreadLocal<BytecodeCache> THREAD_DEFAULT = new ThreadLocal<>();
+
+    /**
+     * Digests of the class files of each class and of its super-classes and
+     * interfaces, by class; classes of the bootstrap class-loader are
+     * represented by their name, as the Java version is part of their
+     * identity already
+     */
+    private static final ClassValue<String> CLASS_DIGESTS = new ClassValue<String>() {
+        @Override
+        protected String computeValue(Class<?> type) {
+            if (type.isArray()) {
+                return get(type.getComponentType()) + "[]";
+            } else if (type.getClassLoader() == null) {
+                return type.getName();
+            }
+            MessageDigest digest = newDigest();
+            update(digest, type.getName() + ':' + classFileDigest(type));
+            if (type.getSuperclass() != null) {
+                update(digest, "\nextends:" + get(type.getSuperclass()));
+            }
+            for (Class<?> implemented : type.getInterfaces()) {
+                update(digest, "\nimplements:" + get(implemented));
+            }
+            return toHex(digest.digest());
+        }
+    };
+
+    private final File location;
+    private final boolean readOnly;
+    private final ClassLoader classLoader;
+    private final Set<String> precompiledKeys;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * Constructs a new BytecodeCache
+     *
+     * @param location
+     *            a directory in which entries are read and written, or a
+     *            ".jar" or ".zip" archive from which entries are only read
+     */
+    public BytecodeCache(File location) {
+        this.location = location;
+        String name = location.getName().toLowerCase();
+        this.readOnly = name.endsWith(".jar") || name.endsWith(".zip");
+        this.classLoader = null;
+        this.precompiledKeys = null;
+    }
+
+    private BytecodeCache(ClassLoader classLoader, Set<String> precompiledKeys) {
+        this.location = null;
+        this.readOnly = true;
+        this.classLoader = classLoader;
+        this.precompiledKeys = precompiledKeys;
+    }
+
+    /**
+     * @return the BytecodeCache set for the current thread through
+     *         {@link #setThreadDefault(BytecodeCache)} if any, otherwise a
+     *         BytecodeCache for the location specified by the
+     *         {@link OrikaSystemProperties#BYTECODE_CACHE_PATH} system
+     *         property if any, otherwise for the precompiled classes found on
+     *         the class-path of the current thread's context class-loader if
+     *         any, otherwise null
+     */
+    public static BytecodeCache getDefault() {
+        BytecodeCache cache = THREAD_DEFAULT.get();
+        if (cache != null) {
+            return cache;
+        }
+        cache = fromSystemProperties();
+        if (cache == null) {
+            ClassLoader loader = Thread.currentThread().getContextClassLoader();
+            cache = fromClassPath(loader != null ? loader : BytecodeCache.class.getClassLoader());
+        }
+        return cache;
+    }
+
+    /**
+     * Sets the cache returned by {@link #getDefault()} on the current thread,
+     * and so used by the compiler strategies it creates by default, without
+     * affecting other threads.
+     *
+     * @param cache
+     *            the cache to use, or null to restore the normal lookup
+     * @return the cache previously set for the current thread, or null
+     */
+    public static BytecodeCache setThreadDefault(BytecodeCache cache) {
+        BytecodeCache previous = THREAD_DEFAULT.get();
+        if (cache == null) {
+            THREAD_DEFAULT.remove();
+        } else {
+            THREAD_DEFAULT.set(cache);
+        }
+        return previous;
+    }
+
+    /**
+     * @return a BytecodeCache for the location specified by the
+     *         {@link OrikaSystemProperties#BYTECODE_CACHE_PATH} system
+     *         property, or null if it is not specified
+     */
+    public static BytecodeCache fromSystemProperties() {
+        String path = System.getProperty(OrikaSystemProperties.BYTECODE_CACHE_PATH);
+        return path == null || path.trim().isEmpty() ? null : new BytecodeCache(new File(path.trim()));
+    }
+
+    /**
+     * Returns a read-only BytecodeCache for the precompiled classes found
+     * below {@value #PRECOMPILED_CLASSES_PATH} on the class-path of the
+     * specified class-loader.
+     *
+     * @param classLoader
+     * @return a BytecodeCache for the precompiled classes, or null if the
+     *         class-path contains none
+     */
+    public static BytecodeCache fromClassPath(ClassLoader classLoader) {
+        Set<String> keys = new HashSet<>();
+        try {
+            Enumeration<URL> indexes = classLoader.getResources(PRECOMPILED_CLASSES_PATH + "/" + INDEX_NAME);
+            while (indexes.hasMoreElements()) {
+                URL index = indexes.nextElement();
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(index.openStream(), StandardCharsets.UTF_8))) {
+                    for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                        if (!line.trim().isEmpty()) {
+                            keys.add(line.trim());
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read the index of precompiled classes", e);
+        }
+        return keys.isEmpty() ? null : new BytecodeCache(classLoader, keys);
+    }
+
+    /**
+     * Computes the key under which the bytecode for the specified source is
+     * cached.
+     *
+     * @param sourceCode
+     * @param compilerStrategy
+     * @return the key for the specified source
+     */
+    public String keyOf(SourceCodeContext sourceCode, CompilerStrategy compilerStrategy) {
+        MessageDigest digest = newDigest();
+        update(digest, ORIKA_VERSION + '\n' + compilerStrategy.getClass().getName() + '\n' + sourceCode.getPackageName() + '\n'
+                + sourceCode.getSuperClass().getName() + ':' + CLASS_DIGESTS.get(sourceCode.getSuperClass()) + '\n');
+        /*
+         * The generated members name the accessors of the mapped classes, but
+         * not their signatures; digest the classes themselves, so that a
+         * class compiled against a different version of them is not loaded
+         */
+        Set<Class<?>> digestedClasses = new HashSet<>();
+        for (Type<?> type : sourceCode.getReferencedTypes()) {
+            updateWithClasses(digest, type, digestedClasses);
+        }
+        /*
+         * Digest the members one by one, rather than the assembled source
+         */
+        String classSimpleName = sourceCode.getClassSimpleName();
+        for (String field : sourceCode.getFields()) {
+            update(digest, "\nfield:" + field.replace(classSimpleName, CLASS_NAME_PLACEHOLDER));
+        }
+        for (String method : sourceCode.getMethods()) {
+            update(digest, "\nmethod:" + method.replace(classSimpleName, CLASS_NAME_PLACEHOLDER));
+        }
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Returns a class already compiled or defined for the specified key within
+     * this JVM, if it was loaded by the specified class-loader.
+     *
+     * @param key
+     * @param classLoader
+     * @return the previously defined class, or null
+     */
+    public Class<?> getDefinedClass(String key, ClassLoader classLoader) {
+        WeakReference<Class<?>> ref = DEFINED_CLASSES.get(key);
+        Class<?> type = ref != null ? ref.get() : null;
+        if (ref != null && type == null) {
+            DEFINED_CLASSES.remove(key, ref);
+        }
+        if (type != null && type.getClassLoader() == classLoader) {
+            hits.incrementAndGet();
+            return type;
+        }
+        return null;
+    }
+
+    /**
+     * Records a class defined from the entry with the specified key.
+     *
+     * @param key
+     * @param type
+     */
+    public void classDefined(String key, Class<?> type) {
+        hits.incrementAndGet();
+        DEFINED_CLASSES.put(key, new WeakReference<Class<?>>(type));
+    }
+
+    /**
+     * Reads the entry with the specified key.
+     *
+     * @param key
+     * @return the cached class, or null if there is no (readable) entry for
+     *         the key
+     */
+    public CachedClass load(String key) {
+        try {
+            byte[] data;
+            if (classLoader != null) {
+                data = readFromClassPath(key);
+            } else {
+                data = readOnly ? readFromArchive(key + ENTRY_SUFFIX) : readFromDirectory(key + ENTRY_SUFFIX);
+            }
+            if (data != null) {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(data));
+                if (in.readInt() == ENTRY_MAGIC) {
+                    String className = in.readUTF();
+                    byte[] bytecode = new byte[in.readInt()];
+                    in.readFully(bytecode);
+                    return new CachedClass(className, bytecode);
+                }
+                LOG.warn("Ignoring unrecognized entry {} in {}", key, this);
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not read entry " + key + " from " + this, e);
+        }
+        misses.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * Records the class compiled for the specified key, and writes its
+     * bytecode (unless this cache is read-only); failures to write are
+     * logged, but otherwise ignored.
+     *
+     * @param key
+     * @param type
+     *            the compiled class
+     * @param bytecode
+     *            the bytecode of the compiled class
+     */
+    public void store(String key, Class<?> type, byte[] bytecode) {
+        DEFINED_CLASSES.put(key, new WeakReference<Class<?>>(type));
+        if (readOnly) {
+            return;
+        }
+        try {
+            if (!location.isDirectory() && !location.mkdirs() && !location.isDirectory()) {
+                throw new IOException("Could not create directory " + location);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(bytecode.length + 128);
+            DataOutputStream out = new DataOutputStream(buffer);
+            out.writeInt(ENTRY_MAGIC);
+            out.writeUTF(type.getName());
+            out.writeInt(bytecode.length);
+            out.write(bytecode);
+            out.flush();
+
+            /*
+             * Write to a temporary file first, so that concurrent readers
+             * never see a partially written entry
+             */
+            File entry = new File(location, key + ENTRY_SUFFIX);
+            File temp = File.createTempFile(key, ".tmp", location);
+            try (FileOutputStream fos = new FileOutputStream(temp)) {
+                buffer.writeTo(fos);
+            }
+            if (!temp.renameTo(entry)) {
+                if (!temp.delete()) {
+                    temp.deleteOnExit();
+                }
+            }
+        } catch (IOException e) {
+            LOG.warn("Could not write entry " + key + " to bytecode cache " + location, e);
+        }
+    }
+
+    /**
+     * Writes the index which allows the entries of this cache to be found on
+     * the class-path, replacing any existing index; this cache should be
+     * located at {@value #PRECOMPILED_CLASSES_PATH} below a class-path root.
+     *
+     * @return the number of entries listed in the index
+     * @throws IOException
+     *             if the index could not be written
+     */
+    public int writeIndex() throws IOException {
+        if (readOnly) {
+            throw new IllegalStateException(this + " is read-only");
+        }
+        File[] entries = location.listFiles();
+        List<String> keys = new ArrayList<>();
+        if (entries != null) {
+            for (File entry : entries) {
+                String name = entry.getName();
+                if (entry.isFile() && name.endsWith(ENTRY_SUFFIX)) {
+                    keys.add(name.substring(0, name.length() - ENTRY_SUFFIX.length()));
+                }
+            }
+        }
+        Collections.sort(keys);
+        if (!location.isDirectory() && !location.mkdirs() && !location.isDirectory()) {
+            throw new IOException("Could not create directory " + location);
+        }
+        try (Writer out = new OutputStreamWriter(new FileOutputStream(new File(location, INDEX_NAME)), StandardCharsets.UTF_8)) {
+            for (String key : keys) {
+                out.write(key);
+                out.write('\n');
+            }
+        }
+        return keys.size();
+    }
+
+    /**
+     * Removes all entries (and the index) from this cache.
+     */
+    public void clear() {
+        if (readOnly) {
+            throw new IllegalStateException(this + " is read-only");
+        }
+        File[] entries = location.listFiles();
+        if (entries != null) {
+            for (File entry : entries) {
+                String name = entry.getName();
+                if (entry.isFile() && (name.endsWith(ENTRY_SUFFIX) || name.equals(INDEX_NAME)) && !entry.delete()) {
+                    LOG.warn("Could not delete {}", entry);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return true if this cache holds classes precompiled at build time, read
+     *         from the class-path
+     */
+    public boolean isPrecompiled() {
+        return classLoader != null;
+    }
+
+    /**
+     * @return the number of classes obtained from this cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of look-ups for which this cache had no entry
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the location of this cache, or null if it is read from the
+     *         class-path
+     */
+    public File getLocation() {
+        return location;
+    }
+
+    public String toString() {
+        String source = classLoader != null ? "classpath:" + PRECOMPILED_CLASSES_PATH : String.valueOf(location);
+        return getClass().getSimpleName() + "(" + source + (readOnly ? ", read-only" : "") + ")";
+    }
+
+    private byte[] readFromClassPath(String key) throws IOException {
+        if (!precompiledKeys.contains(key)) {
+            return null;
+        }
+        try (InputStream in = classLoader.getResourceAsStream(PRECOMPILED_CLASSES_PATH + "/" + key + ENTRY_SUFFIX)) {
+            return in != null ? readFully(in) : null;
+        }
+    }
+
+    private byte[] readFromDirectory(String entryName) throws IOException {
+        File entry = new File(location, entryName);
+        if (!entry.isFile()) {
+            return null;
+        }
+        try (InputStream in = new FileInputStream(entry)) {
+            return readFully(in);
+        }
+    }
+
+    private byte[] readFromArchive(String entryName) throws IOException {
+        if (!location.isFile()) {
+            return null;
+        }
+        try (ZipFile archive = new ZipFile(location)) {
+            ZipEntry entry = archive.getEntry(entryName);
+            if (entry == null) {
+                return null;
+            }
+            try (InputStream in = archive.getInputStream(entry)) {
+                return readFully(in);
+            }
+        }
+    }
+
+    /**
+     * Adds the digests of the raw type of the specified type, and of its type
+     * arguments, to the specified digest
+     */
+    private static void updateWithClasses(MessageDigest digest, Type<?> type, Set<Class<?>> digestedClasses) {
+        if (type == null || !digestedClasses.add(type.getRawType())) {
+            return;
+        }
+        update(digest, "\nclass:" + CLASS_DIGESTS.get(type.getRawType()));
+        for (int i = 0; i < type.getActualTypeArguments().length; ++i) {
+            updateWithClasses(digest, type.getNestedType(i), digestedClasses);
+        }
+    }
+
+    /**
+     * @return the digest of the class file of the specified class, or its name
+     *         if the class file cannot be read
+     */
+    private static String classFileDigest(Class<?> type) {
+        String resource = type.getName().replace('.', '/') + ".class";
+        ClassLoader loader = type.getClassLoader() != null ? type.getClassLoader() : ClassLoader.getSystemClassLoader();
+        try (InputStream in = loader.getResourceAsStream(resource)) {
+            return in != null ? toHex(digest(readFully(in))) : type.getName();
+        } catch (IOException e) {
+            return type.getName();
+        }
+    }
+
+    private static String orikaVersion() {
+        String version = BytecodeCache.class.getPackage().getImplementationVersion();
+        return version != null ? version : "unversioned:" + classFileDigest(SourceCodeContext.class);
+    }
+
+    private static byte[] readFully(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] digest(byte[] data) {
+        return newDigest().digest(data);
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void update(MessageDigest digest, String text) {
+        digest.update(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * CachedClass holds the bytecode read from a cache entry, along with the
+     * name of the class it defines.
+     */
+    public static final class CachedClass {
+
+        private final String className;
+        private final byte[] bytecode;
+
+        CachedClass(String className, byte[] bytecode) {
+            this.className = className;
+            this.bytecode = bytecode;
+        }
+
+        /**
+         * @return the name of the cached class
+         */
+        public String getClassName() {
+            return className;
+        }
+
+        /**
+         * @return the bytecode of the cached class
+         */
+        public byte[] getBytecode() {
+            return bytecode;
+        }
+    }
+}
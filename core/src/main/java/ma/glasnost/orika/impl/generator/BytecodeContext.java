@@ -0,0 +1,443 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javassist.bytecode.AccessFlag;
+import javassist.bytecode.Bytecode;
+import javassist.bytecode.ClassFile;
+import javassist.bytecode.CodeAttribute;
+import javassist.bytecode.ConstPool;
+import javassist.bytecode.MethodInfo;
+import javassist.bytecode.Opcode;
+import javassist.bytecode.StackMapTable;
+import ma.glasnost.orika.Mapper;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.Property;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * BytecodeContext emits the bytecode of one of the map methods of a mapper
+ * (<code>mapAtoB</code> or <code>mapBtoA</code>), as the source generated for
+ * it would compile to: the super-class method is called, the fields are
+ * mapped by their {@link BytecodeSpecification}s, and the custom mapper (if
+ * any) is called.<br>
+ * <br>
+ *
+ * Properties are accessed through public getter and setter methods resolved
+ * from their getter and setter expressions; properties with any other kind of
+ * accessor (nested properties, array elements, fields, or expressions) cannot
+ * be emitted, and the mapper is generated from source instead.
+ */
+public class BytecodeContext {
+
+    private static final String MAP_METHOD_DESCRIPTOR = "(Ljava/lang/Object;Ljava/lang/Object;L"
+            + MappingContext.class.getName().replace('.', '/') + ";)V";
+
+    private static final Pattern GETTER = Pattern.compile("([\\w$]+)\\(\\)");
+    private static final Pattern SETTER = Pattern.compile("([\\w$]+)\\(%s\\)");
+
+    /*
+     * The local variables of a map method: this, a, b, mappingContext,
+     * source, destination, and the value being copied
+     */
+    /**
+     * Whether each specification emits the bytecode of the code it generates:
+     * a subclass overriding the generated code of a built-in specification,
+     * but not its emitted bytecode, is generated from source
+     */
+    private static final ClassValue<Boolean> EMITS_GENERATED_CODE = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                Method generate = type.getMethod("generateMappingCode", FieldMap.class, VariableRef.class, VariableRef.class,
+                        SourceCodeContext.class);
+                Method emit = type.getMethod("emitMappingCode", FieldMap.class, VariableRef.class, VariableRef.class,
+                        BytecodeContext.class);
+                return emit.getDeclaringClass() == generate.getDeclaringClass();
+            } catch (NoSuchMethodException e) {
+                return false;
+            }
+        }
+    };
+
+    private static final int MAPPING_CONTEXT = 3;
+    private static final int SOURCE = 4;
+    private static final int DESTINATION = 5;
+    private static final int VALUE = 6;
+
+    private final SourceCodeContext sourceCode;
+    private final String methodName;
+    private final Class<?> sourceClass;
+    private final Class<?> destinationClass;
+    private final List<EmittedField> fields = new ArrayList<>();
+    private final SortedSet<Integer> branchTargets = new TreeSet<>();
+    private Bytecode bytecode;
+
+    BytecodeContext(SourceCodeContext sourceCode, String methodName, Type<?> sourceType, Type<?> destinationType) {
+        this.sourceCode = sourceCode;
+        this.methodName = methodName;
+        this.sourceClass = sourceType.getRawType();
+        this.destinationClass = destinationType.getRawType();
+    }
+
+    /**
+     * @return the source code context of the mapper being emitted
+     */
+    public SourceCodeContext getSourceCode() {
+        return sourceCode;
+    }
+
+    /**
+     * @param destination
+     * @param source
+     * @return true if the value of the source property can be assigned to the
+     *         destination property as is, through public accessor methods
+     */
+    public boolean canAssign(VariableRef destination, VariableRef source) {
+        if (!isAccessible(sourceClass) || !isAccessible(destinationClass)) {
+            return false;
+        }
+        Method getter = getter(source);
+        Method setter = setter(destination);
+        if (getter == null || setter == null) {
+            return false;
+        }
+        Class<?> valueType = getter.getReturnType();
+        Class<?> parameterType = setter.getParameterTypes()[0];
+        return valueType.isPrimitive() || parameterType.isPrimitive() ? valueType == parameterType
+                : parameterType.isAssignableFrom(valueType);
+    }
+
+    /**
+     * Emits the assignment of the value of the source property to the
+     * destination property; only valid where
+     * {@link #canAssign(VariableRef, VariableRef)} is true.
+     *
+     * @param destination
+     * @param source
+     * @param ifNotNull
+     *            whether a null source value is skipped, rather than assigned
+     */
+    public void assign(VariableRef destination, VariableRef source, boolean ifNotNull) {
+        Method getter = getter(source);
+        Method setter = setter(destination);
+        if (ifNotNull && !getter.getReturnType().isPrimitive()) {
+            bytecode.addAload(SOURCE);
+            invoke(sourceClass, getter);
+            bytecode.addAstore(VALUE);
+            bytecode.addAload(VALUE);
+            int branch = ifNull();
+            bytecode.addAload(DESTINATION);
+            bytecode.addAload(VALUE);
+            invoke(destinationClass, setter);
+            discardResult(setter);
+            branchHere(branch);
+        } else {
+            bytecode.addAload(DESTINATION);
+            bytecode.addAload(SOURCE);
+            invoke(sourceClass, getter);
+            invoke(destinationClass, setter);
+            discardResult(setter);
+        }
+    }
+
+    /**
+     * Adds the mapping of the provided field map to the method, if the
+     * specification which applies to it can emit its bytecode.
+     *
+     * @return true if the field map is mapped by the method, false if the
+     *         mapper must be generated from source
+     */
+    boolean addField(FieldMap fieldMap, VariableRef source, VariableRef destination) {
+        if (source.isNestedProperty() || destination.isNestedProperty() || sourceCode.isFiltered(source, destination)) {
+            return false;
+        }
+        source.setConverter(sourceCode.getConverter(fieldMap, fieldMap.getConverterId()));
+        for (Specification spec : sourceCode.getCodeGenerationStrategy().getSpecifications()) {
+            if (spec.appliesTo(fieldMap)) {
+                if (spec instanceof BytecodeSpecification && EMITS_GENERATED_CODE.get(spec.getClass())
+                        && ((BytecodeSpecification) spec).canEmitMappingCode(fieldMap, source, destination, this)) {
+                    fields.add(new EmittedField(fieldMap, source, destination, (BytecodeSpecification) spec));
+                    return true;
+                }
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Emits the method into the provided class file.
+     */
+    void emitInto(ClassFile classFile) {
+        ConstPool constPool = classFile.getConstPool();
+        MethodInfo method = new MethodInfo(constPool, methodName, MAP_METHOD_DESCRIPTOR);
+        method.setAccessFlags(AccessFlag.PUBLIC);
+        bytecode = new Bytecode(constPool, 4, VALUE + 1);
+
+        // super.mapAtoB(a, b, mappingContext);
+        bytecode.addAload(0);
+        bytecode.addAload(1);
+        bytecode.addAload(2);
+        bytecode.addAload(MAPPING_CONTEXT);
+        bytecode.addInvokespecial(classFile.getSuperclass(), methodName, MAP_METHOD_DESCRIPTOR);
+        bytecode.addAload(1);
+        bytecode.addCheckcast(sourceClass.getName());
+        bytecode.addAstore(SOURCE);
+        bytecode.addAload(2);
+        bytecode.addCheckcast(destinationClass.getName());
+        bytecode.addAstore(DESTINATION);
+
+        for (EmittedField field : fields) {
+            field.specification.emitMappingCode(field.fieldMap, field.source, field.destination, this);
+        }
+
+        // if (customMapper != null) customMapper.mapAtoB(source, destination, mappingContext);
+        String customMapperDescriptor = descriptorOf(Mapper.class);
+        bytecode.addAload(0);
+        bytecode.addGetfield(GeneratedMapperBase.class.getName(), "customMapper", customMapperDescriptor);
+        int branch = ifNull();
+        bytecode.addAload(0);
+        bytecode.addGetfield(GeneratedMapperBase.class.getName(), "customMapper", customMapperDescriptor);
+        bytecode.addAload(SOURCE);
+        bytecode.addAload(DESTINATION);
+        bytecode.addAload(MAPPING_CONTEXT);
+        bytecode.addInvokeinterface(Mapper.class.getName(), methodName, MAP_METHOD_DESCRIPTOR, 4);
+        branchHere(branch);
+        bytecode.addOpcode(Opcode.RETURN);
+
+        CodeAttribute code = bytecode.toCodeAttribute();
+        code.setAttribute(stackMapTable(constPool));
+        method.setCodeAttribute(code);
+        classFile.addMethod2(method);
+    }
+
+    /**
+     * @return the class file of a mapper with the provided map methods, named
+     *         and derived as the source code context specifies
+     */
+    static byte[] toClassFile(SourceCodeContext sourceCode, BytecodeContext... methods) {
+        ClassFile classFile = new ClassFile(false, sourceCode.getClassName(), sourceCode.getSuperClass().getName());
+        classFile.setMajorVersion(ClassFile.JAVA_8);
+        classFile.setAccessFlags(AccessFlag.PUBLIC | AccessFlag.SUPER);
+
+        MethodInfo constructor = new MethodInfo(classFile.getConstPool(), MethodInfo.nameInit, "()V");
+        constructor.setAccessFlags(AccessFlag.PUBLIC);
+        Bytecode code = new Bytecode(classFile.getConstPool(), 1, 1);
+        code.addAload(0);
+        code.addInvokespecial(classFile.getSuperclass(), MethodInfo.nameInit, "()V");
+        code.addOpcode(Opcode.RETURN);
+        constructor.setCodeAttribute(code.toCodeAttribute());
+        classFile.addMethod2(constructor);
+
+        for (BytecodeContext method : methods) {
+            method.emitInto(classFile);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            classFile.write(out);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Every branch of a map method targets a point at which the locals are
+     * those declared by its prologue, and the stack is empty
+     */
+    private StackMapTable stackMapTable(ConstPool constPool) {
+        StackMapTable.Writer writer = new StackMapTable.Writer(32);
+        int previous = -1;
+        for (int target : branchTargets) {
+            if (previous < 0) {
+                writer.appendFrame(target, new int[] { StackMapTable.OBJECT, StackMapTable.OBJECT },
+                        new int[] { constPool.addClassInfo(sourceClass.getName()), constPool.addClassInfo(destinationClass.getName()) });
+            } else {
+                writer.sameFrame(target - previous - 1);
+            }
+            previous = target;
+        }
+        return writer.toStackMapTable(constPool);
+    }
+
+    private int ifNull() {
+        int branch = bytecode.currentPc();
+        bytecode.addOpcode(Opcode.IFNULL);
+        bytecode.addIndex(0);
+        return branch;
+    }
+
+    private void branchHere(int branch) {
+        bytecode.write16bit(branch + 1, bytecode.currentPc() - branch);
+        branchTargets.add(bytecode.currentPc());
+    }
+
+    private void invoke(Class<?> owner, Method method) {
+        String descriptor = descriptorOf(method);
+        if (owner.isInterface()) {
+            bytecode.addInvokeinterface(owner.getName(), method.getName(), descriptor, method.getParameterTypes().length + 1);
+        } else {
+            bytecode.addInvokevirtual(owner.getName(), method.getName(), descriptor);
+        }
+    }
+
+    /**
+     * Discards the result of a setter which returns a value (such as the
+     * destination itself)
+     */
+    private void discardResult(Method setter) {
+        Class<?> returnType = setter.getReturnType();
+        if (returnType == long.class || returnType == double.class) {
+            bytecode.addOpcode(Opcode.POP2);
+        } else if (returnType != void.class) {
+            bytecode.addOpcode(Opcode.POP);
+        }
+    }
+
+    /**
+     * @return the public getter of the source property, if it is read by one
+     *         and returns exactly the type of the property
+     */
+    private Method getter(VariableRef source) {
+        Property property = source.property();
+        if (property == null || property.getGetter() == null || property.hasPath()) {
+            return null;
+        }
+        Matcher matcher = GETTER.matcher(property.getGetter());
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            Method getter = sourceClass.getMethod(matcher.group(1));
+            return !Modifier.isStatic(getter.getModifiers()) && getter.getReturnType() == property.getRawType() ? getter : null;
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the public setter of the destination property, if it is
+     *         assigned by one, which is not overloaded and accepts exactly the
+     *         type of the property
+     */
+    private Method setter(VariableRef destination) {
+        Property property = destination.property();
+        if (property == null || property.getSetter() == null || property.hasPath()) {
+            return null;
+        }
+        Matcher matcher = SETTER.matcher(property.getSetter());
+        if (!matcher.matches()) {
+            return null;
+        }
+        Method setter = null;
+        for (Method method : destinationClass.getMethods()) {
+            if (method.getName().equals(matcher.group(1)) && !method.isBridge() && !Modifier.isStatic(method.getModifiers())) {
+                if (setter != null) {
+                    return null;
+                }
+                setter = method;
+            }
+        }
+        return setter != null && setter.getParameterTypes().length == 1 && setter.getParameterTypes()[0] == property.getRawType()
+                ? setter
+                : null;
+    }
+
+    /**
+     * @return true if the class may be referenced by a mapper defined beside
+     *         the package neighbour of the mapper
+     */
+    private boolean isAccessible(Class<?> type) {
+        Class<?> neighbour = sourceCode.getPackageNeighbour();
+        if (type.getEnclosingClass() == null ? Modifier.isPublic(type.getModifiers())
+                : Modifier.isPublic(type.getModifiers()) && isAccessible(type.getEnclosingClass())) {
+            return true;
+        }
+        return type.getClassLoader() == neighbour.getClassLoader() && type.getName().lastIndexOf('.') > 0
+                && type.getName().substring(0, type.getName().lastIndexOf('.')).equals(sourceCode.getPackageName())
+                && !Modifier.isPrivate(type.getModifiers());
+    }
+
+    private static String descriptorOf(Method method) {
+        StringBuilder descriptor = new StringBuilder("(");
+        for (Class<?> parameterType : method.getParameterTypes()) {
+            descriptor.append(descriptorOf(parameterType));
+        }
+        return descriptor.append(')').append(descriptorOf(method.getReturnType())).toString();
+    }
+
+    private static String descriptorOf(Class<?> type) {
+        if (type.isArray()) {
+            return type.getName().replace('.', '/');
+        } else if (type == void.class) {
+            return "V";
+        } else if (type == boolean.class) {
+            return "Z";
+        } else if (type == byte.class) {
+            return "B";
+        } else if (type == char.class) {
+            return "C";
+        } else if (type == short.class) {
+            return "S";
+        } else if (type == int.class) {
+            return "I";
+        } else if (type == long.class) {
+            return "J";
+        } else if (type == float.class) {
+            return "F";
+        } else if (type == double.class) {
+            return "D";
+        } else {
+            return "L" + type.getName().replace('.', '/') + ";";
+        }
+    }
+
+    /**
+     * A field map, and the specification which emits its mapping
+     */
+    private static final class EmittedField {
+        private final FieldMap fieldMap;
+        private final VariableRef source;
+        private final VariableRef destination;
+        private final BytecodeSpecification specification;
+
+        EmittedField(FieldMap fieldMap, VariableRef source, VariableRef destination, BytecodeSpecification specification) {
+            this.fieldMap = fieldMap;
+            this.source = source;
+            this.destination = destination;
+            this.specification = specification;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import ma.glasnost.orika.metadata.FieldMap;
+
+/**
+ * BytecodeSpecification is a Specification which can also emit the bytecode
+ * of the mapping it generates code for.<br>
+ * <br>
+ *
+ * A mapper all of whose fields are mapped by specifications able to emit
+ * their bytecode is emitted directly as a class file, without generating and
+ * compiling its source; a mapper with any other field (mapped by a
+ * user-supplied specification, for instance) is generated from source as
+ * before.
+ *
+ * @see BytecodeContext
+ */
+public interface BytecodeSpecification extends Specification {
+
+    /**
+     * @param fieldMap
+     *            the field map to be mapped
+     * @param source
+     *            the source property
+     * @param destination
+     *            the destination property
+     * @param code
+     *            the context of the method being emitted
+     * @return true if this specification can emit the bytecode mapping the
+     *         provided field map
+     */
+    boolean canEmitMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, BytecodeContext code);
+
+    /**
+     * Emits the bytecode mapping the provided field map; this is only called
+     * for field maps for which
+     * {@link #canEmitMappingCode(FieldMap, VariableRef, VariableRef, BytecodeContext)}
+     * returned true.
+     *
+     * @param fieldMap
+     *            the field map to be mapped
+     * @param source
+     *            the source property
+     * @param destination
+     *            the destination property
+     * @param code
+     *            the context of the method being emitted
+     */
+    void emitMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, BytecodeContext code);
+}
@@ -50,15 +50,54 @@ public abstract class CompilerStrategy {
      */
     public abstract void assureTypeIsAccessible(Class<?> type) throws SourceCodeGenerationException;
 
+    /**
+     * @return true if this strategy can define classes whose bytecode was
+     *         emitted directly (see {@link BytecodeSpecification}); otherwise,
+     *         every class is compiled from its generated source
+     */
+    public boolean canDefineEmittedClasses() {
+        return false;
+    }
+
+    /**
+     * Defines a class whose bytecode was emitted directly, rather than
+     * compiled from the source of the provided context.
+     * 
+     * @param sourceCode
+     *            the context for which the class was emitted
+     * @param bytecode
+     *            the emitted bytecode
+     * @return the defined class
+     * @throws SourceCodeGenerationException
+     *             if the class could not be defined
+     */
+    public Class<?> defineEmittedClass(SourceCodeContext sourceCode, byte[] bytecode) throws SourceCodeGenerationException {
+        throw new UnsupportedOperationException(getClass().getName() + " does not define emitted classes");
+    }
+
     protected final boolean writeSourceFiles;
     protected final boolean writeClassFiles;
     protected final String pathToWriteSourceFiles;
     protected final String pathToWriteClassFiles;
+    protected final BytecodeCache bytecodeCache;
     
     protected static final String WRITE_RELATIVE_TO_CLASSPATH = "classpath:";
     
     protected CompilerStrategy(String writeSourceByDefault, String writeClassByDefault) {
+        this(writeSourceByDefault, writeClassByDefault, BytecodeCache.fromSystemProperties());
+    }
+    
+    /**
+     * @param writeSourceByDefault
+     * @param writeClassByDefault
+     * @param bytecodeCache
+     *            the cache of previously compiled classes to consult, or null
+     *            to always compile
+     */
+    protected CompilerStrategy(String writeSourceByDefault, String writeClassByDefault, BytecodeCache bytecodeCache) {
 	
+    	this.bytecodeCache = bytecodeCache;
+    	
     	this.writeSourceFiles = Boolean.parseBoolean(System.getProperty(
     		OrikaSystemProperties.WRITE_SOURCE_FILES,
     		System.getProperty("ma.glasnost.orika.GeneratedSourceCode.writeSourceFiles", 
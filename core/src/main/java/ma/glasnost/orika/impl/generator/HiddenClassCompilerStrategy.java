@@ -0,0 +1,153 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.reflect.Array;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+
+import javassist.CannotCompileException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * HiddenClassCompilerStrategy compiles generated sources using Javassist, but
+ * defines the compiled classes through a <code>MethodHandles.Lookup</code> on
+ * the package neighbour of each class, rather than through a class-loader.<br>
+ * <br>
+ *
+ * On Java 15 and later, the classes are defined as hidden classes: a hidden
+ * class is not registered with its defining class-loader, so it is unloaded as
+ * soon as it is unreachable (normally together with the MapperFactory which
+ * generated it) rather than only with its class-loader, and defining it takes
+ * no class-loader lock. A hidden class can only be defined in the module of
+ * Orika itself (which includes the generated package, where the mappers of
+ * public types are defined); other classes, and all classes on Java 9 to 14,
+ * are defined as normal classes through <code>Lookup.defineClass</code>. On
+ * earlier versions, or when the package of the neighbour is not open to Orika,
+ * they are defined as by {@link JavassistCompilerStrategy}.<br>
+ * <br>
+ *
+ * This strategy may be selected with the
+ * {@link ma.glasnost.orika.OrikaSystemProperties#COMPILER_STRATEGY} system
+ * property, or passed to the MapperFactory builder.
+ */
+public class HiddenClassCompilerStrategy extends JavassistCompilerStrategy {
+
+    private static final Logger LOG = LoggerFactory.getLogger(HiddenClassCompilerStrategy.class);
+
+    /*
+     * The Lookup methods used are resolved reflectively, since they are not
+     * available on every supported Java version
+     */
+    private static final Method PRIVATE_LOOKUP_IN;
+    private static final Method DEFINE_CLASS;
+    private static final Method DEFINE_HIDDEN_CLASS;
+    private static final Object NO_CLASS_OPTIONS;
+
+    static {
+        Method privateLookupIn = null;
+        Method defineClass = null;
+        Method defineHiddenClass = null;
+        Object noClassOptions = null;
+        try {
+            privateLookupIn = MethodHandles.class.getMethod("privateLookupIn", Class.class, Lookup.class);
+            defineClass = Lookup.class.getMethod("defineClass", byte[].class);
+
+            Class<?> classOptionType = Class.forName("java.lang.invoke.MethodHandles$Lookup$ClassOption");
+            noClassOptions = Array.newInstance(classOptionType, 0);
+            defineHiddenClass = Lookup.class.getMethod("defineHiddenClass", byte[].class, boolean.class, noClassOptions.getClass());
+        } catch (ClassNotFoundException | NoSuchMethodException e) {
+            /*
+             * Not supported by this Java version
+             */
+        }
+        PRIVATE_LOOKUP_IN = privateLookupIn;
+        DEFINE_CLASS = defineClass;
+        DEFINE_HIDDEN_CLASS = defineHiddenClass;
+        NO_CLASS_OPTIONS = noClassOptions;
+    }
+
+    /**
+     */
+    public HiddenClassCompilerStrategy() {
+        super();
+    }
+
+    /**
+     * @param bytecodeCache
+     *            the cache of previously compiled classes to consult, or null
+     *            to always compile
+     */
+    public HiddenClassCompilerStrategy(BytecodeCache bytecodeCache) {
+        super(bytecodeCache);
+    }
+
+    /**
+     * @return true if the running Java version supports hidden classes
+     */
+    public static boolean isHiddenClassSupported() {
+        return DEFINE_HIDDEN_CLASS != null;
+    }
+
+    @Override
+    protected Class<?> defineClass(SourceCodeContext sourceCode, String className, byte[] bytecode) throws CannotCompileException {
+        if (PRIVATE_LOOKUP_IN == null) {
+            return super.defineClass(sourceCode, className, bytecode);
+        }
+
+        Lookup lookup;
+        try {
+            lookup = (Lookup) PRIVATE_LOOKUP_IN.invoke(null, sourceCode.getPackageNeighbour(), MethodHandles.lookup());
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            LOG.debug("No private access to " + sourceCode.getPackageNeighbour() + "; defining " + className
+                    + " through its class-loader", e);
+            return super.defineClass(sourceCode, className, bytecode);
+        }
+
+        try {
+            if (DEFINE_HIDDEN_CLASS != null) {
+                try {
+                    return ((Lookup) DEFINE_HIDDEN_CLASS.invoke(lookup, bytecode, true, NO_CLASS_OPTIONS)).lookupClass();
+                } catch (InvocationTargetException e) {
+                    /*
+                     * A hidden class requires full privilege access, which a
+                     * lookup in a package of another module (such as the
+                     * unnamed module of a child class-loader) does not have
+                     */
+                    if (!(e.getCause() instanceof IllegalAccessException)) {
+                        throw e;
+                    }
+                    LOG.debug("Cannot define {} as a hidden class: {}", className, e.getCause().getMessage());
+                }
+            }
+            return (Class<?>) DEFINE_CLASS.invoke(lookup, (Object) bytecode);
+        } catch (InvocationTargetException e) {
+            if (e.getCause() instanceof LinkageError) {
+                throw (LinkageError) e.getCause();
+            }
+            throw new CannotCompileException(e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new CannotCompileException(e);
+        }
+    }
+}
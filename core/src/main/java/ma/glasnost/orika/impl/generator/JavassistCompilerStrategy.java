@@ -27,6 +27,7 @@ import javassist.CtNewMethod;
 import javassist.LoaderClassPath;
 import javassist.NotFoundException;
 import javassist.bytecode.ClassFile;
+import javassist.util.proxy.DefineClassHelper;
 import ma.glasnost.orika.impl.generator.Analysis.Visibility;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -34,17 +35,26 @@ import org.slf4j.LoggerFactory;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.util.Map;
+import java.util.HashSet;
+import java.util.Queue;
 import java.util.Random;
+import java.util.Set;
 import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 /**
  * Uses Javassist to generate compiled class for the passed GeneratedSourceCode
  * object.<br>
  * <br>
  * 
- * By default this compiler strategy writes no source or class files.
+ * By default this compiler strategy writes no source or class files. When a
+ * {@link BytecodeCache} is configured, classes compiled by an earlier run from
+ * the same source are loaded from it rather than compiled again.<br>
+ * <br>
+ * 
+ * Otherwise, mappers all of whose fields are mapped by a
+ * {@link BytecodeSpecification} are not compiled at all: their bytecode is
+ * emitted directly by the MapperGenerator, and defined by this strategy.
  * 
  * @author matt.deboer@gmail.com
  */
@@ -55,26 +65,62 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
     private static final String WRITE_CLASS_FILES_BY_DEFAULT = "false";
     
     private final static Logger LOG = LoggerFactory.getLogger(JavassistCompilerStrategy.class);
-    private final static Map<Class<?>, Boolean> superClasses = new ConcurrentHashMap<>(3);
     
-    private final ClassPool classPool;
+    /**
+     * The class-pools not currently in use. A class-pool is not safe for
+     * concurrent use, so each compilation takes one for itself (creating it if
+     * none is idle) and returns it afterwards; mappers generated on several
+     * threads at once (see
+     * DefaultMapperFactory.MapperFactoryBuilder#buildExecutor) are then
+     * compiled concurrently. No class-pool is built when all classes are found
+     * in the bytecode cache.
+     */
+    private final Queue<PooledClassPool> idleClassPools = new ConcurrentLinkedQueue<>();
     
     /**
      * Keep a set of class-loaders that have already been added to the javassist
-     * class-pool Use a WeakHashMap to avoid retaining references to child
-     * class-loaders
+     * class-pools; each class-pool adds them when it is next taken. Use a
+     * WeakHashMap to avoid retaining references to child class-loaders
      */
     private final WeakHashMap<ClassLoader, Boolean> referencedLoaders = new WeakHashMap<>(8);
     
     /**
      */
     public JavassistCompilerStrategy() {
-        super(WRITE_SOURCE_FILES_BY_DEFAULT, WRITE_CLASS_FILES_BY_DEFAULT);
-        
-        this.classPool = new ClassPool();
-        this.classPool.appendSystemPath();
-        
-        this.classPool.insertClassPath(new ClassClassPath(this.getClass()));
+        this(BytecodeCache.getDefault());
+    }
+    
+    /**
+     * @param bytecodeCache
+     *            the cache of previously compiled classes to consult, or null
+     *            to always compile
+     */
+    public JavassistCompilerStrategy(BytecodeCache bytecodeCache) {
+        super(WRITE_SOURCE_FILES_BY_DEFAULT, WRITE_CLASS_FILES_BY_DEFAULT, bytecodeCache);
+    }
+    
+    /**
+     * Takes an idle class-pool, or creates a new one, for the exclusive use of
+     * the current thread until it is released; the class-pool has every
+     * registered class-loader on its class-path.
+     * 
+     * @return the class-pool to use
+     */
+    private PooledClassPool acquireClassPool() {
+        PooledClassPool pool = idleClassPools.poll();
+        if (pool == null) {
+            pool = new PooledClassPool(this.getClass());
+        }
+        synchronized (referencedLoaders) {
+            for (ClassLoader cl : referencedLoaders.keySet()) {
+                pool.addClassLoader(cl);
+            }
+        }
+        return pool;
+    }
+    
+    private void releaseClassPool(PooledClassPool pool) {
+        idleClassPools.offer(pool);
     }
     
     /**
@@ -116,25 +162,25 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
     
     /**
      * Attempts to register a class-loader in the maintained list of referenced
-     * class-loaders. Returns true if the class-loader was registered as a
-     * result of the call; false is returned if the class-loader was already
-     * registered.
+     * class-loaders, adding it to the specified class-pool. Returns true if the
+     * class-loader was registered as a result of the call; false is returned
+     * if the class-loader was already registered.
      * 
      * @param cl
+     * @param pool
+     *            the class-pool in use by the current thread
      * @return true if the class-loader was registered as a result of this call;
      *         false if the class-loader was already registered
      */
-    private boolean registerClassLoader(ClassLoader cl) {
-        Boolean found = referencedLoaders.get(cl);
-        if (found == null) {
-            synchronized (cl) {
-                found = referencedLoaders.get(cl);
-                if (found == null) {
-                    referencedLoaders.put(cl, Boolean.TRUE);
-                    classPool.insertClassPath(new LoaderClassPath(cl));
-                }
+    private boolean registerClassLoader(ClassLoader cl, PooledClassPool pool) {
+        Boolean found;
+        synchronized (referencedLoaders) {
+            found = referencedLoaders.get(cl);
+            if (found == null) {
+                referencedLoaders.put(cl, Boolean.TRUE);
             }
         }
+        pool.addClassLoader(cl);
         return found == null || !found;
     }
     
@@ -156,20 +202,36 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
                 // Strip off the "[L" prefix from the internal name
                 className = type.getComponentType().getName();
             }
-            if (type.getClassLoader() != null) {
+            if (type.getClassLoader() != null && bytecodeCache != null && bytecodeCache.isPrecompiled()) {
+                /*
+                 * Avoid building the class-pool while classes are expected to
+                 * be precompiled; the class-pool finds a type through the
+                 * class-file resource of its class-loader
+                 */
+                Class<?> componentType = type;
+                while (componentType.isArray()) {
+                    componentType = componentType.getComponentType();
+                }
+                if (type.getClassLoader().getResource(componentType.getName().replace('.', '/') + ".class") == null) {
+                    throw new SourceCodeGenerationException(type + " is not accessible");
+                }
+            } else if (type.getClassLoader() != null) {
+                PooledClassPool pool = acquireClassPool();
                 try {
-                    classPool.get(className);
+                    pool.classPool.get(className);
                 } catch (NotFoundException e) {
                     
-                    if (registerClassLoader(type.getClassLoader())) {
+                    if (registerClassLoader(type.getClassLoader(), pool)) {
                         try {
-                            classPool.get(className);
+                            pool.classPool.get(className);
                         } catch (NotFoundException e2) {
                             throw new SourceCodeGenerationException(type + " is not accessible", e2);
                         }
                     } else {
                         throw new SourceCodeGenerationException(type + " is not accessible", e);
                     }
+                } finally {
+                    releaseClassPool(pool);
                 }
             }
         }
@@ -183,7 +245,100 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
      * (ma.glasnost.orika.impl.GeneratedSourceCode)
      */
     public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+        String cacheKey = null;
+        if (bytecodeCache != null) {
+            cacheKey = bytecodeCache.keyOf(sourceCode, this);
+            Class<?> cachedClass = loadCachedClass(sourceCode, cacheKey);
+            if (cachedClass != null) {
+                return cachedClass;
+            }
+        }
+        PooledClassPool pool = acquireClassPool();
+        try {
+            return compileClassInPool(sourceCode, cacheKey, pool);
+        } finally {
+            releaseClassPool(pool);
+        }
+    }
+    
+    /**
+     * Classes are only emitted directly when no source or class files are
+     * written, as those are produced by compiling the source; nor when a
+     * bytecode cache is configured, so that every class compiled is cached
+     * (or precompiled).
+     */
+    @Override
+    public boolean canDefineEmittedClasses() {
+        return !writeSourceFiles && !writeClassFiles && bytecodeCache == null;
+    }
+    
+    @Override
+    public Class<?> defineEmittedClass(SourceCodeContext sourceCode, byte[] bytecode) throws SourceCodeGenerationException {
+        try {
+            return defineClass(sourceCode, sourceCode.getClassName(), bytecode);
+        } catch (CannotCompileException e) {
+            throw new SourceCodeGenerationException("Could not define " + sourceCode.getClassName(), e);
+        }
+    }
+    
+    /**
+     * Defines the class cached under the specified key, if any.
+     * 
+     * @param sourceCode
+     * @param cacheKey
+     * @return the cached class, or null if it must be compiled
+     */
+    private Class<?> loadCachedClass(SourceCodeContext sourceCode, String cacheKey) {
         
+        boolean defineInNeighbour = ClassFile.MAJOR_VERSION >= ClassFile.JAVA_11;
+        ClassLoader classLoader = defineInNeighbour ? sourceCode.getPackageNeighbour().getClassLoader()
+                : Thread.currentThread().getContextClassLoader();
+        
+        Class<?> cachedClass = bytecodeCache.getDefinedClass(cacheKey, classLoader);
+        if (cachedClass == null) {
+            BytecodeCache.CachedClass cached = bytecodeCache.load(cacheKey);
+            if (cached == null) {
+                return null;
+            }
+            try {
+                cachedClass = defineClass(sourceCode, cached.getClassName(), cached.getBytecode());
+            } catch (CannotCompileException | LinkageError e) {
+                LOG.warn("Could not define cached class " + cached.getClassName() + "; compiling " + sourceCode.getClassName()
+                        + " instead", e);
+                return null;
+            }
+            bytecodeCache.classDefined(cacheKey, cachedClass);
+        }
+        return cachedClass;
+    }
+    
+    /**
+     * Defines the class compiled (or cached) for the specified source.
+     * 
+     * @param sourceCode
+     *            the source from which the class was compiled
+     * @param className
+     *            the name of the compiled class
+     * @param bytecode
+     *            the bytecode of the compiled class
+     * @return the defined class
+     * @throws CannotCompileException
+     *             if the class could not be defined
+     */
+    protected Class<?> defineClass(SourceCodeContext sourceCode, String className, byte[] bytecode) throws CannotCompileException {
+        if (ClassFile.MAJOR_VERSION >= ClassFile.JAVA_11) {
+            return DefineClassHelper.toClass(sourceCode.getPackageNeighbour(), bytecode);
+        } else {
+            //this code causes Illegal reflective access in Java 11
+            return DefineClassHelper.toClass(className, null, Thread.currentThread().getContextClassLoader(),
+                    this.getClass().getProtectionDomain(), bytecode);
+        }
+    }
+    
+    private Class<?> compileClassInPool(SourceCodeContext sourceCode, String cacheKey, PooledClassPool pool)
+            throws SourceCodeGenerationException {
+        
+        ClassPool classPool = pool.classPool;
         StringBuilder className = new StringBuilder(sourceCode.getClassName());
         CtClass byteCodeClass = null;
         int attempts = 0;
@@ -208,14 +363,8 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
         try {
             writeSourceFile(sourceCode);
             
-            Boolean existing = superClasses.put(sourceCode.getSuperClass(), true);
-            if (existing == null || !existing) {
-                classPool.insertClassPath(new ClassClassPath(sourceCode.getSuperClass()));
-            }
-            
-            if (registerClassLoader(Thread.currentThread().getContextClassLoader())) {
-                classPool.insertClassPath(new LoaderClassPath(Thread.currentThread().getContextClassLoader()));
-            }
+            pool.addSuperClass(sourceCode.getSuperClass());
+            registerClassLoader(Thread.currentThread().getContextClassLoader(), pool);
             
             abstractMapperClass = classPool.get(sourceCode.getSuperClass().getCanonicalName());
             byteCodeClass.setSuperclass(abstractMapperClass);
@@ -241,15 +390,15 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
                 
             }
 
-            if (ClassFile.MAJOR_VERSION >= ClassFile.JAVA_11) {
-                compiledClass = byteCodeClass.toClass(sourceCode.getPackageNeighbour());
-            } else {
-                //this code causes Illegal reflective access in Java 11
-                compiledClass = byteCodeClass.toClass(Thread.currentThread().getContextClassLoader(), this.getClass().getProtectionDomain());
-            }
+            byte[] bytecode = byteCodeClass.toBytecode();
+            compiledClass = defineClass(sourceCode, byteCodeClass.getName(), bytecode);
 
             writeClassFile(sourceCode, byteCodeClass);
             
+            if (cacheKey != null) {
+                bytecodeCache.store(cacheKey, compiledClass, bytecode);
+            }
+            
         } catch (NotFoundException e) {
             throw new SourceCodeGenerationException(e);
         } catch (CannotCompileException e) {
@@ -261,4 +410,33 @@ public class JavassistCompilerStrategy extends CompilerStrategy {
         return compiledClass;
     }
     
+    /**
+     * PooledClassPool is a class-pool with the class-paths added to it so far;
+     * it is used by one thread at a time.
+     */
+    private static final class PooledClassPool {
+        
+        private final ClassPool classPool;
+        private final WeakHashMap<ClassLoader, Boolean> classLoaders = new WeakHashMap<>(8);
+        private final Set<Class<?>> superClasses = new HashSet<>(3);
+        
+        private PooledClassPool(Class<?> strategyClass) {
+            this.classPool = new ClassPool();
+            this.classPool.appendSystemPath();
+            this.classPool.insertClassPath(new ClassClassPath(strategyClass));
+        }
+        
+        private void addClassLoader(ClassLoader cl) {
+            if (cl != null && classLoaders.put(cl, Boolean.TRUE) == null) {
+                classPool.insertClassPath(new LoaderClassPath(cl));
+            }
+        }
+        
+        private void addSuperClass(Class<?> superClass) {
+            if (superClasses.add(superClass)) {
+                classPool.insertClassPath(new ClassClassPath(superClass));
+            }
+        }
+    }
+    
 }
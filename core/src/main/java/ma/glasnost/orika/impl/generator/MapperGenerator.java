@@ -22,6 +22,7 @@ import ma.glasnost.orika.MapperFactory;
 import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.MappingException;
 import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.impl.generator.CompilerStrategy.SourceCodeGenerationException;
 import ma.glasnost.orika.metadata.ClassMap;
 import ma.glasnost.orika.metadata.FieldMap;
 import ma.glasnost.orika.metadata.MapperKey;
@@ -68,12 +69,19 @@ public final class MapperGenerator {
                     GeneratedMapperBase.class,
                     context,
                     logDetails);
+            mapperCode.addMappedType(classMap.getAType());
+            mapperCode.addMappedType(classMap.getBType());
             
             Set<FieldMap> mappedFields = new LinkedHashSet<>();
-            mappedFields.addAll(addMapMethod(mapperCode, true, classMap, logDetails));
-            mappedFields.addAll(addMapMethod(mapperCode, false, classMap, logDetails));
-            
-            GeneratedMapperBase instance = mapperCode.getInstance();
+            GeneratedMapperBase instance = emitMapper(mapperCode, classMap, mappedFields);
+            if (instance == null) {
+                mappedFields.addAll(addMapMethod(mapperCode, true, classMap, logDetails));
+                mappedFields.addAll(addMapMethod(mapperCode, false, classMap, logDetails));
+                
+                instance = mapperCode.getInstance();
+            } else if (logDetails != null) {
+                logDetails.append("\n\temitted as bytecode");
+            }
             instance.setAType(classMap.getAType());
             instance.setBType(classMap.getBType());
             instance.setFavorsExtension(classMap.favorsExtension());
@@ -108,6 +116,77 @@ public final class MapperGenerator {
         }
     }
     
+    /**
+     * Emits the bytecode of the mapper directly, if every field is mapped by a
+     * {@link BytecodeSpecification} (and the compiler strategy can define
+     * such classes).
+     * 
+     * @param code
+     * @param classMap
+     * @param mappedFields
+     *            receives the field maps mapped by the emitted mapper
+     * @return the emitted mapper, or null if it must be generated from source
+     */
+    private GeneratedMapperBase emitMapper(SourceCodeContext code, ClassMap<?, ?> classMap, Set<FieldMap> mappedFields) throws Exception {
+        
+        if (!compilerStrategy.canDefineEmittedClasses() || code.shouldCaptureFieldContext()) {
+            return null;
+        }
+        BytecodeContext aToB = new BytecodeContext(code, "mapAtoB", classMap.getAType(), classMap.getBType());
+        BytecodeContext bToA = new BytecodeContext(code, "mapBtoA", classMap.getBType(), classMap.getAType());
+        Set<FieldMap> emittedFields = new LinkedHashSet<>();
+        if (!addEmittedFields(aToB, true, classMap, emittedFields) || !addEmittedFields(bToA, false, classMap, emittedFields)) {
+            return null;
+        }
+        
+        byte[] bytecode = BytecodeContext.toClassFile(code, aToB, bToA);
+        GeneratedMapperBase instance;
+        try {
+            instance = code.getInstance(compilerStrategy.defineEmittedClass(code, bytecode));
+        } catch (SourceCodeGenerationException | LinkageError e) {
+            LOGGER.warn("Could not define the mapper emitted for " + classMap + "; compiling it from source instead", e);
+            return null;
+        }
+        mappedFields.addAll(emittedFields);
+        return instance;
+    }
+    
+    /**
+     * Adds the fields of the specified direction to the emitted method, as
+     * {@link #addMapMethod(SourceCodeContext, boolean, ClassMap, StringBuilder)}
+     * would generate their source.
+     * 
+     * @return false if any field cannot be emitted
+     */
+    private boolean addEmittedFields(BytecodeContext method, boolean aToB, ClassMap<?, ?> classMap, Set<FieldMap> mappedFields) {
+        
+        for (FieldMap currentFieldMap : classMap.getFieldsMapping()) {
+            if (currentFieldMap.isExcluded() || isAlreadyExistsInUsedMappers(currentFieldMap, classMap)) {
+                continue;
+            }
+            FieldMap fieldMap = aToB ? currentFieldMap : currentFieldMap.flip();
+            if (fieldMap.isIgnored()) {
+                continue;
+            }
+            for (AggregateSpecification spec : method.getSourceCode().getCodeGenerationStrategy().getAggregateSpecifications()) {
+                if (spec.appliesTo(fieldMap)) {
+                    return false;
+                }
+            }
+            mappedFields.add(currentFieldMap);
+            
+            VariableRef sourceProperty = new VariableRef(fieldMap.getSource(), "source");
+            VariableRef destinationProperty = new VariableRef(fieldMap.getDestination(), "destination");
+            if (!sourceProperty.isReadable() || ((!destinationProperty.isAssignable()) && destinationProperty.type().isImmutable())) {
+                continue;
+            }
+            if (!method.addField(fieldMap, sourceProperty, destinationProperty)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
     private Set<FieldMap> addMapMethod(SourceCodeContext code, boolean aToB, ClassMap<?, ?> classMap, StringBuilder logDetails) {
         
         Set<FieldMap> mappedFields = new LinkedHashSet<>();
@@ -160,6 +239,8 @@ public final class MapperGenerator {
             }
             
             if (!fieldMap.isIgnored()) {
+                code.addMappedType(fieldMap.getSource().getType());
+                code.addMappedType(fieldMap.getDestination().getType());
                 if (code.aggregateSpecsApply(fieldMap)) {
                     continue;
                 }
@@ -19,6 +19,7 @@ package ma.glasnost.orika.impl.generator;
 
 import ma.glasnost.orika.MapEntry;
 import ma.glasnost.orika.impl.DefaultConcreteTypeMap;
+import ma.glasnost.orika.impl.util.StringUtil;
 import ma.glasnost.orika.metadata.Property;
 import ma.glasnost.orika.metadata.Type;
 import ma.glasnost.orika.metadata.TypeFactory;
@@ -50,8 +51,36 @@ public class MultiOccurrenceVariableRef extends VariableRef {
      * @param r
      * @return
      */
-    public static MultiOccurrenceVariableRef from(VariableRef r) {
-        if (r.property() != null) {
+    public static MultiOccurrenceVariableRef from(final VariableRef r) {
+        if (r.property() != null && r.getFilter() != null) {
+            /*
+             * Keep the accessors (and null checks) of a filtered property,
+             * which its reference overrides
+             */
+            MultiOccurrenceVariableRef filtered = new MultiOccurrenceVariableRef(r.property(), r.name) {
+                @Override
+                protected String getter() {
+                    return r.getter();
+                }
+                
+                @Override
+                protected String setter() {
+                    return r.setter();
+                }
+                
+                @Override
+                public String isNull() {
+                    return r.isNull();
+                }
+                
+                @Override
+                public String notNull(boolean includePath) {
+                    return r.notNull(includePath);
+                }
+            };
+            filtered.setFilter(r.getFilter());
+            return filtered;
+        } else if (r.property() != null) {
             return new MultiOccurrenceVariableRef(r.property(), r.name);
         } else {
             return new MultiOccurrenceVariableRef(r.type(), r.name);
@@ -192,9 +221,7 @@ public class MultiOccurrenceVariableRef extends VariableRef {
         } else if (isSet()) {
             collection = "Set";
         } else if (isCollection()) {
-            // TODO By default we create an ArrayList for collections
-            // Can we introduce a CollectionFactory to enable the user to choose
-            // his own collections
+            // the CollectionFactory chooses the implementation to create
             collection = "List";
         } else {
             throw new IllegalStateException(type() + " is not a collection type");
@@ -257,6 +284,9 @@ public class MultiOccurrenceVariableRef extends VariableRef {
             if ("".equals(prefix) && !"".equals(this.name)) {
                 prefix = this.name;
             }
+            if (!"".equals(prefix)) {
+                prefix = StringUtil.toValidVariableName(prefix);
+            }
 
             if (isArray()) {
                 iteratorName = prefix + "_$_index";
@@ -89,6 +89,8 @@ public class ObjectFactoryGenerator {
             final SourceCodeContext factoryCode = new SourceCodeContext(className,
                     packageNeighbour,
                     GeneratedObjectFactory.class, context, logDetails);
+            factoryCode.addMappedType(type);
+            factoryCode.addMappedType(sourceType);
             
             UsedTypesContext usedTypes = new UsedTypesContext();
             UsedConvertersContext usedConverters = new UsedConvertersContext();
@@ -34,6 +34,7 @@ import ma.glasnost.orika.impl.generator.Node.NodeList;
 import ma.glasnost.orika.impl.generator.UsedMapperFacadesContext.UsedMapperFacadesIndex;
 import ma.glasnost.orika.impl.generator.specification.AbstractSpecification;
 import ma.glasnost.orika.impl.util.ClassUtil;
+import ma.glasnost.orika.impl.util.StringUtil;
 import ma.glasnost.orika.metadata.FieldMap;
 import ma.glasnost.orika.metadata.NestedProperty;
 import ma.glasnost.orika.metadata.Property;
@@ -68,17 +69,18 @@ public class SourceCodeContext {
     
     private static final AtomicInteger UNIQUE_CLASS_INDEX = new AtomicInteger();
     
-    private final StringBuilder sourceBuilder;
     private String classSimpleName;
     private final String packageName;
     private final String className;
     private final CompilerStrategy compilerStrategy;
     private final List<String> methods;
     private final List<String> fields;
+    private StringBuilder sourceBuilder;
     private final Class<?> superClass;
     private final Class<?> packageNeighbour;
     
     private final UsedTypesContext usedTypes;
+    private final Set<Type<?>> mappedTypes;
     private final UsedConvertersContext usedConverters;
     private final UsedFiltersContext usedFilters;
     private final UsedMapperFacadesContext usedMapperFacades;
@@ -90,6 +92,7 @@ public class SourceCodeContext {
     private final MappingContext mappingContext;
     private final Collection<Filter<Object, Object>> filters;
     private final boolean shouldCaptureFieldContext;
+    private int filteredSourceCount;
     
     /**
      * Constructs a new instance of SourceCodeContext
@@ -111,7 +114,6 @@ public class SourceCodeContext {
         this.shouldCaptureFieldContext = (Boolean) mappingContext.getProperty(Properties.CAPTURE_FIELD_CONTEXT);
         
         this.classSimpleName = baseClassName.replace("[]", "$Array");
-        this.sourceBuilder = new StringBuilder();
         this.superClass = superClass;
         
         if (packageNeighbour != null) {
@@ -128,10 +130,8 @@ public class SourceCodeContext {
         this.methods = new ArrayList<>();
         this.fields = new ArrayList<>();
         
-        sourceBuilder.append("package ").append(packageName).append(";\n\n");
-        sourceBuilder.append("public class ").append(classSimpleName).append(" extends ").append(superClass.getCanonicalName()).append(" {\n");
-        
         this.usedTypes = new UsedTypesContext();
+        this.mappedTypes = new LinkedHashSet<>();
         this.usedConverters = new UsedConvertersContext();
         this.usedFilters = new UsedFiltersContext();
         
@@ -171,9 +171,25 @@ public class SourceCodeContext {
     }
     
     /**
+     * The Javassist compiler strategy compiles the fields and methods
+     * individually, so the source of the whole class is only assembled when
+     * first requested (to be written to a file, or compiled by Janino); from
+     * then on, fields and methods added are also appended to it.
+     * 
      * @return the StringBuilder containing the current accumulated source.
      */
     protected StringBuilder getSourceBuilder() {
+        if (sourceBuilder == null) {
+            sourceBuilder = new StringBuilder(1024);
+            sourceBuilder.append("package ").append(packageName).append(";\n\n");
+            sourceBuilder.append("public class ").append(classSimpleName).append(" extends ").append(superClass.getCanonicalName()).append(" {\n");
+            for (String fieldSource : fields) {
+                sourceBuilder.append("\n").append(fieldSource).append("\n");
+            }
+            for (String methodSource : methods) {
+                sourceBuilder.append("\n").append(methodSource).append("\n");
+            }
+        }
         return sourceBuilder;
     }
     
@@ -201,10 +217,47 @@ public class SourceCodeContext {
         return fields;
     }
     
+    /**
+     * Records a type whose members are accessed by the generated class, but
+     * which is not among its used types
+     * 
+     * @param type
+     */
+    public void addMappedType(Type<?> type) {
+        mappedTypes.add(type);
+    }
+    
+    /**
+     * @return the mapped types and the used types of the generated class
+     */
+    Collection<Type<?>> getReferencedTypes() {
+        List<Type<?>> types = new ArrayList<Type<?>>(mappedTypes);
+        types.addAll(Arrays.asList(usedTypes.toArray()));
+        return types;
+    }
+    
     List<String> getMethods() {
         return methods;
     }
 
+    CodeGenerationStrategy getCodeGenerationStrategy() {
+        return codeGenerationStrategy;
+    }
+    
+    boolean shouldCaptureFieldContext() {
+        return shouldCaptureFieldContext;
+    }
+    
+    /**
+     * @param sourceProperty
+     * @param destinationProperty
+     * @return true if any filter applies to the mapping of the provided
+     *         properties
+     */
+    boolean isFiltered(VariableRef sourceProperty, VariableRef destinationProperty) {
+        return getFilter(sourceProperty, destinationProperty) != null;
+    }
+
     public boolean shouldMapNulls() {
         return (Boolean) mappingContext.getProperty(Properties.SHOULD_MAP_NULLS);
     }
@@ -223,7 +276,9 @@ public class SourceCodeContext {
      * @param methodSource
      */
     public void addMethod(String methodSource) {
-        sourceBuilder.append("\n").append(methodSource).append("\n");
+        if (sourceBuilder != null) {
+            sourceBuilder.append("\n").append(methodSource).append("\n");
+        }
         this.methods.add(methodSource);
     }
     
@@ -234,7 +289,9 @@ public class SourceCodeContext {
      *            the source from which to compile the field
      */
     public void addField(String fieldSource) {
-        sourceBuilder.append("\n").append(fieldSource).append("\n");
+        if (sourceBuilder != null) {
+            sourceBuilder.append("\n").append(fieldSource).append("\n");
+        }
         this.fields.add(fieldSource);
     }
     
@@ -242,7 +299,7 @@ public class SourceCodeContext {
      * @return the completed generated java source for the class.
      */
     public String toSourceFile() {
-        return sourceBuilder.toString() + "\n}";
+        return getSourceBuilder().toString() + "\n}";
     }
     
     /**
@@ -267,11 +324,24 @@ public class SourceCodeContext {
      * @throws InstantiationException
      * @throws IllegalAccessException
      */
-    @SuppressWarnings("unchecked")
     public <T extends GeneratedObjectBase> T getInstance() throws SourceCodeGenerationException, InstantiationException,
             IllegalAccessException {
         
-        T instance = (T) compileClass().newInstance();
+        return getInstance(compileClass());
+    }
+    
+    /**
+     * @param type
+     *            the class generated for this context, compiled or emitted
+     * @return a new instance of the provided class, initialized with the
+     *         types, converters, mapper facades and filters used
+     * @throws InstantiationException
+     * @throws IllegalAccessException
+     */
+    @SuppressWarnings("unchecked")
+    <T extends GeneratedObjectBase> T getInstance(Class<?> type) throws InstantiationException, IllegalAccessException {
+        
+        T instance = (T) type.newInstance();
         
         Type<Object>[] usedTypesArray = usedTypes.toArray();
         Converter[] usedConvertersArray = usedConverters.toArray();
@@ -295,6 +365,7 @@ public class SourceCodeContext {
         instance.setUsedConverters(usedConvertersArray);
         instance.setUsedMapperFacades(usedMapperFacadesArray);
         instance.setUsedFilters(usedFiltersArray);
+        instance.setCollectionFactory(mapperFactory.getCollectionFactory());
         
         return instance;
     }
@@ -314,6 +385,28 @@ public class SourceCodeContext {
         return "((" + Type.class.getCanonicalName() + ")usedTypes[" + index + "])";
     }
     
+    /**
+     * Generates the code which creates a new (empty) instance of the type of
+     * the provided multi-occurrence variable; collections and maps are created
+     * by the CollectionFactory registered with the MapperFactory.
+     * 
+     * @param ref
+     *            the array, collection or map variable to instantiate
+     * @param sizeExpr
+     *            an expression for the expected number of elements, or the
+     *            empty string if that is not known
+     * @return the code which creates the new instance
+     */
+    public String newInstance(MultiOccurrenceVariableRef ref, String sizeExpr) {
+        if (ref.isArray()) {
+            return ref.newInstance(sizeExpr);
+        }
+        String size = "".equals(sizeExpr) ? "0" : sizeExpr;
+        String create = ref.isMap() ? "newMap" : "newCollection";
+        return "((" + ref.rawType().getCanonicalName() + ")collectionFactory." + create + "(" + usedType(ref.type()) + ", " + size
+                + "))";
+    }
+    
     private String usedMapperFacadeCall(Type<?> sourceType, Type<?> destinationType) {
         UsedMapperFacadesIndex usedFacade = usedMapperFacades.getIndex(sourceType, destinationType, mapperFactory);
         String mapInDirection = usedFacade.isReversed ? "mapReverse" : "map";
@@ -843,7 +936,7 @@ public class SourceCodeContext {
                     usedType(destinationProperty.type()), varPath(destinationProperty), (getDestinationOnMapping)?destinationProperty.asWrapper():"null"));
             }
 
-            sourceProperty = getSourceFilter(sourceProperty, destinationProperty, filter);
+            sourceProperty = getSourceFilter(sourceProperty, destinationProperty, filter, out);
             destinationProperty = getDestFilter(sourceProperty, destinationProperty, filter);
             
             // need to set source property
@@ -874,6 +967,9 @@ public class SourceCodeContext {
         
         if (filter.filtersDestination()) {
             return new VariableRef(dest.property(), dest.owner()) {
+                {
+                    setFilter(filter);
+                }
                 
                 private String setter;
                 
@@ -900,33 +996,57 @@ public class SourceCodeContext {
     
     /**
      * Proxies the source property as necessary for filters that filter source
-     * values.
+     * values; the filtered value is computed once, into a local variable
+     * declared in <code>out</code>, which the proxy then reads.
      * 
      * @param src
      * @param dest
      * @param filter
+     * @param out
      * @return
      */
-    private VariableRef getSourceFilter(final VariableRef src, final VariableRef dest, final Filter<Object, Object> filter) {
+    private VariableRef getSourceFilter(final VariableRef src, final VariableRef dest, final Filter<Object, Object> filter,
+            StringBuilder out) {
         if (filter.filtersSource()) {
+            String sourceValue = src.getter();
+            if (src.isPrimitive()) {
+                sourceValue = ClassUtil.getWrapperType(src.rawType()).getCanonicalName() + ".valueOf(" + sourceValue + ")";
+            }
+            final VariableRef filteredValue = new VariableRef(src.type(), "filtered" + StringUtil.capitalize(src.validVariableName())
+                    + filteredSourceCount++);
+            out.append(filteredValue.declare("%s.filterSource(%s, %s, \"%s\", %s, \"%s\", mappingContext)", usedFilter(filter),
+                    sourceValue, usedType(src.type()), src.validVariableName(), usedType(dest.type()), dest.validVariableName()));
+            out.append(";\n");
+            
             return new VariableRef(src.property(), src.owner()) {
                 {
                     setConverter(src.getConverter());
+                    setFilter(filter);
                 }
                 
-                private String getter;
-                
                 @Override
                 protected String getter() {
-                    if (getter == null) {
-                        String sourceValue = super.getter();
-                        if (src.isPrimitive()) {
-                            sourceValue = ClassUtil.getWrapperType(src.rawType()).getCanonicalName() + ".valueOf(" + sourceValue + ")";
-                        }
-                        getter = src.cast(format("%s.filterSource(%s, %s, \"%s\", %s, \"%s\", mappingContext)", usedFilter(filter),
-                                sourceValue, usedType(src.type()), src.validVariableName(), usedType(dest.type()), dest.validVariableName()));
+                    return filteredValue.validVariableName();
+                }
+                
+                /*
+                 * The filtered value may be null even where the source value
+                 * is not
+                 */
+                @Override
+                public String isNull() {
+                    if (isPrimitive()) {
+                        return super.isNull();
+                    }
+                    return "(" + super.isNull() + " || " + getter() + " == null)";
+                }
+                
+                @Override
+                public String notNull(boolean includePath) {
+                    if (isPrimitive()) {
+                        return super.notNull(includePath);
                     }
-                    return getter;
+                    return "(" + super.notNull(includePath) + " && " + getter() + " != null)";
                 }
             };
         }
@@ -1009,7 +1129,7 @@ public class SourceCodeContext {
         return out.toString();
     }
     
-    private Converter<Object, Object> getConverter(FieldMap fieldMap, String converterId) {
+    Converter<Object, Object> getConverter(FieldMap fieldMap, String converterId) {
         Converter<Object, Object> converter = null;
         ConverterFactory converterFactory = mapperFactory.getConverterFactory();
         if (converterId != null) {
@@ -19,10 +19,16 @@
 package ma.glasnost.orika.impl.generator.specification;
 
 import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.converter.ConverterFactory;
 import ma.glasnost.orika.impl.generator.MultiOccurrenceVariableRef;
 import ma.glasnost.orika.impl.generator.SourceCodeContext;
 import ma.glasnost.orika.impl.generator.VariableRef;
+import ma.glasnost.orika.impl.util.ClassUtil;
+import ma.glasnost.orika.impl.util.StringUtil;
 import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.Type;
+
+import java.lang.reflect.Modifier;
 
 import static java.lang.String.format;
 import static ma.glasnost.orika.impl.generator.SourceCodeContext.append;
@@ -63,7 +69,7 @@ public class ArrayOrCollectionToCollection extends AbstractSpecification {
        
         MultiOccurrenceVariableRef newDest = new MultiOccurrenceVariableRef(d.type(), "new_" + d.validVariableName());
         if (d.isAssignable()) {
-            out.append(statement(newDest.declare(d.newInstance(source.size()))));
+            out.append(statement(newDest.declare(code.newInstance(d, source.size()))));
         } else {
             out.append(statement(newDest.declare(""+d)));
             out.append(statement("%s.clear()", newDest));
@@ -74,21 +80,22 @@ public class ArrayOrCollectionToCollection extends AbstractSpecification {
                 code.debugField(fieldMap, "mapping " + s.elementTypeName() + "[] to Collection<" + d.elementTypeName() + ">");
             }
             
+            /*
+             * Read the array property once, rather than for each element
+             */
+            MultiOccurrenceVariableRef array = new MultiOccurrenceVariableRef(s.type(), "source"
+                    + StringUtil.capitalize(d.validVariableName()) + "Array");
+            out.append(statement(array.declare(s)));
             if (s.elementType().isPrimitive()) {
-                out.append("\n");
-                out.append(statement("%s.addAll(asList(%s));", newDest, s));
+                out.append(boxElements(array, d, newDest));
             } else {
-                out.append("\n");
-                out.append(statement("%s.addAll(mapperFacade.mapAsList(asList(%s), %s.class, mappingContext));", newDest, s, d.elementTypeName()));
+                out.append(mapElements(array, d, newDest, code));
             }
         } else {
             if (code.isDebugEnabled()) {
                 code.debugField(fieldMap, "mapping Collection<" + s.elementTypeName() + "> to Collection<" + d.elementTypeName() + ">");
             }
-            append(out,
-                    "\n",
-                    format("%s.addAll(mapperFacade.mapAs%s(%s, %s, %s, mappingContext))", newDest, d.collectionType(), s,
-                            code.usedType(s.elementType()), code.usedType(d.elementType())));
+            out.append(mapElements(s, d, newDest, code));
         }
         if (fieldMap.getInverse() != null) {
             final MultiOccurrenceVariableRef inverse = new MultiOccurrenceVariableRef(fieldMap.getInverse(), "orikaCollectionItem");
@@ -125,4 +132,97 @@ public class ArrayOrCollectionToCollection extends AbstractSpecification {
         return out.toString();
     }
     
+    /**
+     * Generates a loop which maps each (non-null) element of the source into
+     * the new destination collection.
+     * 
+     * @param s
+     *            the source array or collection
+     * @param d
+     *            the destination collection
+     * @param newDest
+     *            the new destination collection, into which the elements are
+     *            added
+     * @param code
+     * @return the code which maps the elements
+     */
+    private String mapElements(MultiOccurrenceVariableRef s, MultiOccurrenceVariableRef d, MultiOccurrenceVariableRef newDest,
+            SourceCodeContext code) {
+        
+        VariableRef element = new VariableRef(s.elementType(), "source" + StringUtil.capitalize(d.validVariableName()) + "Element");
+        
+        StringBuilder out = new StringBuilder();
+        append(out,
+                "\n",
+                format("for (%s; %s; ) {", s.declareIterator(), s.iteratorHasNext()),
+                element.declare(s.nextElementRef()) + ";",
+                format("%s { %s.add(%s); }", element.ifNotNull(), newDest, mapElement(element, d.elementType(), code)),
+                "}");
+        return out.toString();
+    }
+    
+    /**
+     * Generates a loop which adds each element of the source primitive array
+     * to the new destination collection, boxed directly as the destination's
+     * element type when the primitive widens to it.
+     * 
+     * @param s
+     *            the source primitive array
+     * @param d
+     *            the destination collection
+     * @param newDest
+     *            the new destination collection, into which the elements are
+     *            added
+     * @return the code which adds the elements
+     */
+    private String boxElements(MultiOccurrenceVariableRef s, MultiOccurrenceVariableRef d, MultiOccurrenceVariableRef newDest) {
+        
+        Class<?> primitive = s.elementType().getRawType();
+        Class<?> destinationPrimitive = ClassUtil.getPrimitiveType(d.elementType().getRawType());
+        if (ClassUtil.isWidening(primitive, destinationPrimitive)) {
+            primitive = destinationPrimitive;
+        }
+        
+        StringBuilder out = new StringBuilder();
+        append(out,
+                "\n",
+                format("for (%s; %s; ) {", s.declareIterator(), s.iteratorHasNext()),
+                format("%s.add(%s.valueOf((%s)%s))", newDest, ClassUtil.getWrapperType(primitive).getCanonicalName(), primitive.getName(),
+                        s.nextElement()),
+                "}");
+        return out.toString();
+    }
+    
+    /**
+     * Generates the code which maps a single element of the source to the
+     * destination element type.<br>
+     * The elements of a final type are all of the same class, so that the
+     * strategy can be chosen here: such an element is copied by reference or
+     * converted directly, as MapperFacade would have resolved it for that
+     * class. Otherwise, the element is mapped through a BoundMapperFacade,
+     * which caches the strategy resolved for the first element's class.
+     * 
+     * @param element
+     *            the source element
+     * @param destinationElementType
+     *            the type of the destination elements
+     * @param code
+     * @return the code which maps the element
+     */
+    private String mapElement(VariableRef element, Type<?> destinationElementType, SourceCodeContext code) {
+        Type<?> sourceElementType = element.type();
+        if (Modifier.isFinal(sourceElementType.getRawType().getModifiers())) {
+            if (sourceElementType.isImmutable() && destinationElementType.isAssignableFrom(sourceElementType)) {
+                return "" + element;
+            }
+            ConverterFactory converterFactory = mapperFactory.getConverterFactory();
+            if (converterFactory.canConvert(sourceElementType, destinationElementType)) {
+                return format("%s.convert(%s, %s, mappingContext)",
+                        code.usedConverter(converterFactory.getConverter(sourceElementType, destinationElementType)), element,
+                        code.usedType(destinationElementType));
+            }
+        }
+        return code.callMapper(element, destinationElementType);
+    }
+    
 }
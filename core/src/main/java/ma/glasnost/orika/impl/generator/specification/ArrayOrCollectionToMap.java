@@ -57,7 +57,7 @@ public class ArrayOrCollectionToMap extends AbstractSpecification {
                 s.ifNotNull() + " {");
         
         if (d.isAssignable()) {
-            out.append(statement(newDest.declare(newDest.newInstance(d.newMap()))));
+            out.append(statement(newDest.declare(code.newInstance(d, s.size()))));
         } else {
             out.append(statement(newDest.declare(d)));
             out.append(statement("%s.clear()", newDest));
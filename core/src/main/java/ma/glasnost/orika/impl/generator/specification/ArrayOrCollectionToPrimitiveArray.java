@@ -0,0 +1,132 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.generator.specification;
+
+import ma.glasnost.orika.Converter;
+import ma.glasnost.orika.converter.ConverterFactory;
+import ma.glasnost.orika.converter.builtin.NumericConverters;
+import ma.glasnost.orika.impl.generator.MultiOccurrenceVariableRef;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import ma.glasnost.orika.impl.generator.VariableRef;
+import ma.glasnost.orika.impl.util.ClassUtil;
+import ma.glasnost.orika.impl.util.StringUtil;
+import ma.glasnost.orika.metadata.FieldMap;
+import ma.glasnost.orika.metadata.Property;
+import ma.glasnost.orika.metadata.Type;
+
+import static java.lang.String.format;
+import static ma.glasnost.orika.impl.generator.SourceCodeContext.append;
+import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
+
+/**
+ * ArrayOrCollectionToPrimitiveArray handles mapping of an Array or Collection
+ * of primitives (or their wrappers) to an Array of the same or a wider
+ * primitive type, without boxing the elements.<br>
+ * An array of the same primitive type is copied with System.arraycopy; the
+ * elements of other sources are unwrapped and widened in a loop.
+ */
+public class ArrayOrCollectionToPrimitiveArray extends AbstractSpecification {
+
+    public boolean appliesTo(FieldMap fieldMap) {
+        if (!fieldMap.getDestination().isArray() || !fieldMap.getBType().getComponentType().isPrimitive()
+                || (!fieldMap.getSource().isArray() && !fieldMap.getSource().isCollection())) {
+            return false;
+        }
+        Type<?> sourceElementType = elementType(fieldMap.getSource());
+        Type<?> destinationElementType = fieldMap.getBType().getComponentType();
+        Class<?> sourcePrimitive = primitiveOf(sourceElementType);
+        Class<?> destinationPrimitive = destinationElementType.getRawType();
+        if (destinationPrimitive.equals(sourcePrimitive)) {
+            return true;
+        }
+        if (!ClassUtil.isWidening(sourcePrimitive, destinationPrimitive)) {
+            return false;
+        }
+        /*
+         * A registered converter takes precedence over the widening
+         * conversion, unless it is one of the builtin numeric converters,
+         * which widen the value in the same way
+         */
+        ConverterFactory converterFactory = mapperFactory.getConverterFactory();
+        if (!converterFactory.canConvert(sourceElementType, destinationElementType)) {
+            return true;
+        }
+        Converter<?, ?> converter = converterFactory.getConverter(sourceElementType, destinationElementType);
+        return NumericConverters.class.equals(converter.getClass().getEnclosingClass());
+    }
+
+    public String generateMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
+
+        final VariableRef arrayVar = destination.elementRef(destination.name() + "Array__");
+        final MultiOccurrenceVariableRef sourceVar = new MultiOccurrenceVariableRef(source.type(),
+                StringUtil.toValidVariableName(destination.name() + "Source__"));
+        final Type<?> sourceElementType = source.elementType();
+        final Class<?> destinationPrimitive = destination.elementType().getRawType();
+
+        StringBuilder out = new StringBuilder();
+        append(out,
+                sourceVar.declare(source) + ";",
+                format("%s[] %s = new %s[%s];", destination.elementTypeName(), arrayVar.validVariableName(), destination.elementTypeName(),
+                        sourceVar.size()));
+
+        if (sourceVar.isArray() && sourceElementType.getRawType().equals(destinationPrimitive)) {
+            if (code.isDebugEnabled()) {
+                code.debugField(fieldMap, "copying " + destination.elementTypeName() + "[]");
+            }
+            out.append(statement("System.arraycopy(%s, 0, %s, 0, %s.length)", sourceVar, arrayVar.validVariableName(),
+                    arrayVar.validVariableName()));
+        } else {
+            if (code.isDebugEnabled()) {
+                code.debugField(fieldMap, "mapping " + sourceElementType + " elements to primitive array");
+            }
+            final MultiOccurrenceVariableRef newArray = new MultiOccurrenceVariableRef(destination.type(), arrayVar.validVariableName());
+            out.append(statement(newArray.declareIterator()));
+            out.append(format("for (%s; %s; ) {", sourceVar.declareIterator(), sourceVar.iteratorHasNext()));
+            String element = sourceVar.nextElement();
+            if (!sourceElementType.isPrimitive()) {
+                element = format("((%s)%s).%sValue()", sourceElementType.getCanonicalName(), element,
+                        ClassUtil.getPrimitiveType(sourceElementType.getRawType()).getName());
+            }
+            append(out,
+                    statement(newArray.add(format("(%s)%s", destinationPrimitive.getName(), element))),
+                    "}");
+        }
+
+        String mapNull = shouldMapNulls(fieldMap, code) ? format(" else { %s; }", destination.assignIfPossible("null")) : "";
+        return format(" %s { %s %s; } %s", source.ifNotNull(), out, destination.assign(arrayVar), mapNull);
+    }
+
+    private static Type<?> elementType(Property property) {
+        return property.isArray() ? property.getType().getComponentType() : property.getElementType();
+    }
+
+    /**
+     * @return the primitive type of the elements, or null if they are neither
+     *         primitives nor primitive wrappers
+     */
+    private static Class<?> primitiveOf(Type<?> elementType) {
+        if (elementType == null) {
+            return null;
+        } else if (elementType.isPrimitive()) {
+            return elementType.getRawType();
+        } else {
+            return ClassUtil.getPrimitiveType(elementType.getRawType());
+        }
+    }
+}
@@ -19,6 +19,8 @@
 package ma.glasnost.orika.impl.generator.specification;
 
 import ma.glasnost.orika.converter.builtin.CopyByReferenceConverter;
+import ma.glasnost.orika.impl.generator.BytecodeContext;
+import ma.glasnost.orika.impl.generator.BytecodeSpecification;
 import ma.glasnost.orika.impl.generator.SourceCodeContext;
 import ma.glasnost.orika.impl.generator.VariableRef;
 import ma.glasnost.orika.metadata.FieldMap;
@@ -30,13 +32,15 @@ import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
  * Convert applies the conversion operation between two properties. There is a
  * special shortcut case applied when the converter is a
  * CopyByReferenceConverter -- we applied the code to assign the reference
- * directly rather than making an extra method call.
+ * directly rather than making an extra method call; in that case, where the
+ * properties are accessed through public getters and setters, the bytecode of
+ * the assignment may also be emitted directly.
  * 
  * @author elaatifi@gmail.com
  * @author matt.deboer@gmail.com
  *
  */
-public class Convert extends AbstractSpecification {
+public class Convert extends AbstractSpecification implements BytecodeSpecification {
     
     public boolean appliesTo(FieldMap fieldMap) {
         return fieldMap.getConverterId() != null
@@ -111,4 +115,17 @@ public class Convert extends AbstractSpecification {
             return statement(source.ifNotNull() + "{ \n" + statement) + "\n}" + elseSetNull;
         }
     }
+    
+    public boolean canEmitMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, BytecodeContext code) {
+        return source.getConverter() instanceof CopyByReferenceConverter && code.canAssign(destination, source);
+    }
+    
+    public void emitMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, BytecodeContext code) {
+        
+        if (code.getSourceCode().isDebugEnabled()) {
+            code.getSourceCode().debugField(fieldMap, "copying " + source.type() + " by reference");
+        }
+        
+        code.assign(destination, source, !shouldMapNulls(fieldMap, code.getSourceCode()));
+    }
 }
@@ -18,6 +18,8 @@
 
 package ma.glasnost.orika.impl.generator.specification;
 
+import ma.glasnost.orika.impl.generator.BytecodeContext;
+import ma.glasnost.orika.impl.generator.BytecodeSpecification;
 import ma.glasnost.orika.impl.generator.SourceCodeContext;
 import ma.glasnost.orika.impl.generator.VariableRef;
 import ma.glasnost.orika.metadata.FieldMap;
@@ -26,9 +28,11 @@ import static ma.glasnost.orika.impl.generator.SourceCodeContext.append;
 import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
 
 /**
- * CopyByReference handles mapping of immutable types by reference
+ * CopyByReference handles mapping of immutable types by reference; where the
+ * properties are accessed through public getters and setters, it also emits
+ * the bytecode of the mapping directly.
  */
-public class CopyByReference extends AbstractSpecification {
+public class CopyByReference extends AbstractSpecification implements BytecodeSpecification {
 
     public boolean appliesTo(FieldMap fieldMap) {
         return fieldMap.getSource().getType().isImmutable()
@@ -67,4 +71,17 @@ public class CopyByReference extends AbstractSpecification {
         return out.toString();
     }
     
+    public boolean canEmitMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, BytecodeContext code) {
+        return code.canAssign(destination, source);
+    }
+    
+    public void emitMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, BytecodeContext code) {
+        
+        if (code.getSourceCode().isDebugEnabled()) {
+            code.getSourceCode().debugField(fieldMap, "copying " + source.elementTypeName() + " by reference");
+        }
+        
+        code.assign(destination, source, !shouldMapNulls(fieldMap, code.getSourceCode()));
+    }
+    
 }
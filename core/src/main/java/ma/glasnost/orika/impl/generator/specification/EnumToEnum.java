@@ -22,6 +22,7 @@ import static java.lang.String.format;
 import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
 import ma.glasnost.orika.impl.generator.SourceCodeContext;
 import ma.glasnost.orika.impl.generator.VariableRef;
+import ma.glasnost.orika.impl.util.EnumUtil;
 import ma.glasnost.orika.metadata.FieldMap;
 
 /**
@@ -34,7 +35,7 @@ public class EnumToEnum extends AbstractSpecification {
     }
     
     public String generateEqualityTestCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
-        return "(Enum.valueOf(%s.class, %s.name()) == " + destination + ")";
+        return format("(%s.convert(%s, %s.class) == %s)", EnumUtil.class.getCanonicalName(), source, destination.typeName(), destination);
     }
     
     public String generateMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
@@ -43,7 +44,7 @@ public class EnumToEnum extends AbstractSpecification {
             code.debugField(fieldMap, "converting enum " + source.typeName() + " to enum " + destination.typeName());
         }
         
-        String assignEnum = destination.assign("Enum.valueOf(%s.class, %s.name())", destination.typeName(), source);
+        String assignEnum = destination.assign("%s.convert(%s, %s.class)", EnumUtil.class.getCanonicalName(), source, destination.typeName());
         String mapNull = shouldMapNulls(fieldMap, code) ? format(" else {\n %s;\n}", destination.assignIfPossible("null")): "";
         return statement("%s { %s; } %s", source.ifNotNull(), assignEnum, mapNull);
     }
@@ -156,7 +156,7 @@ public class MultiOccurrenceToMultiOccurrence implements AggregateSpecification
                     out.append(
                             statement("if (%s) {\n%s;\n} else {\n%s;}",
                                     sourcesNotNull,
-                                    destRef.newDestination.assign(destRef.newDestination.newInstance(sizeExpr)),
+                                    destRef.newDestination.assign(code.newInstance(destRef.newDestination, sizeExpr)),
                                     destRef.newDestination.assign("null")
                             ));
                 } else {
@@ -311,7 +311,7 @@ public class MultiOccurrenceToMultiOccurrence implements AggregateSpecification
                     append(out,
                             format("if (%s && %s) {",destRef.newDestination.notNull(), destRef.newDestination.notEmpty()),
                             format("if (%s) {", destRef.multiOccurrenceVar.isNull()),
-                            destRef.multiOccurrenceVar.assignIfPossible(destRef.multiOccurrenceVar.newInstance(sizeExpr)),
+                            destRef.multiOccurrenceVar.assignIfPossible(code.newInstance(destRef.multiOccurrenceVar, sizeExpr)),
                             "} else {\n",
                             destRef.multiOccurrenceVar + ".clear()",
                             "}\n",
@@ -22,6 +22,7 @@ import static java.lang.String.format;
 import static ma.glasnost.orika.impl.generator.SourceCodeContext.statement;
 import ma.glasnost.orika.impl.generator.SourceCodeContext;
 import ma.glasnost.orika.impl.generator.VariableRef;
+import ma.glasnost.orika.impl.util.EnumUtil;
 import ma.glasnost.orika.metadata.FieldMap;
 
 /**
@@ -36,7 +37,7 @@ public class StringToEnum extends AbstractSpecification {
     }
 
     public String generateEqualityTestCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
-        return "(Enum.valueOf(%s.class, \"\"+%s) == " + destination +")";
+        return format("(%s.valueOf(%s.class, \"\"+%s) == %s)", EnumUtil.class.getCanonicalName(), destination.typeName(), source, destination);
     }
 
     public String generateMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
@@ -45,7 +46,7 @@ public class StringToEnum extends AbstractSpecification {
             code.debugField(fieldMap, "converting String to enum " + destination.type());
         }
         
-        String assignEnum = destination.assign("Enum.valueOf(%s.class, \"\"+%s)", destination.typeName(), source);
+        String assignEnum = destination.assign("%s.valueOf(%s.class, \"\"+%s)", EnumUtil.class.getCanonicalName(), destination.typeName(), source);
         String mapNull = shouldMapNulls(fieldMap, code) ? format(" else {\n %s;\n}", destination.assignIfPossible("null")): "";
         return statement("%s { %s; } %s", source.ifNotNull(), assignEnum, mapNull);
     }
@@ -82,4 +82,47 @@ public final class ClassUtil {
 		}
     }
 
+    /**
+     * Returns true if a value of the first primitive type may be assigned to
+     * the second primitive type without loss of magnitude, that is, if the
+     * types are the same or the first widens to the second.
+     * 
+     * @param fromPrimitive
+     * @param toPrimitive
+     * @return true if the first primitive type widens to the second
+     */
+    public static boolean isWidening(Class<?> fromPrimitive, Class<?> toPrimitive) {
+        if (fromPrimitive == null || toPrimitive == null || !fromPrimitive.isPrimitive() || !toPrimitive.isPrimitive()) {
+            return false;
+        } else if (fromPrimitive.equals(toPrimitive)) {
+            return true;
+        } else if (char.class.equals(fromPrimitive)) {
+            return widthOf(toPrimitive) >= widthOf(int.class);
+        } else {
+            return widthOf(fromPrimitive) > 0 && widthOf(toPrimitive) > widthOf(fromPrimitive);
+        }
+    }
+    
+    /**
+     * @return the rank of the numeric primitive type in the order of widening
+     *         conversions, or 0 for boolean and char
+     */
+    private static int widthOf(Class<?> primitiveType) {
+        if (byte.class.equals(primitiveType)) {
+            return 1;
+        } else if (short.class.equals(primitiveType)) {
+            return 2;
+        } else if (int.class.equals(primitiveType)) {
+            return 3;
+        } else if (long.class.equals(primitiveType)) {
+            return 4;
+        } else if (float.class.equals(primitiveType)) {
+            return 5;
+        } else if (double.class.equals(primitiveType)) {
+            return 6;
+        } else {
+            return 0;
+        }
+    }
+
 }
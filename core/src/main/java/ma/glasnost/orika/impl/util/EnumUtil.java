@@ -0,0 +1,126 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.impl.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * EnumUtil looks up enum constants through tables computed once per enum
+ * type (and per pair of enum types), rather than through
+ * <code>Enum.valueOf</code>; it is used by the enum converters and by
+ * generated mappers.
+ */
+public final class EnumUtil {
+
+    /**
+     * The constants of each enum type, by name
+     */
+    private static final ClassValue<Map<String, Enum<?>>> CONSTANTS_BY_NAME = new ClassValue<Map<String, Enum<?>>>() {
+        @Override
+        protected Map<String, Enum<?>> computeValue(Class<?> type) {
+            Object[] constants = type.getEnumConstants();
+            if (constants == null) {
+                return Collections.emptyMap();
+            }
+            Map<String, Enum<?>> constantsByName = new HashMap<>(constants.length * 2);
+            for (Object constant : constants) {
+                constantsByName.put(((Enum<?>) constant).name(), (Enum<?>) constant);
+            }
+            return constantsByName;
+        }
+    };
+
+    /**
+     * For each source enum type, and then for each destination enum type, the
+     * destination constant of the same name as each source constant, by
+     * ordinal (or null where there is none)
+     */
+    private static final ClassValue<ClassValue<Enum<?>[]>> CONSTANTS_BY_ORDINAL = new ClassValue<ClassValue<Enum<?>[]>>() {
+        @Override
+        protected ClassValue<Enum<?>[]> computeValue(final Class<?> sourceType) {
+            return new ClassValue<Enum<?>[]>() {
+                @Override
+                protected Enum<?>[] computeValue(Class<?> destinationType) {
+                    Object[] sourceConstants = sourceType.getEnumConstants();
+                    Map<String, Enum<?>> destinationConstants = CONSTANTS_BY_NAME.get(destinationType);
+                    Enum<?>[] constantsByOrdinal = new Enum<?>[sourceConstants.length];
+                    for (int i = 0; i < sourceConstants.length; ++i) {
+                        constantsByOrdinal[i] = destinationConstants.get(((Enum<?>) sourceConstants[i]).name());
+                    }
+                    return constantsByOrdinal;
+                }
+            };
+        }
+    };
+
+    private EnumUtil() {
+
+    }
+
+    /**
+     * Returns the constant of an enum type with the given name, as
+     * <code>Enum.valueOf</code> does.
+     *
+     * @param enumType
+     *            the enum type
+     * @param name
+     *            the name of the constant
+     * @return the constant
+     * @throws IllegalArgumentException
+     *             if the enum type has no constant with that name, or is not
+     *             an enum type
+     * @throws NullPointerException
+     *             if the name is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> E valueOf(Class<E> enumType, String name) {
+        Enum<?> constant = CONSTANTS_BY_NAME.get(enumType).get(name);
+        if (constant == null) {
+            /*
+             * Fails as expected
+             */
+            return Enum.valueOf(enumType, name);
+        }
+        return (E) constant;
+    }
+
+    /**
+     * Returns the constant of an enum type with the same name as a constant of
+     * another enum type.
+     *
+     * @param source
+     *            the constant to convert
+     * @param enumType
+     *            the enum type to convert to
+     * @return the constant of the enum type with the name of the source
+     * @throws IllegalArgumentException
+     *             if the enum type has no constant with that name, or is not
+     *             an enum type
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Enum<E>> E convert(Enum<?> source, Class<E> enumType) {
+        Enum<?> constant = CONSTANTS_BY_ORDINAL.get(source.getDeclaringClass()).get(enumType)[source.ordinal()];
+        if (constant == null) {
+            return Enum.valueOf(enumType, source.name());
+        }
+        return (E) constant;
+    }
+}
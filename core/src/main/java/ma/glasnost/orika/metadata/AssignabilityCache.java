@@ -0,0 +1,136 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.metadata;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * AssignabilityCache records, for one Type, whether it is assignable from
+ * other Types, identified by their unique index.<br>
+ * <br>
+ *
+ * Each entry is a single long (the index of the other type, followed by the
+ * result) in an open-addressed table, so that lookups neither lock nor
+ * allocate; entries are added with compare-and-set. The other types are not
+ * referenced, so the cache keeps no class (or class-loader) reachable; and
+ * since unique indexes are never reused, the entry of a collected type can
+ * never be matched by another.<br>
+ * <br>
+ *
+ * A table accepts entries until it is half full, after which a larger copy is
+ * made by {@link #grow()}; at the maximum capacity, the copy is empty instead,
+ * which bounds the memory held for each type. Entries added concurrently with
+ * a copy may be lost, which only means they are computed again.
+ */
+final class AssignabilityCache {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int MAXIMUM_CAPACITY = 4096;
+
+    private final AtomicLongArray entries;
+    private final AtomicInteger size = new AtomicInteger();
+    private final int mask;
+
+    AssignabilityCache() {
+        this(INITIAL_CAPACITY);
+    }
+
+    private AssignabilityCache(int capacity) {
+        this.entries = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     * @param index
+     *            the unique index of the other type
+     * @return whether the type is assignable from the other type, or null if
+     *         that is not known
+     */
+    Boolean get(int index) {
+        long key = keyOf(index);
+        for (int i = index & mask, probes = 0; probes <= mask; i = (i + 1) & mask, ++probes) {
+            long entry = entries.get(i);
+            if (entry == 0L) {
+                return null;
+            } else if ((entry >>> 1) == key) {
+                return (entry & 1L) != 0L;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Records whether the type is assignable from the other type.
+     *
+     * @param index
+     *            the unique index of the other type
+     * @param assignable
+     *            whether the type is assignable from the other type
+     * @return false if the cache is full, in which case the result was not
+     *         recorded
+     */
+    boolean put(int index, boolean assignable) {
+        if (size.get() >= (mask + 1) / 2) {
+            return false;
+        }
+        long key = keyOf(index);
+        long newEntry = (key << 1) | (assignable ? 1L : 0L);
+        for (int i = index & mask, probes = 0; probes <= mask; i = (i + 1) & mask, ++probes) {
+            long entry = entries.get(i);
+            if (entry == 0L) {
+                if (entries.compareAndSet(i, 0L, newEntry)) {
+                    size.incrementAndGet();
+                    return true;
+                }
+                entry = entries.get(i);
+            }
+            if ((entry >>> 1) == key) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a cache with room for more entries, holding the entries of this
+     *         cache unless it has reached the maximum capacity
+     */
+    AssignabilityCache grow() {
+        int capacity = mask + 1;
+        if (capacity >= MAXIMUM_CAPACITY) {
+            return new AssignabilityCache(capacity);
+        }
+        AssignabilityCache grown = new AssignabilityCache(capacity * 2);
+        for (int i = 0; i < capacity; ++i) {
+            long entry = entries.get(i);
+            if (entry != 0L) {
+                grown.put((int) ((entry >>> 1) - 1L), (entry & 1L) != 0L);
+            }
+        }
+        return grown;
+    }
+
+    /**
+     * Offsets the index, so that no key is 0 (which marks an empty entry)
+     */
+    private static long keyOf(int index) {
+        return (index & 0xFFFFFFFFL) + 1L;
+    }
+}
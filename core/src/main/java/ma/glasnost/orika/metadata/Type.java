@@ -77,6 +77,7 @@ public final class Type<T> implements ParameterizedType, Comparable<Type<?>> {
     private Type<?> componentType;
     private final TypeKey key;
     private final int uniqueIndex;
+    private volatile AssignabilityCache assignabilityCache;
 
     private static final Set<Class<?>> PRIMITIVE_WRAPPER_TYPES;
 
@@ -314,7 +315,8 @@ public final class Type<T> implements ParameterizedType, Comparable<Type<?>> {
     }
     
     /**
-     * Test whether this type is assignable from the other type.
+     * Test whether this type is assignable from the other type; the result is
+     * remembered for each other type.
      * 
      * @param other
      * @return
@@ -326,6 +328,31 @@ public final class Type<T> implements ParameterizedType, Comparable<Type<?>> {
         if (other == null) {
             return false;
         }
+        AssignabilityCache cache = assignabilityCache;
+        if (cache != null) {
+            Boolean assignable = cache.get(other.uniqueIndex);
+            if (assignable != null) {
+                return assignable;
+            }
+        }
+        boolean assignable = resolveAssignableFrom(other);
+        /*
+         * The resolution may have replaced the cache
+         */
+        cache = assignabilityCache;
+        if (cache == null) {
+            cache = new AssignabilityCache();
+            assignabilityCache = cache;
+        }
+        if (!cache.put(other.uniqueIndex, assignable)) {
+            cache = cache.grow();
+            cache.put(other.uniqueIndex, assignable);
+            assignabilityCache = cache;
+        }
+        return assignable;
+    }
+    
+    private boolean resolveAssignableFrom(final Type<?> other) {
         if (!this.getRawType().isAssignableFrom(other.getRawType())) {
             return false;
         }
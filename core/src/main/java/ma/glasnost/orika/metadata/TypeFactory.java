@@ -19,6 +19,8 @@ package ma.glasnost.orika.metadata;
 
 import ma.glasnost.orika.metadata.TypeUtil.InvalidTypeDescriptorException;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.TypeVariable;
@@ -45,11 +47,34 @@ public abstract class TypeFactory {
     private TypeFactory() {
     }
     
+    private static final java.lang.reflect.Type[] NO_TYPE_ARGUMENTS = new java.lang.reflect.Type[0];
+
     /**
      * Use a weak-valued concurrent map to avoid keeping static references to
      * Types (classes) which may belong to descendant class-loaders
      */
-    private static final ConcurrentHashMap<TypeKey, WeakReference<Type<?>>> typeCache = new ConcurrentHashMap<>();
+    private static final ConcurrentHashMap<TypeKey, TypeReference> typeCache = new ConcurrentHashMap<>();
+
+    /**
+     * Receives the references of collected types, whose entries are then
+     * removed from the type cache
+     */
+    private static final ReferenceQueue<Type<?>> staleTypes = new ReferenceQueue<>();
+
+    /**
+     * Caches the Type resolved for each raw Class, so that
+     * {@link #valueOf(Class)} is a lookup on the Class itself; the Type is
+     * only weakly referenced, since a Class of a parent class-loader (such as
+     * one of the JDK) would otherwise keep the class-loader of Orika from
+     * being collected. Such an entry is the same instance as is interned in
+     * the type cache, and so is cleared together with it.
+     */
+    private static final ClassValue<WeakReference<Type<?>>> rawTypeCache = new ClassValue<WeakReference<Type<?>>>() {
+        @Override
+        protected WeakReference<Type<?>> computeValue(Class<?> rawType) {
+            return new WeakReference<Type<?>>(resolveRawType(rawType));
+        }
+    };
 
     /**
      * The Type instance which represents the Object class
@@ -62,14 +87,32 @@ public abstract class TypeFactory {
      * @param rawType
      * @return the resolved Type instance
      */
+    @SuppressWarnings("unchecked")
     public static <E> Type<E> valueOf(final Class<E> rawType) {
         if (rawType == null) {
             return null;
-        } else if (rawType.isAnonymousClass() && rawType.getGenericSuperclass() instanceof ParameterizedType) {
+        }
+        Type<E> type = (Type<E>) rawTypeCache.get(rawType).get();
+        if (type == null) {
+            /*
+             * The Type was collected since it was cached; resolving it again
+             * interns a new instance
+             */
+            rawTypeCache.remove(rawType);
+            type = (Type<E>) rawTypeCache.get(rawType).get();
+            if (type == null) {
+                type = (Type<E>) resolveRawType(rawType);
+            }
+        }
+        return type;
+    }
+
+    private static Type<?> resolveRawType(final Class<?> rawType) {
+        if (rawType.isAnonymousClass() && rawType.getGenericSuperclass() instanceof ParameterizedType) {
             ParameterizedType genericSuper = (ParameterizedType) rawType.getGenericSuperclass();
             return valueOf(genericSuper);
         } else {
-            return intern(rawType, new java.lang.reflect.Type[0], new HashSet<>());
+            return intern(rawType, NO_TYPE_ARGUMENTS, new HashSet<>());
         }
     }
 
@@ -313,7 +356,7 @@ public abstract class TypeFactory {
         } else if (type instanceof ParameterizedType) {
             return limitedValueOf((ParameterizedType) type, recursiveBounds);
         } else if (type instanceof Class) {
-            return limitedValueOf((Class<T>) type, recursiveBounds, new java.lang.reflect.Type[0]);
+            return limitedValueOf((Class<T>) type, recursiveBounds, NO_TYPE_ARGUMENTS);
         } else if (type instanceof TypeVariable) {
             return limitedValueOf((TypeVariable<?>) type, recursiveBounds);
         } else if (type instanceof WildcardType) {
@@ -437,41 +480,52 @@ public abstract class TypeFactory {
         Type<?>[] convertedArguments = TypeUtil.convertTypeArguments(rawType, typeArguments, recursiveBounds);
         TypeKey key = TypeKey.valueOf(rawType, convertedArguments);
 
-        WeakReference<Type<?>> mapped = typeCache.get(key);
-        Type<T> typeResult = null;
-        if (mapped != null) {
-            typeResult = (Type<T>) mapped.get();
-        }
-        if (mapped == null || typeResult == null) {
-            synchronized (rawType) {
-                mapped = typeCache.get(key);
-                if (mapped != null) {
-                    typeResult = (Type<T>) mapped.get();
-                }
-                if (typeResult == null) {
-                    typeResult = createType(key, rawType, convertedArguments);
-                    mapped = new WeakReference<>(typeResult);
-                    WeakReference<Type<?>> existing = typeCache.putIfAbsent(key, mapped);
-                    if (existing != null) {
-                        if (existing.get() == null) {
-                            /*
-                             *  Should not be possible, since the references are
-                             *  based on Class objects, which cannot be GC'd until
-                             *  their respective class loader is GC'd, in which case,
-                             *  such a Class could not be passed into this method as
-                             *  an argument, or embedded within an argument
-                             */
-                            typeCache.put(key, mapped);
-                        } else {
-                            mapped = existing;
-                            typeResult = (Type<T>) mapped.get();
-                        }
-                    }
-                }
+        Type<T> created = null;
+        TypeReference reference = null;
+        for (;;) {
+            TypeReference mapped = typeCache.get(key);
+            Type<T> typeResult = mapped != null ? (Type<T>) mapped.get() : null;
+            if (typeResult != null) {
+                return typeResult;
+            }
+            if (created == null) {
+                expungeStaleTypes();
+                created = createType(key, rawType, convertedArguments);
+                reference = new TypeReference(key, created, staleTypes);
             }
+            /*
+             * Publish the new type unless another thread has published one in
+             * the meantime, replacing the entry of a collected type
+             */
+            if (mapped == null ? typeCache.putIfAbsent(key, reference) == null : typeCache.replace(key, mapped, reference)) {
+                return created;
+            }
+        }
+    }
+
+    /**
+     * Removes the entries of types which have been collected
+     */
+    private static void expungeStaleTypes() {
+        Reference<? extends Type<?>> stale;
+        while ((stale = staleTypes.poll()) != null) {
+            TypeReference reference = (TypeReference) stale;
+            typeCache.remove(reference.key, reference);
         }
-        return typeResult;
+    }
+
+    /**
+     * A weak reference to an interned Type, which remembers its key so that
+     * its entry can be removed once it is cleared
+     */
+    private static final class TypeReference extends WeakReference<Type<?>> {
 
+        private final TypeKey key;
+
+        private TypeReference(TypeKey key, Type<?> type, ReferenceQueue<Type<?>> queue) {
+            super(type, queue);
+            this.key = key;
+        }
     }
 
     private static <T> Type<T> createType(TypeKey key, Class<T> rawType, Type<?>[] typeArguments) {
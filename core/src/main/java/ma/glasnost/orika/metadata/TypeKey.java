@@ -18,78 +18,62 @@
 package ma.glasnost.orika.metadata;
 
 import java.util.Arrays;
-import java.util.Collections;
-import java.util.Map;
-import java.util.WeakHashMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * TypeKey provides a way to uniquely identify a {Class, Type[]} pair without
- * storing references to either class object within itself.
+ * storing references to either class object within itself.<br>
+ * <br>
+ * 
+ * The key is made of the index of the raw class, which is assigned once per
+ * Class object, followed by the unique indexes of the (interned) type
+ * arguments; two keys are equal exactly when they identify the same raw class
+ * and the same type arguments. An index is never reused, so a key cannot match
+ * a type of a class which has since been unloaded.
  * 
  * @author matt.deboer@gmail.com
  * 
  */
 class TypeKey {
 
-	private static final Map<java.lang.reflect.Type, Integer> knownTypes = Collections.synchronizedMap(new WeakHashMap<>());
 	private static final AtomicInteger currentIndex = new AtomicInteger();
 
+	/**
+	 * The index of each class is stored with the class itself, so that it is
+	 * assigned without locking, and discarded with the class
+	 */
+	private static final ClassValue<Integer> classIndexes = new ClassValue<Integer>() {
+		@Override
+		protected Integer computeValue(Class<?> type) {
+			return currentIndex.getAndIncrement();
+		}
+	};
+
 	/**
 	 * Calculates an identity for a Class, Type[] pair; avoids maintaining a
 	 * reference the actual class.
 	 *
 	 * @param rawType
 	 * @param typeArguments
+	 *            the interned type arguments
 	 * @return
 	 */
-	static TypeKey valueOf(Class<?> rawType, java.lang.reflect.Type[] typeArguments) {
+	static TypeKey valueOf(Class<?> rawType, Type<?>[] typeArguments) {
 
-		byte[] identityHashBytes = new byte[(typeArguments.length + 1) * 4];
-		intToByteArray(getTypeIndex(rawType), identityHashBytes, 0);
+		int[] indexes = new int[typeArguments.length + 1];
+		indexes[0] = classIndexes.get(rawType);
 		for (int i = 0, len = typeArguments.length; i < len; ++i) {
-			intToByteArray(getTypeIndex(typeArguments[i]), identityHashBytes, i + 1);
-		}
-		return new TypeKey(identityHashBytes);
-	}
-
-	private static int getTypeIndex(java.lang.reflect.Type type) {
-		Integer typeIndex = knownTypes.get(type);
-		if (typeIndex == null) {
-			synchronized (type) {
-				typeIndex = knownTypes.get(type);
-				if (typeIndex == null) {
-					typeIndex = currentIndex.getAndAdd(1);
-					knownTypes.put(type, typeIndex);
-				}
-			}
-
+			indexes[i + 1] = typeArguments[i].getUniqueIndex();
 		}
-		return typeIndex;
-	}
-
-	/**
-	 * Merge an int value into byte array, starting at the specified starting
-	 * index (occupies the next 4 bytes);
-	 *
-	 * @param value
-	 * @param bytes
-	 * @param startIndex
-	 */
-	private static void intToByteArray(int value, byte[] bytes, int startIndex) {
-		int i = startIndex * 4;
-		bytes[i] = (byte) (value >>> 24);
-		bytes[i + 1] = (byte) (value >>> 16);
-		bytes[i + 2] = (byte) (value >>> 8);
-		bytes[i + 3] = (byte) (value);
+		return new TypeKey(indexes);
 	}
 
-	private final byte[] bytes;
+	private final int[] indexes;
 	private final int hashCode;
 
-	private TypeKey(byte[] bytes) {
-		this.bytes = bytes;
-		this.hashCode = Arrays.hashCode(this.bytes);
+	private TypeKey(int[] indexes) {
+		this.indexes = indexes;
+		this.hashCode = Arrays.hashCode(this.indexes);
 	}
 
 	public boolean equals(Object other) {
@@ -101,7 +85,7 @@ class TypeKey {
 			return false;
 		TypeKey otherKey = (TypeKey) other;
 
-		return Arrays.equals(this.bytes, otherKey.bytes);
+		return Arrays.equals(this.indexes, otherKey.indexes);
 	}
 
 	public int hashCode() {
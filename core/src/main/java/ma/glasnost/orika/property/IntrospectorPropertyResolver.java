@@ -117,6 +117,26 @@ public class IntrospectorPropertyResolver extends PropertyResolver {
             }
         } catch (IntrospectionException e) {
             throw new MappingException(e);
+        } finally {
+            flushFromIntrospectorCache(type);
+        }
+    }
+    
+    /**
+     * Removes the BeanInfo of the specified type and its superclasses from
+     * the Introspector's cache.<br>
+     * The Introspector caches BeanInfo (which references the class) in a map
+     * weakly keyed by the class, so a cached class is never unloaded, nor is
+     * its class-loader; the properties are cached by this resolver instead.
+     * Classes of the bootstrap class-loader are never unloaded, so their
+     * BeanInfo is left cached for other users of the Introspector.
+     * 
+     * @param type
+     *            the introspected type
+     */
+    private static void flushFromIntrospectorCache(Class<?> type) {
+        for (Class<?> introspected = type; introspected != null && introspected.getClassLoader() != null; introspected = introspected.getSuperclass()) {
+            Introspector.flushFromCaches(introspected);
         }
     }
 
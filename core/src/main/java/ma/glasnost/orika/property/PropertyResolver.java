@@ -37,13 +37,13 @@ import java.lang.reflect.TypeVariable;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -71,8 +71,13 @@ public abstract class PropertyResolver implements PropertyResolverStrategy {
     
     private final boolean includePublicFields;
     
-    private final Map<java.lang.reflect.Type, Map<String, Property>> propertiesCache = new ConcurrentHashMap<>();
-    private final Map<java.lang.reflect.Type, Map<String, Property>> inlinePropertiesCache = new ConcurrentHashMap<>();
+    /*
+     * The properties (and in-line properties) of each type, held by its raw
+     * class, so that they do not keep the class (or its class-loader)
+     * reachable
+     */
+    private final ClassValue<ConcurrentMap<java.lang.reflect.Type, Map<String, Property>>> propertiesCache = new TypeCache();
+    private final ClassValue<ConcurrentMap<java.lang.reflect.Type, Map<String, Property>>> inlinePropertiesCache = new TypeCache();
     
     private final ConstructorParameterResolver constructorParamResolver = 
             new ConstructorParameterResolver();
@@ -96,60 +101,80 @@ public abstract class PropertyResolver implements PropertyResolverStrategy {
      */
     public Map<String, Property> getProperties(java.lang.reflect.Type theType) {
         
-        Map<String, Property> properties = propertiesCache.get(theType);
+        ConcurrentMap<java.lang.reflect.Type, Map<String, Property>> cache = propertiesCache.get(getRawType(theType));
+        Map<String, Property> properties = cache.get(theType);
         if (properties == null) {
-            synchronized (theType) {
-                properties = propertiesCache.get(theType);
-                if (properties == null) {
-                    
-                    properties = new LinkedHashMap<>();
-                    Type<?> referenceType;
-                    
-                    if (theType instanceof Type) {
-                        referenceType = (Type<?>) theType;
-                    } else if (theType instanceof Class) {
-                        referenceType = TypeFactory.valueOf((Class<?>) theType);
-                    } else {
-                        throw new IllegalArgumentException("type " + theType + " not supported.");
-                    }
-                    
-                    /*
-                     * We process the properties for a type by starting with the
-                     * type itself, and then continue by processing the classes
-                     * and interfaces in the type's hierarchy. Property
-                     * definitions from an ancestor should not override those
-                     * already defined.
-                     */
-                    LinkedList<Class<?>> types = new LinkedList<>();
-                    types.addFirst(referenceType.getRawType());
-                    while (!types.isEmpty()) {
-                        Class<?> type = types.removeFirst();
-                        
-                        collectProperties(type, referenceType, properties);
-                        
-                        if (type.getSuperclass() != null && !Object.class.equals(type.getSuperclass())) {
-                            types.add(type.getSuperclass());
-                        }
-                        
-                        List<? extends Class<?>> interfaces = Arrays.asList(type.getInterfaces());
-                        types.addAll(interfaces);
-                    }
-                    
-                    if (includePublicFields) {
-                        /*
-                         * Call this outside of the loop because the fields
-                         * returned are already inclusive of ancestors.
-                         */
-                        collectPublicFieldProperties(referenceType, properties);
-                    }
-                    
-                    propertiesCache.put(theType, Collections.unmodifiableMap(properties));
-                }
+            /*
+             * Properties resolved concurrently for the same type are
+             * equivalent; the first to be cached is kept
+             */
+            properties = Collections.unmodifiableMap(resolveProperties(theType));
+            Map<String, Property> cachedProperties = cache.putIfAbsent(theType, properties);
+            if (cachedProperties != null) {
+                properties = cachedProperties;
             }
         }
         return properties;
     }
     
+    /**
+     * @param theType
+     *            a Class or Type
+     * @return the raw class of the type, under which its properties are cached
+     */
+    private static Class<?> getRawType(java.lang.reflect.Type theType) {
+        if (theType instanceof Type) {
+            return ((Type<?>) theType).getRawType();
+        } else if (theType instanceof Class) {
+            return (Class<?>) theType;
+        } else {
+            throw new IllegalArgumentException("type " + theType + " not supported.");
+        }
+    }
+    
+    private Map<String, Property> resolveProperties(java.lang.reflect.Type theType) {
+        Map<String, Property> properties = new LinkedHashMap<>();
+        Type<?> referenceType;
+        
+        if (theType instanceof Type) {
+            referenceType = (Type<?>) theType;
+        } else {
+            referenceType = TypeFactory.valueOf((Class<?>) theType);
+        }
+        
+        /*
+         * We process the properties for a type by starting with the
+         * type itself, and then continue by processing the classes
+         * and interfaces in the type's hierarchy. Property
+         * definitions from an ancestor should not override those
+         * already defined.
+         */
+        LinkedList<Class<?>> types = new LinkedList<>();
+        types.addFirst(referenceType.getRawType());
+        while (!types.isEmpty()) {
+            Class<?> type = types.removeFirst();
+            
+            collectProperties(type, referenceType, properties);
+            
+            if (type.getSuperclass() != null && !Object.class.equals(type.getSuperclass())) {
+                types.add(type.getSuperclass());
+            }
+            
+            List<? extends Class<?>> interfaces = Arrays.asList(type.getInterfaces());
+            types.addAll(interfaces);
+        }
+        
+        if (includePublicFields) {
+            /*
+             * Call this outside of the loop because the fields
+             * returned are already inclusive of ancestors.
+             */
+            collectPublicFieldProperties(referenceType, properties);
+        }
+        
+        return properties;
+    }
+    
     /**
      * Attempt to resolve the generic type, using refereceType to resolve
      * TypeVariables
@@ -685,7 +710,8 @@ public abstract class PropertyResolver implements PropertyResolverStrategy {
             // ClassMapBuilder instance, rather than made available for other
             // mappings
             // of the class; can this cause problems?
-            Map<String, Property> inlinePoperties = inlinePropertiesCache.get(type);
+            ConcurrentMap<java.lang.reflect.Type, Map<String, Property>> inlineCache = inlinePropertiesCache.get(getRawType(type));
+            Map<String, Property> inlinePoperties = inlineCache.get(type);
             if (inlinePoperties != null) {
                 property = inlinePoperties.get(expr);
             }
@@ -695,13 +721,14 @@ public abstract class PropertyResolver implements PropertyResolverStrategy {
                     property = properties.get(expr);
                 } else if (isInlinePropertyExpression(expr)) {
                     property = resolveInlineProperty(type, expr);
-                    synchronized (type) {
-                        if (inlinePoperties == null) {
-                            inlinePoperties = new HashMap<>(1);
-                            inlinePropertiesCache.put(type, inlinePoperties);
+                    if (inlinePoperties == null) {
+                        inlinePoperties = new ConcurrentHashMap<>(1);
+                        Map<String, Property> cachedInlineProperties = inlineCache.putIfAbsent(type, inlinePoperties);
+                        if (cachedInlineProperties != null) {
+                            inlinePoperties = cachedInlineProperties;
                         }
-                        inlinePoperties.put(property.getName(), property);
                     }
+                    inlinePoperties.put(property.getName(), property);
                 } else {
                     property = resolveConstructorProperty(type, expr);
                     if (property == null) {
@@ -795,4 +822,14 @@ public abstract class PropertyResolver implements PropertyResolverStrategy {
      */
     protected abstract void collectProperties(Class<?> type, Type<?> referenceType, Map<String, Property> properties);
     
+    /**
+     * TypeCache holds a map for each raw class, keyed by the types (and the
+     * class itself) of which it is the raw type
+     */
+    private static final class TypeCache extends ClassValue<ConcurrentMap<java.lang.reflect.Type, Map<String, Property>>> {
+        @Override
+        protected ConcurrentMap<java.lang.reflect.Type, Map<String, Property>> computeValue(Class<?> rawType) {
+            return new ConcurrentHashMap<>();
+        }
+    }
 }
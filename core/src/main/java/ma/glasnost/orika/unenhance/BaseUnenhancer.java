@@ -18,8 +18,10 @@
 
 package ma.glasnost.orika.unenhance;
 
-import java.util.LinkedList;
+import java.util.List;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import ma.glasnost.orika.inheritance.SuperTypeResolver;
 import ma.glasnost.orika.inheritance.SuperTypeResolverStrategy;
@@ -28,6 +30,13 @@ import ma.glasnost.orika.metadata.Type;
 /**
  * Provides a delegating unenhance strategy which also post-processes the
  * unenhancement results using the associated super-type strategies.<br>
+ * <br>
+ * 
+ * The super-type resolved for each type depends only on the type, and is
+ * therefore resolved once; the cache is discarded whenever a super-type
+ * strategy is added. The delegate unenhance strategies are still consulted
+ * for each object, since they may depend on the object itself (such as the
+ * implementation of a proxy).
  * 
  * See also: {@link #SuperTypeResolverStrategy}
  * 
@@ -35,12 +44,16 @@ import ma.glasnost.orika.metadata.Type;
  */
 public class BaseUnenhancer implements UnenhanceStrategy {
     
-    private final ConcurrentHashMap<Type<?>, Type<?>> mappedSuperTypes;
-    private final LinkedList<UnenhanceStrategy> unenhanceStrategyChain = new LinkedList<UnenhanceStrategy>();
-    private final LinkedList<SuperTypeResolverStrategy> supertypeStrategyChain = new LinkedList<SuperTypeResolverStrategy>();
+    private final List<UnenhanceStrategy> unenhanceStrategyChain = new CopyOnWriteArrayList<UnenhanceStrategy>();
+    private final List<SuperTypeResolverStrategy> supertypeStrategyChain = new CopyOnWriteArrayList<SuperTypeResolverStrategy>();
+    
+    /**
+     * The super-type (or the type itself, if none applies) to which each type
+     * is resolved, held by its raw class
+     */
+    private volatile ClassValue<ConcurrentMap<Type<?>, Type<?>>> mappedSuperTypes = new SuperTypeCache();
     
     public BaseUnenhancer() {
-        this.mappedSuperTypes = new ConcurrentHashMap<Type<?>, Type<?>>();
     }
     
     public synchronized void addUnenhanceStrategy(final UnenhanceStrategy strategy) {
@@ -49,6 +62,7 @@ public class BaseUnenhancer implements UnenhanceStrategy {
     
     public synchronized void addSuperTypeResolverStrategy(final SuperTypeResolverStrategy strategy) {
         supertypeStrategyChain.add(strategy);
+        mappedSuperTypes = new SuperTypeCache();
     }
     
     @SuppressWarnings("unchecked")
@@ -65,21 +79,30 @@ public class BaseUnenhancer implements UnenhanceStrategy {
             }
         }
         
+        ConcurrentMap<Type<?>, Type<?>> superTypes = mappedSuperTypes.get(unenhancedClass.getRawType());
+        Type<?> superType = superTypes.get(unenhancedClass);
+        if (superType == null) {
+            superType = resolveSuperType(unenhancedClass);
+            Type<?> superTypePutResult = superTypes.putIfAbsent(unenhancedClass, superType);
+            if (superTypePutResult != null) {
+                superType = superTypePutResult;
+            }
+        }
+        return (Type<T>) superType;
+    }
+    
+    /**
+     * @return the super-type of the first super-type strategy which produces
+     *         one different than the type, or else the type itself
+     */
+    private Type<?> resolveSuperType(Type<?> type) {
         for (SuperTypeResolverStrategy strategy : supertypeStrategyChain) {
-            Type<?> superType = SuperTypeResolver.getSuperType(unenhancedClass, strategy);
-            if (superType != null && !unenhancedClass.equals(superType)) {
-                Type<?> superTypePutResult = mappedSuperTypes.putIfAbsent(unenhancedClass, superType);
-                // Accept the first delegate strategy result which produces
-                // a super-type different than the object's getClass method
-                if (superTypePutResult != null) {
-                    superType = superTypePutResult;
-                }
-                unenhancedClass = (Type<T>) superType;
-                break;
+            Type<?> superType = SuperTypeResolver.getSuperType(type, strategy);
+            if (superType != null && !type.equals(superType)) {
+                return superType;
             }
         }
-        
-        return unenhancedClass;
+        return type;
     }
     
     @SuppressWarnings("unchecked")
@@ -94,4 +117,15 @@ public class BaseUnenhancer implements UnenhanceStrategy {
         }
         return object;
     }
+    
+    /**
+     * SuperTypeCache holds a map for each raw class, keyed by the types of
+     * which it is the raw type
+     */
+    private static final class SuperTypeCache extends ClassValue<ConcurrentMap<Type<?>, Type<?>>> {
+        @Override
+        protected ConcurrentMap<Type<?>, Type<?>> computeValue(Class<?> rawType) {
+            return new ConcurrentHashMap<Type<?>, Type<?>>();
+        }
+    }
 }
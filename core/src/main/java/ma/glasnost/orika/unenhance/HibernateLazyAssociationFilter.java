@@ -0,0 +1,191 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.unenhance;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Modifier;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.NullFilter;
+import ma.glasnost.orika.metadata.Property;
+import ma.glasnost.orika.metadata.Type;
+
+/**
+ * HibernateLazyAssociationFilter keeps generated mappers from initializing
+ * lazy associations: a property whose value is an uninitialized Hibernate
+ * proxy or persistent collection is not mapped, according to the
+ * {@link LazyAssociationPolicy}, so that mapping an entity graph loads nothing
+ * which was not already loaded.<br>
+ * <br>
+ * 
+ * The Hibernate methods used to detect uninitialized values are resolved once,
+ * and then once per class of value; other values are only looked up by class.
+ * Register the filter before mapping anything, with
+ * {@link ma.glasnost.orika.MapperFactory#registerFilter(ma.glasnost.orika.Filter)}.
+ * Objects passed to the mapper directly (rather than as property values) are
+ * not filtered.
+ */
+public class HibernateLazyAssociationFilter extends NullFilter<Object, Object> {
+    
+    private static final String HIBERNATE_PROXY_CLASS = "org.hibernate.proxy.HibernateProxy";
+    private static final String HIBERNATE_PROXY__GET_LAZY_INITIALIZER = "getHibernateLazyInitializer";
+    private static final String LAZY_INITIALIZER_CLASS = "org.hibernate.proxy.LazyInitializer";
+    private static final String LAZY_INITIALIZER__IS_UNINITIALIZED = "isUninitialized";
+    private static final String PERSISTENT_COLLECTION_CLASS = "org.hibernate.collection.spi.PersistentCollection";
+    private static final String PERSISTENT_COLLECTION__WAS_INITIALIZED = "wasInitialized";
+    
+    /**
+     * LazyAssociationPolicy defines how a property whose value has not been
+     * loaded is mapped
+     */
+    public enum LazyAssociationPolicy {
+        /**
+         * The property is not mapped; the destination keeps its value
+         */
+        SKIP,
+        /**
+         * The property is mapped as if it were null (and so, like any null
+         * value, only if nulls are mapped for it)
+         */
+        NULL
+    }
+    
+    private final LazyAssociationPolicy policy;
+    private final Class<?> hibernateProxy;
+    private final Class<?> persistentCollection;
+    private final MethodHandle proxyIsUninitialized;
+    private final MethodHandle collectionIsUninitialized;
+    
+    /**
+     * The test for whether a value of each class is uninitialized, or null for
+     * classes which are never lazily loaded
+     */
+    private final ClassValue<MethodHandle> uninitializedTests = new ClassValue<MethodHandle>() {
+        @Override
+        protected MethodHandle computeValue(Class<?> type) {
+            if (hibernateProxy.isAssignableFrom(type)) {
+                return proxyIsUninitialized;
+            } else if (persistentCollection.isAssignableFrom(type)) {
+                return collectionIsUninitialized;
+            } else {
+                return null;
+            }
+        }
+    };
+    
+    /**
+     * Constructs a filter which skips the mapping of uninitialized properties
+     */
+    public HibernateLazyAssociationFilter() {
+        this(LazyAssociationPolicy.SKIP);
+    }
+    
+    /**
+     * @param policy
+     *            how uninitialized properties should be mapped
+     */
+    public HibernateLazyAssociationFilter(LazyAssociationPolicy policy) {
+        this.policy = policy;
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            hibernateProxy = Class.forName(HIBERNATE_PROXY_CLASS, false, classLoader);
+            Class<?> lazyInitializer = Class.forName(LAZY_INITIALIZER_CLASS, false, classLoader);
+            persistentCollection = Class.forName(PERSISTENT_COLLECTION_CLASS, false, classLoader);
+            
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodType isUninitialized = MethodType.methodType(boolean.class, Object.class);
+            proxyIsUninitialized = MethodHandles.filterReturnValue(
+                    lookup.findVirtual(hibernateProxy, HIBERNATE_PROXY__GET_LAZY_INITIALIZER, MethodType.methodType(lazyInitializer)),
+                    lookup.findVirtual(lazyInitializer, LAZY_INITIALIZER__IS_UNINITIALIZED, MethodType.methodType(boolean.class)))
+                    .asType(isUninitialized);
+            collectionIsUninitialized = MethodHandles.filterReturnValue(
+                    lookup.findVirtual(persistentCollection, PERSISTENT_COLLECTION__WAS_INITIALIZED, MethodType.methodType(boolean.class)),
+                    MethodHandles.lookup().findStatic(HibernateLazyAssociationFilter.class, "not",
+                            MethodType.methodType(boolean.class, boolean.class)))
+                    .asType(isUninitialized);
+        } catch (ClassNotFoundException | NoSuchMethodException | IllegalAccessException e) {
+            throw new IllegalStateException("One of " + HIBERNATE_PROXY_CLASS + "#" + HIBERNATE_PROXY__GET_LAZY_INITIALIZER + "(), "
+                    + LAZY_INITIALIZER_CLASS + "#" + LAZY_INITIALIZER__IS_UNINITIALIZED + "(), or " + PERSISTENT_COLLECTION_CLASS + "#"
+                    + PERSISTENT_COLLECTION__WAS_INITIALIZED + "() required by " + getClass().getCanonicalName()
+                    + " is not accessible", e);
+        }
+    }
+    
+    private static boolean not(boolean value) {
+        return !value;
+    }
+    
+    /**
+     * @param value
+     *            a property value
+     * @return true if the value is a Hibernate proxy or persistent collection
+     *         which has not been loaded
+     */
+    public boolean isUninitialized(Object value) {
+        if (value == null) {
+            return false;
+        }
+        MethodHandle test = uninitializedTests.get(value.getClass());
+        if (test == null) {
+            return false;
+        }
+        try {
+            return (boolean) test.invokeExact(value);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    /**
+     * Applies to properties whose values may be lazily loaded: those of any
+     * type which Hibernate can proxy or replace with a persistent collection,
+     * that is of any non-final type.
+     */
+    @Override
+    public boolean appliesTo(Property source, Property destination) {
+        return super.appliesTo(source, destination) && !source.getType().isPrimitive()
+                && !Modifier.isFinal(source.getRawType().getModifiers());
+    }
+    
+    @Override
+    public boolean filtersSource() {
+        return policy == LazyAssociationPolicy.NULL;
+    }
+    
+    @Override
+    public <S, D> boolean shouldMap(Type<S> sourceType, String sourceName, S source, Type<D> destType, String destName, D dest,
+            MappingContext mappingContext) {
+        return policy != LazyAssociationPolicy.SKIP || !isUninitialized(source);
+    }
+    
+    @Override
+    public <S> S filterSource(S sourceValue, Type<S> sourceType, String sourceName, Type<?> destType, String destName,
+            MappingContext mappingContext) {
+        return isUninitialized(sourceValue) ? null : sourceValue;
+    }
+    
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + "(" + policy + ")";
+    }
+}
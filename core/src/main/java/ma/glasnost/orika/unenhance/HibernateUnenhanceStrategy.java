@@ -85,6 +85,13 @@ public class HibernateUnenhanceStrategy implements UnenhanceStrategy {
     @SuppressWarnings("unchecked")
     public <T> Type<T> unenhanceType(T object, Type<T> type) {
         
+        if (object == null) {
+            /*
+             * Only the type is known (the strategy is resolved ahead of the
+             * first mapping); there is no proxy to look through
+             */
+            return null;
+        }
         try {
             return TypeFactory.resolveValueOf((Class<T>) getHibernateClass.invoke(null, object), type);
         } catch (IllegalAccessException | InvocationTargetException | IllegalArgumentException e) {
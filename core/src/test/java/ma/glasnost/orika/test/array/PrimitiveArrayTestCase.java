@@ -0,0 +1,232 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.array;
+
+import ma.glasnost.orika.CustomConverter;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.test.MappingUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Verifies the mapping of primitive arrays, and of collections to and from
+ * them, without boxing the elements
+ */
+public class PrimitiveArrayTestCase {
+
+    @Test
+    public void identicalPrimitiveArraysAreCopied() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+
+        Samples source = new Samples();
+        source.setValues(new double[] { 1.5, 2.5, 3.5 });
+
+        SameSamples result = mapper.map(source, SameSamples.class);
+
+        Assert.assertNotSame(source.getValues(), result.getValues());
+        Assert.assertArrayEquals(source.getValues(), result.getValues(), 0d);
+    }
+
+    @Test
+    public void primitiveArraysAreWidened() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+
+        Counters source = new Counters();
+        source.setCounts(new int[] { 1, Integer.MAX_VALUE, -3 });
+        source.setFlags(new char[] { 'a', 'z' });
+
+        WideCounters result = mapper.map(source, WideCounters.class);
+
+        Assert.assertArrayEquals(new long[] { 1L, Integer.MAX_VALUE, -3L }, result.getCounts());
+        Assert.assertArrayEquals(new int[] { 'a', 'z' }, result.getFlags());
+    }
+
+    @Test
+    public void collectionsOfWrappersAreUnboxedIntoPrimitiveArrays() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+
+        BoxedSamples source = new BoxedSamples();
+        source.setValues(Arrays.asList(1.5, 2.5));
+        source.setCounts(new LinkedHashSet<>(Arrays.asList(7, 8, 9)));
+
+        Samples result = mapper.map(source, Samples.class);
+
+        Assert.assertArrayEquals(new double[] { 1.5, 2.5 }, result.getValues(), 0d);
+        Assert.assertArrayEquals(new long[] { 7L, 8L, 9L }, result.getCounts());
+    }
+
+    @Test
+    public void primitiveArraysAreBoxedIntoCollections() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+
+        Samples source = new Samples();
+        source.setValues(new double[] { 1.5, 2.5 });
+
+        BoxedSamples result = mapper.map(source, BoxedSamples.class);
+
+        Assert.assertEquals(Arrays.asList(1.5, 2.5), result.getValues());
+    }
+
+    @Test
+    public void intArraysAreWidenedIntoLongCollections() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+
+        Counters source = new Counters();
+        source.setCounts(new int[] { 1, 2 });
+
+        LongCounters result = mapper.map(source, LongCounters.class);
+
+        Assert.assertEquals(Arrays.asList(1L, 2L), new ArrayList<>(result.getCounts()));
+    }
+
+    @Test
+    public void registeredConverterTakesPrecedenceOverWidening() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.getConverterFactory().registerConverter(new CustomConverter<Integer, Long>() {
+            public Long convert(Integer source, Type<? extends Long> destinationType, MappingContext context) {
+                return source * 10L;
+            }
+        });
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Counters source = new Counters();
+        source.setCounts(new int[] { 1, 2 });
+
+        WideCounters result = mapper.map(source, WideCounters.class);
+
+        Assert.assertArrayEquals(new long[] { 10L, 20L }, result.getCounts());
+    }
+
+    public static class Samples {
+        private double[] values;
+        private long[] counts;
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public void setValues(double[] values) {
+            this.values = values;
+        }
+
+        public long[] getCounts() {
+            return counts;
+        }
+
+        public void setCounts(long[] counts) {
+            this.counts = counts;
+        }
+    }
+
+    public static class SameSamples {
+        private double[] values;
+
+        public double[] getValues() {
+            return values;
+        }
+
+        public void setValues(double[] values) {
+            this.values = values;
+        }
+    }
+
+    public static class BoxedSamples {
+        private List<Double> values;
+        private Set<Integer> counts;
+
+        public List<Double> getValues() {
+            return values;
+        }
+
+        public void setValues(List<Double> values) {
+            this.values = values;
+        }
+
+        public Set<Integer> getCounts() {
+            return counts;
+        }
+
+        public void setCounts(Set<Integer> counts) {
+            this.counts = counts;
+        }
+    }
+
+    public static class Counters {
+        private int[] counts;
+        private char[] flags;
+
+        public int[] getCounts() {
+            return counts;
+        }
+
+        public void setCounts(int[] counts) {
+            this.counts = counts;
+        }
+
+        public char[] getFlags() {
+            return flags;
+        }
+
+        public void setFlags(char[] flags) {
+            this.flags = flags;
+        }
+    }
+
+    public static class WideCounters {
+        private long[] counts;
+        private int[] flags;
+
+        public long[] getCounts() {
+            return counts;
+        }
+
+        public void setCounts(long[] counts) {
+            this.counts = counts;
+        }
+
+        public int[] getFlags() {
+            return flags;
+        }
+
+        public void setFlags(int[] flags) {
+            this.flags = flags;
+        }
+    }
+
+    public static class LongCounters {
+        private Set<Long> counts;
+
+        public Set<Long> getCounts() {
+            return counts;
+        }
+
+        public void setCounts(Set<Long> counts) {
+            this.counts = counts;
+        }
+    }
+}
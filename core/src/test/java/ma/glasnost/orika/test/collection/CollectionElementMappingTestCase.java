@@ -0,0 +1,306 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.collection;
+
+import ma.glasnost.orika.CustomConverter;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.test.MappingUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies the element mapping loops generated for collection properties
+ */
+public class CollectionElementMappingTestCase {
+
+    @Test
+    public void finalElementsAreMappedAndNullsSkipped() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+
+        Order source = new Order();
+        source.setLines(Arrays.asList(new Line("a", 1), null, new Line("b", 2)));
+
+        OrderDto result = mapper.map(source, OrderDto.class);
+
+        Assert.assertEquals(2, result.getLines().size());
+        Assert.assertEquals("a", result.getLines().get(0).getSku());
+        Assert.assertEquals(1, result.getLines().get(0).getQuantity());
+        Assert.assertEquals("b", result.getLines().get(1).getSku());
+        Assert.assertEquals(2, result.getLines().get(1).getQuantity());
+    }
+
+    @Test
+    public void repeatedElementsAreMappedOnce() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+
+        Line line = new Line("a", 1);
+        Order source = new Order();
+        source.setLines(Arrays.asList(line, line));
+
+        OrderDto result = mapper.map(source, OrderDto.class);
+
+        Assert.assertEquals(2, result.getLines().size());
+        Assert.assertSame(result.getLines().get(0), result.getLines().get(1));
+    }
+
+    @Test
+    public void finalElementsAreConvertedByTheRegisteredConverter() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        AmountConverter converter = new AmountConverter();
+        factory.getConverterFactory().registerConverter(converter);
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Order source = new Order();
+        source.setAmounts(new Amount[] { new Amount(5), null, new Amount(7) });
+
+        OrderDto result = mapper.map(source, OrderDto.class);
+
+        Assert.assertEquals(Arrays.asList("5", "7"), new ArrayList<>(result.getAmounts()));
+        Assert.assertEquals(2, converter.conversions.get());
+    }
+
+    @Test
+    public void polymorphicElementsAreMappedByTheirOwnClass() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.classMap(Shape.class, ShapeDto.class).byDefault().register();
+        factory.classMap(Circle.class, CircleDto.class).use(Shape.class, ShapeDto.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Drawing source = new Drawing();
+        source.setShapes(Arrays.asList(new Shape("square"), new Circle("circle", 3), new Shape("triangle")));
+
+        DrawingDto result = mapper.map(source, DrawingDto.class);
+
+        Assert.assertEquals(3, result.getShapes().size());
+        Assert.assertEquals(ShapeDto.class, result.getShapes().get(0).getClass());
+        Assert.assertEquals(CircleDto.class, result.getShapes().get(1).getClass());
+        Assert.assertEquals(3, ((CircleDto) result.getShapes().get(1)).getRadius());
+        Assert.assertEquals("triangle", result.getShapes().get(2).getName());
+    }
+
+    public static class AmountConverter extends CustomConverter<Amount, String> {
+
+        private final AtomicInteger conversions = new AtomicInteger();
+
+        public String convert(Amount source, Type<? extends String> destinationType, MappingContext context) {
+            conversions.incrementAndGet();
+            return String.valueOf(source.getValue());
+        }
+    }
+
+    public static final class Amount {
+        private final int value;
+
+        public Amount(int value) {
+            this.value = value;
+        }
+
+        public int getValue() {
+            return value;
+        }
+    }
+
+    public static final class Line {
+        private String sku;
+        private int quantity;
+
+        public Line() {
+        }
+
+        public Line(String sku, int quantity) {
+            this.sku = sku;
+            this.quantity = quantity;
+        }
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    public static final class LineDto {
+        private String sku;
+        private int quantity;
+
+        public String getSku() {
+            return sku;
+        }
+
+        public void setSku(String sku) {
+            this.sku = sku;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+    }
+
+    public static class Order {
+        private List<Line> lines;
+        private Amount[] amounts;
+
+        public List<Line> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<Line> lines) {
+            this.lines = lines;
+        }
+
+        public Amount[] getAmounts() {
+            return amounts;
+        }
+
+        public void setAmounts(Amount[] amounts) {
+            this.amounts = amounts;
+        }
+    }
+
+    public static class OrderDto {
+        private List<LineDto> lines;
+        private Set<String> amounts;
+
+        public List<LineDto> getLines() {
+            return lines;
+        }
+
+        public void setLines(List<LineDto> lines) {
+            this.lines = lines;
+        }
+
+        public Set<String> getAmounts() {
+            return amounts;
+        }
+
+        public void setAmounts(Set<String> amounts) {
+            this.amounts = amounts;
+        }
+    }
+
+    public static class Shape {
+        private String name;
+
+        public Shape() {
+        }
+
+        public Shape(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Circle extends Shape {
+        private int radius;
+
+        public Circle() {
+        }
+
+        public Circle(String name, int radius) {
+            super(name);
+            this.radius = radius;
+        }
+
+        public int getRadius() {
+            return radius;
+        }
+
+        public void setRadius(int radius) {
+            this.radius = radius;
+        }
+    }
+
+    public static class ShapeDto {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class CircleDto extends ShapeDto {
+        private int radius;
+
+        public int getRadius() {
+            return radius;
+        }
+
+        public void setRadius(int radius) {
+            this.radius = radius;
+        }
+    }
+
+    public static class Drawing {
+        private List<Shape> shapes;
+
+        public List<Shape> getShapes() {
+            return shapes;
+        }
+
+        public void setShapes(List<Shape> shapes) {
+            this.shapes = shapes;
+        }
+    }
+
+    public static class DrawingDto {
+        private List<ShapeDto> shapes;
+
+        public List<ShapeDto> getShapes() {
+            return shapes;
+        }
+
+        public void setShapes(List<ShapeDto> shapes) {
+            this.shapes = shapes;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.collection;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultCollectionFactory;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeBuilder;
+import ma.glasnost.orika.test.MappingUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.AbstractMap.SimpleEntry;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.SortedMap;
+import java.util.SortedSet;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * Verifies that destination collections and maps are created by the
+ * registered CollectionFactory
+ */
+public class CollectionFactoryTestCase {
+
+    @Test
+    public void registeredFactoryCreatesGeneratedDestinations() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        LinkedListFactory collectionFactory = new LinkedListFactory();
+        factory.registerCollectionFactory(collectionFactory);
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Catalog source = new Catalog();
+        source.setNames(Arrays.asList("a", "b", "c"));
+
+        CatalogDto result = mapper.map(source, CatalogDto.class);
+
+        Assert.assertEquals(LinkedList.class, result.getNames().getClass());
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), result.getNames());
+        Assert.assertEquals(3, collectionFactory.lastExpectedSize);
+    }
+
+    @Test
+    public void registeredFactoryCreatesMappedLists() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        LinkedListFactory collectionFactory = new LinkedListFactory();
+        factory.registerCollectionFactory(collectionFactory);
+        MapperFacade mapper = factory.getMapperFacade();
+
+        List<String> result = mapper.mapAsList(new LinkedHashSet<>(Arrays.asList(1, 2)), String.class);
+
+        Assert.assertEquals(LinkedList.class, result.getClass());
+        Assert.assertEquals(Arrays.asList("1", "2"), result);
+        Assert.assertEquals(2, collectionFactory.lastExpectedSize);
+    }
+
+    @Test
+    public void factoryRegisteredAfterGenerationIsUsed() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Catalog source = new Catalog();
+        source.setNames(Arrays.asList("a"));
+        Assert.assertNotEquals(LinkedList.class, mapper.map(source, CatalogDto.class).getNames().getClass());
+
+        factory.registerCollectionFactory(new LinkedListFactory());
+
+        Assert.assertEquals(LinkedList.class, mapper.map(source, CatalogDto.class).getNames().getClass());
+    }
+
+    @Test
+    public void sortedDestinationsAreCreatedSorted() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+
+        Catalog source = new Catalog();
+        source.setNames(Arrays.asList("c", "a", "b"));
+        Map<String, Integer> prices = new LinkedHashMap<>();
+        prices.put("y", 2);
+        prices.put("x", 1);
+        source.setPrices(prices);
+
+        SortedCatalogDto result = mapper.map(source, SortedCatalogDto.class);
+
+        Assert.assertEquals(TreeSet.class, result.getNames().getClass());
+        Assert.assertEquals(Arrays.asList("a", "b", "c"), Arrays.asList(result.getNames().toArray()));
+        Assert.assertEquals(TreeMap.class, result.getPrices().getClass());
+        Assert.assertEquals("x", result.getPrices().firstKey());
+    }
+
+    @Test
+    public void mappedMapsAreCreatedForTheDestinationType() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+        Map<String, Integer> source = new LinkedHashMap<>();
+        source.put("y", 2);
+        source.put("x", 1);
+        Type<Map<String, Integer>> sourceType = new TypeBuilder<Map<String, Integer>>() {}.build();
+        Type<SortedMap<String, Long>> destinationType = new TypeBuilder<SortedMap<String, Long>>() {}.build();
+
+        Map<String, Long> result = mapper.mapAsMap(source, sourceType, destinationType);
+
+        Assert.assertEquals(TreeMap.class, result.getClass());
+        Assert.assertEquals(Long.valueOf(1L), result.get("x"));
+    }
+
+    @Test
+    public void mappedSetsAndMapsOfElementsAreHashBased() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+        Type<Map<String, Integer>> destinationType = new TypeBuilder<Map<String, Integer>>() {}.build();
+        Type<Entry<String, Integer>> entryType = new TypeBuilder<Entry<String, Integer>>() {}.build();
+        Entry<String, Integer> entry = new SimpleEntry<>("x", 1);
+
+        Assert.assertEquals(HashSet.class, mapper.mapAsSet(Arrays.asList(1, 2), String.class).getClass());
+        Assert.assertEquals(HashSet.class, mapper.mapAsSet(new Integer[] { 1, 2 }, String.class).getClass());
+        Assert.assertEquals(HashMap.class, mapper.mapAsMap(Arrays.asList(entry), entryType, destinationType).getClass());
+        Assert.assertEquals(HashMap.class, mapper.mapAsMap(new Entry[] { entry }, entryType, destinationType).getClass());
+    }
+
+    /**
+     * Creates every List as a LinkedList, recording the expected size it was
+     * given
+     */
+    public static class LinkedListFactory extends DefaultCollectionFactory {
+
+        private volatile int lastExpectedSize = -1;
+
+        @Override
+        public <E> Collection<E> newCollection(Type<?> collectionType, int expectedSize) {
+            if (List.class.equals(collectionType.getRawType())) {
+                lastExpectedSize = expectedSize;
+                return new LinkedList<>();
+            }
+            return super.newCollection(collectionType, expectedSize);
+        }
+    }
+
+    public static class Catalog {
+        private List<String> names;
+        private Map<String, Integer> prices;
+
+        public List<String> getNames() {
+            return names;
+        }
+
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+
+        public Map<String, Integer> getPrices() {
+            return prices;
+        }
+
+        public void setPrices(Map<String, Integer> prices) {
+            this.prices = prices;
+        }
+    }
+
+    public static class CatalogDto {
+        private List<String> names;
+
+        public List<String> getNames() {
+            return names;
+        }
+
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+    }
+
+    public static class SortedCatalogDto {
+        private SortedSet<String> names;
+        private SortedMap<String, Integer> prices;
+
+        public SortedSet<String> getNames() {
+            return names;
+        }
+
+        public void setNames(SortedSet<String> names) {
+            this.names = names;
+        }
+
+        public SortedMap<String, Integer> getPrices() {
+            return prices;
+        }
+
+        public void setPrices(SortedMap<String, Integer> prices) {
+            this.prices = prices;
+        }
+    }
+}
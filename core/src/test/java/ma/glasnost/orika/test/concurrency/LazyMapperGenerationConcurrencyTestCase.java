@@ -0,0 +1,279 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.concurrency;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies that mappers generated on demand for distinct types are generated
+ * concurrently, and that a mapper requested by several threads at once is
+ * generated only once.
+ */
+public class LazyMapperGenerationConcurrencyTestCase {
+
+    @Test
+    public void testUnrelatedMappersAreGeneratedConcurrently() throws Exception {
+        BlockingCompilerStrategy compilerStrategy = new BlockingCompilerStrategy();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        final MapperFacade mapper = factory.getMapperFacade();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Callable<SlowDestination> mapSlow = new Callable<SlowDestination>() {
+                public SlowDestination call() {
+                    SlowSource source = new SlowSource();
+                    source.setName("slow");
+                    return mapper.map(source, SlowDestination.class);
+                }
+            };
+            Future<SlowDestination> first = executor.submit(mapSlow);
+            Assert.assertTrue(compilerStrategy.blocked.await(10, TimeUnit.SECONDS));
+            Future<SlowDestination> second = executor.submit(mapSlow);
+
+            /*
+             * The generation of the slow mapper is blocked; an unrelated mapper
+             * is generated all the same
+             */
+            FastSource source = new FastSource();
+            source.setName("fast");
+            Assert.assertEquals("fast", mapper.map(source, FastDestination.class).getName());
+            Assert.assertFalse(first.isDone());
+
+            compilerStrategy.release.countDown();
+            Assert.assertEquals("slow", first.get(10, TimeUnit.SECONDS).getName());
+            Assert.assertEquals("slow", second.get(10, TimeUnit.SECONDS).getName());
+            Assert.assertEquals(1, compilerStrategy.slowCompilations.get());
+        } finally {
+            compilerStrategy.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testReverseDirectionAwaitsTheSameGeneration() throws Exception {
+        BlockingCompilerStrategy compilerStrategy = new BlockingCompilerStrategy();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        final MapperFacade mapper = factory.getMapperFacade();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<SlowDestination> forward = executor.submit(new Callable<SlowDestination>() {
+                public SlowDestination call() {
+                    SlowSource source = new SlowSource();
+                    source.setName("forward");
+                    return mapper.map(source, SlowDestination.class);
+                }
+            });
+            Assert.assertTrue(compilerStrategy.blocked.await(10, TimeUnit.SECONDS));
+            Future<SlowSource> reverse = executor.submit(new Callable<SlowSource>() {
+                public SlowSource call() {
+                    SlowDestination source = new SlowDestination();
+                    source.setName("reverse");
+                    return mapper.map(source, SlowSource.class);
+                }
+            });
+
+            compilerStrategy.release.countDown();
+            Assert.assertEquals("forward", forward.get(10, TimeUnit.SECONDS).getName());
+            Assert.assertEquals("reverse", reverse.get(10, TimeUnit.SECONDS).getName());
+            Assert.assertEquals(1, compilerStrategy.slowCompilations.get());
+        } finally {
+            compilerStrategy.release.countDown();
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testMutuallyDependentMappersAreGenerated() throws Exception {
+        final MapperFacade mapper = new DefaultMapperFactory.Builder().build().getMapperFacade();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            Future<?>[] results = new Future<?>[8];
+            for (int i = 0; i < results.length; ++i) {
+                final boolean fromParent = i % 2 == 0;
+                results[i] = executor.submit(new Callable<Object>() {
+                    public Object call() throws Exception {
+                        start.await();
+                        Parent parent = new Parent();
+                        parent.setChild(new Child());
+                        parent.getChild().setParent(parent);
+                        if (fromParent) {
+                            return mapper.map(parent, ParentDto.class).getChild();
+                        } else {
+                            return mapper.map(parent.getChild(), ChildDto.class).getParent();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                Assert.assertNotNull(result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Blocks the compilation (or the definition of the emitted class) of the
+     * mapper for SlowSource until released
+     */
+    private static class BlockingCompilerStrategy extends JavassistCompilerStrategy {
+
+        final CountDownLatch blocked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger slowCompilations = new AtomicInteger();
+
+        @Override
+        public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+            block(sourceCode);
+            return super.compileClass(sourceCode);
+        }
+
+        @Override
+        public Class<?> defineEmittedClass(SourceCodeContext sourceCode, byte[] bytecode) throws SourceCodeGenerationException {
+            block(sourceCode);
+            return super.defineEmittedClass(sourceCode, bytecode);
+        }
+
+        private void block(SourceCodeContext sourceCode) {
+            if (sourceCode.getClassSimpleName().contains(SlowSource.class.getSimpleName())) {
+                slowCompilations.incrementAndGet();
+                blocked.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+
+    public static class SlowSource {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class SlowDestination {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class FastSource {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class FastDestination {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Parent {
+        private Child child;
+
+        public Child getChild() {
+            return child;
+        }
+
+        public void setChild(Child child) {
+            this.child = child;
+        }
+    }
+
+    public static class Child {
+        private Parent parent;
+
+        public Parent getParent() {
+            return parent;
+        }
+
+        public void setParent(Parent parent) {
+            this.parent = parent;
+        }
+    }
+
+    public static class ParentDto {
+        private ChildDto child;
+
+        public ChildDto getChild() {
+            return child;
+        }
+
+        public void setChild(ChildDto child) {
+            this.child = child;
+        }
+    }
+
+    public static class ChildDto {
+        private ParentDto parent;
+
+        public ParentDto getParent() {
+            return parent;
+        }
+
+        public void setParent(ParentDto parent) {
+            this.parent = parent;
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.concurrency;
+
+import ma.glasnost.orika.CustomMapper;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.ObjectFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.test.ConcurrentRule;
+import ma.glasnost.orika.test.ConcurrentRule.Concurrent;
+import ma.glasnost.orika.test.community.Issue176WithSuperClassesTestCase.A;
+import ma.glasnost.orika.test.community.Issue176WithSuperClassesTestCase.B;
+import ma.glasnost.orika.test.community.Issue176WithSuperClassesTestCase.B1;
+import ma.glasnost.orika.test.community.Issue176WithSuperClassesTestCase.B2;
+import org.junit.Rule;
+import org.junit.Test;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.is;
+
+/**
+ * Maps a polymorphic hierarchy (resolved through a MultipleMapperWrapper) from
+ * many threads at once.
+ */
+public class MultipleMapperWrapperConcurrencyTestCase {
+
+    @Rule
+    public ConcurrentRule concurrentRule = new ConcurrentRule();
+
+    private static final MapperFacade MAPPER = buildMapper();
+
+    private static MapperFacade buildMapper() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+
+        factory.registerObjectFactory(new ObjectFactory<B>() {
+            public B create(Object source, MappingContext mappingContext) {
+                return "1".equals(((A) source).type) ? new B1() : new B2();
+            }
+        }, TypeFactory.valueOf(B.class), TypeFactory.valueOf(A.class));
+
+        factory.classMap(A.class, B1.class).field("x", "x1").customize(new CustomMapper<A, B1>() {
+            @Override
+            public void mapBtoA(B1 b, A a, MappingContext context) {
+                a.type = "1";
+            }
+        }).byDefault().register();
+
+        factory.classMap(A.class, B2.class).field("x", "x2").customize(new CustomMapper<A, B2>() {
+            @Override
+            public void mapBtoA(B2 b, A a, MappingContext context) {
+                a.type = "2";
+            }
+        }).byDefault().register();
+
+        return factory.getMapperFacade();
+    }
+
+    @Test
+    @Concurrent(20)
+    public void testMapPolymorphicHierarchyConcurrently() {
+        for (int i = 0; i < 500; ++i) {
+            A a = new A();
+            a.type = (i % 2 == 0) ? "1" : "2";
+            a.x = i;
+
+            B b = MAPPER.map(a, B.class);
+            if (i % 2 == 0) {
+                assertThat(b, is(instanceOf(B1.class)));
+                assertThat(((B1) b).x1, is(i));
+            } else {
+                assertThat(b, is(instanceOf(B2.class)));
+                assertThat(((B2) b).x2, is(i));
+            }
+
+            A mappedBack = MAPPER.map(b, A.class);
+            assertThat(mappedBack.type, is(a.type));
+            assertThat(mappedBack.x, is(i));
+        }
+    }
+}
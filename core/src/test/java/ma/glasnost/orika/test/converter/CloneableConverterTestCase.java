@@ -0,0 +1,85 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.converter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.converter.builtin.CloneableConverter;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.test.MappingUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+@SuppressWarnings("deprecation")
+public class CloneableConverterTestCase {
+
+    @Test
+    public void testPublicCloneMethod() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.getConverterFactory().registerConverter(new CloneableConverter(Sample.class));
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Sample sample = new Sample();
+        sample.names.add("a");
+        for (int i = 0; i < 3; ++i) {
+            Sample copy = mapper.map(sample, Sample.class);
+            Assert.assertNotSame(sample, copy);
+            Assert.assertTrue(copy.cloned);
+            Assert.assertSame(sample.names, copy.names);
+        }
+    }
+
+    @Test
+    public void testFailingCloneMethod() {
+        CloneableConverter converter = new CloneableConverter(FailingSample.class);
+        try {
+            converter.convert(new FailingSample(), TypeFactory.valueOf(FailingSample.class), null);
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof CloneNotSupportedException);
+        }
+    }
+
+    public static class Sample implements Cloneable {
+        public List<String> names = new ArrayList<>();
+        boolean cloned;
+
+        @Override
+        public Sample clone() {
+            try {
+                Sample clone = (Sample) super.clone();
+                clone.cloned = true;
+                return clone;
+            } catch (CloneNotSupportedException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    public static class FailingSample implements Cloneable {
+        @Override
+        public FailingSample clone() throws CloneNotSupportedException {
+            throw new CloneNotSupportedException();
+        }
+    }
+}
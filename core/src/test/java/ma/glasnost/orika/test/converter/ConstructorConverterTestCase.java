@@ -17,12 +17,16 @@
  */
 package ma.glasnost.orika.test.converter;
 
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.net.URL;
+import java.net.URLClassLoader;
 
 import ma.glasnost.orika.MapperFacade;
 import ma.glasnost.orika.MapperFactory;
 import ma.glasnost.orika.converter.builtin.ConstructorConverter;
+import ma.glasnost.orika.metadata.TypeFactory;
 import ma.glasnost.orika.test.MappingUtil;
 
 import org.junit.Test;
@@ -73,6 +77,95 @@ public class ConstructorConverterTestCase {
         Assert.assertEquals("test", strCont.getString());
     }
     
+    @Test
+    public void testWrapperConstructorForPrimitiveSource() {
+        ConstructorConverter converter = new ConstructorConverter();
+        
+        Assert.assertTrue(converter.canConvert(TypeFactory.valueOf(int.class), TypeFactory.valueOf(IntegerContainer.class)));
+        IntegerContainer container = (IntegerContainer) converter.convert(5, TypeFactory.valueOf(IntegerContainer.class), null);
+        Assert.assertEquals(Integer.valueOf(5), container.getInteger());
+    }
+    
+    @Test
+    public void testCannotConvertWithoutConstructor() {
+        ConstructorConverter converter = new ConstructorConverter();
+        
+        Assert.assertFalse(converter.canConvert(TypeFactory.valueOf(Long.class), TypeFactory.valueOf(StringContainer.class)));
+        Assert.assertFalse(converter.canConvert(TypeFactory.valueOf(Long.class), TypeFactory.valueOf(StringContainer.class)));
+        Assert.assertTrue(converter.canConvert(TypeFactory.valueOf(String.class), TypeFactory.valueOf(StringContainer.class)));
+    }
+    
+    @Test
+    public void testConstructorFailure() {
+        ConstructorConverter converter = new ConstructorConverter();
+        try {
+            converter.convert("not a number", TypeFactory.valueOf(BigDecimal.class), null);
+            Assert.fail("expected IllegalArgumentException");
+        } catch (IllegalArgumentException e) {
+            Assert.assertTrue(e.getCause() instanceof NumberFormatException);
+        }
+    }
+    
+    @Test
+    public void testConvertedClassesAreNotRetained() throws Exception {
+        ConstructorConverter converter = new ConstructorConverter();
+        
+        WeakReference<ClassLoader> loaderRef = convertInChildClassLoader(converter);
+        for (int i = 0; i < 10 && loaderRef.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        
+        Assert.assertNull(loaderRef.get());
+    }
+    
+    @Test
+    public void testResolvedConstructorsSurviveGarbageCollection() throws Exception {
+        ConstructorConverter converter = new ConstructorConverter();
+        Method getConstructor = ConstructorConverter.class.getDeclaredMethod("getConstructor", Class.class, Class.class);
+        getConstructor.setAccessible(true);
+        
+        WeakReference<Object> constructor = new WeakReference<Object>(getConstructor.invoke(converter, String.class, BigDecimal.class));
+        WeakReference<Object> garbage = new WeakReference<Object>(new Object());
+        for (int i = 0; i < 10 && garbage.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        
+        Assert.assertNull(garbage.get());
+        Assert.assertNotNull(constructor.get());
+        Assert.assertSame(constructor.get(), getConstructor.invoke(converter, String.class, BigDecimal.class));
+        Assert.assertEquals(new BigDecimal("1.5"), converter.convert("1.5", TypeFactory.valueOf(BigDecimal.class), null));
+    }
+    
+    /**
+     * Resolves constructors from and to a class of a class-loader which is no
+     * longer referenced once this method returns
+     */
+    private static WeakReference<ClassLoader> convertInChildClassLoader(ConstructorConverter converter) throws Exception {
+        URL classes = IntegerContainer.class.getProtectionDomain().getCodeSource().getLocation();
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classes }, null)) {
+            Class<?> containerClass = loader.loadClass(IntegerContainer.class.getName());
+            Assert.assertNotSame(IntegerContainer.class, containerClass);
+            
+            Assert.assertTrue(converter.canConvert(TypeFactory.valueOf(Integer.class), TypeFactory.valueOf(containerClass)));
+            Assert.assertFalse(converter.canConvert(TypeFactory.valueOf(containerClass), TypeFactory.valueOf(BigDecimal.class)));
+            return new WeakReference<ClassLoader>(loader);
+        }
+    }
+    
+    public static class IntegerContainer {
+        private final Integer integer;
+        
+        public IntegerContainer(Integer integer) {
+            this.integer = integer;
+        }
+        
+        public Integer getInteger() {
+            return integer;
+        }
+    }
+    
     public static class StringContainer {
         private String string;
         
@@ -26,6 +26,7 @@ import ma.glasnost.orika.CustomConverter;
 import ma.glasnost.orika.MapperFactory;
 import ma.glasnost.orika.MappingContext;
 import ma.glasnost.orika.converter.ConverterFactory;
+import ma.glasnost.orika.converter.DefaultConverterFactory;
 import ma.glasnost.orika.converter.builtin.BuiltinConverters;
 import ma.glasnost.orika.converter.builtin.PassThroughConverter;
 import ma.glasnost.orika.metadata.Type;
@@ -85,6 +86,21 @@ public class ConverterResolutionTestCase {
         Assert.assertEquals(ExtendedNameToStringConverter.class, converter.getClass());
     }
     
+    @Test
+    public void testRegistrationInvalidatesCachedMiss() {
+        ConverterFactory converterFactory = new DefaultConverterFactory();
+        Type<Name> nameType = TypeFactory.valueOf(Name.class);
+        Type<String> stringType = TypeFactory.valueOf(String.class);
+        
+        Assert.assertNull(converterFactory.getConverter(nameType, stringType));
+        Assert.assertFalse(converterFactory.canConvert(nameType, stringType));
+        
+        converterFactory.registerConverter(new NameToStringConverter());
+        
+        Assert.assertTrue(converterFactory.canConvert(nameType, stringType));
+        Assert.assertEquals(NameToStringConverter.class, converterFactory.getConverter(nameType, stringType).getClass());
+    }
+    
     public static class Name {
         public String first;
         public String last;
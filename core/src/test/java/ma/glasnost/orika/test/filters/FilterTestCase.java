@@ -29,6 +29,7 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.math.BigDecimal;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -285,6 +286,32 @@ public class FilterTestCase {
         Assert.assertEquals("SF", dest.city);
     }
     
+    @Test
+    public void sourceIsFilteredOncePerProperty() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        CountingFilter filter = new CountingFilter();
+        factory.registerFilter(filter);
+        MapperFacade mapper = factory.getMapperFacade();
+        
+        Source source = new Source();
+        source.name = new SourceName();
+        source.name.first = "Joe";
+        source.id = 2L;
+        source.age = 35;
+        source.creditCardNumber = "5432109876543210";
+        source.infoMap = new HashMap<>();
+        source.infoMap.put("weather", "nice");
+        
+        Destination dest = mapper.map(source, Destination.class);
+        
+        Assert.assertEquals("Joe", dest.name.first);
+        Assert.assertEquals(source.id, dest.id);
+        Assert.assertEquals(Integer.valueOf(35), dest.age);
+        for (String name : Arrays.asList("name", "id", "age", "creditCardNumber")) {
+            Assert.assertEquals(name, Integer.valueOf(1), filter.filteredSources.get(name));
+        }
+    }
+    
     /**
      * OverwriteProtectionFilter is a filter that only allows a mapping to take
      * place if the destination value is null.
@@ -317,6 +344,26 @@ public class FilterTestCase {
         }
     }
     
+    /**
+     * Counts the source values filtered for each property
+     */
+    private static class CountingFilter extends NullFilter<Object, Object> {
+        private final Map<String, Integer> filteredSources = new HashMap<>();
+        
+        @Override
+        public boolean filtersSource() {
+            return true;
+        }
+        
+        @Override
+        public <S> S filterSource(S sourceValue, Type<S> sourceType, String sourceName, Type<?> destType, String destName,
+                MappingContext mappingContext) {
+            Integer count = filteredSources.get(sourceName);
+            filteredSources.put(sourceName, count == null ? 1 : count + 1);
+            return sourceValue;
+        }
+    }
+    
     public static class Source {
         public SourceName name;
         public Long id;
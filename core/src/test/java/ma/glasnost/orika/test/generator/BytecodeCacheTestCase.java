@@ -0,0 +1,331 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.generator;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.MapperPrecompiler;
+import ma.glasnost.orika.impl.generator.BytecodeCache;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.metadata.TypeFactory;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+/**
+ * Verifies that generated classes are written to, and read back from, a
+ * BytecodeCache.<br>
+ * <br>
+ *
+ * Within one JVM, a class already compiled for a given source is reused; so
+ * that the cached bytecode is actually read and defined, the mapped types are
+ * loaded by a new class-loader for each factory, which makes the generated
+ * mapper a new class in that loader.
+ */
+public class BytecodeCacheTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testCompiledClassesAreStored() throws Exception {
+        BytecodeCache cache = new BytecodeCache(folder.getRoot());
+
+        Assert.assertEquals("value", mapInNewClassLoader(cache, "value"));
+
+        Assert.assertTrue(cache.getMissCount() > 0);
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertTrue(folder.getRoot().listFiles().length > 0);
+    }
+
+    @Test
+    public void testCachedClassesAreLoaded() throws Exception {
+        mapInNewClassLoader(new BytecodeCache(folder.getRoot()), "first");
+        int entries = folder.getRoot().listFiles().length;
+
+        BytecodeCache cache = new BytecodeCache(folder.getRoot());
+        Assert.assertEquals("second", mapInNewClassLoader(cache, "second"));
+
+        Assert.assertTrue(cache.getHitCount() > 0);
+        Assert.assertEquals(entries, folder.getRoot().listFiles().length);
+    }
+
+    @Test
+    public void testRecompiledPropertyTypesAreNotLoadedFromCache() throws Exception {
+        File cacheDirectory = folder.newFolder("cache");
+        compileRecompiledTypes(folder.newFolder("first"), "");
+        Assert.assertEquals("first", mapRecompiledTypes(new BytecodeCache(cacheDirectory), folder.getRoot(), "first"));
+
+        File classes = folder.newFolder("second");
+        compileRecompiledTypes(classes, "private int count; public int getCount() { return count; } public void setCount(int count) { this.count = count; }");
+        BytecodeCache cache = new BytecodeCache(cacheDirectory);
+        Assert.assertEquals("second", mapRecompiledTypes(cache, folder.getRoot(), "second"));
+
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertTrue(cache.getMissCount() > 0);
+    }
+
+    @Test
+    public void testUnreadableEntriesAreIgnored() throws Exception {
+        mapInNewClassLoader(new BytecodeCache(folder.getRoot()), "first");
+        for (File entry : folder.getRoot().listFiles()) {
+            try (FileOutputStream out = new FileOutputStream(entry)) {
+                out.write(new byte[] { 1, 2, 3, 4, 5 });
+            }
+        }
+
+        BytecodeCache cache = new BytecodeCache(folder.getRoot());
+        Assert.assertEquals("second", mapInNewClassLoader(cache, "second"));
+
+        Assert.assertEquals(0, cache.getHitCount());
+    }
+
+    @Test
+    public void testPrecompiledClassesAreFoundOnClassPath() throws Exception {
+        ClassLoader loader = new IsolatingClassLoader(BytecodeCacheTestCase.class.getClassLoader());
+        int count = MapperPrecompiler.precompile(folder.getRoot(), Collections.singletonList(PrecompiledConfiguration.class.getName()),
+                loader);
+
+        Assert.assertTrue(count > 0);
+        Assert.assertTrue(new File(folder.getRoot(), BytecodeCache.PRECOMPILED_CLASSES_PATH).isDirectory());
+        Assert.assertNull(System.getProperty(OrikaSystemProperties.BYTECODE_CACHE_PATH));
+
+        URLClassLoader classPath = new URLClassLoader(new URL[] { folder.getRoot().toURI().toURL() }, null);
+        BytecodeCache cache = BytecodeCache.fromClassPath(classPath);
+        Assert.assertNotNull(cache);
+        Assert.assertTrue(cache.isPrecompiled());
+
+        Assert.assertEquals("value", mapInNewClassLoader(cache, "value"));
+        Assert.assertTrue(cache.getHitCount() > 0);
+        Assert.assertEquals(0, cache.getMissCount());
+    }
+
+    @Test
+    public void testPrecompilationLeavesTheConfiguredCacheUntouched() throws Exception {
+        File configured = folder.newFolder("configured");
+        File output = folder.newFolder("output");
+        System.setProperty(OrikaSystemProperties.BYTECODE_CACHE_PATH, configured.getAbsolutePath());
+        try {
+            ClassLoader loader = new IsolatingClassLoader(BytecodeCacheTestCase.class.getClassLoader());
+            int count = MapperPrecompiler.precompile(output, Collections.singletonList(PrecompiledConfiguration.class.getName()), loader);
+
+            Assert.assertTrue(count > 0);
+            Assert.assertEquals(configured.getAbsolutePath(), System.getProperty(OrikaSystemProperties.BYTECODE_CACHE_PATH));
+            Assert.assertEquals(0, configured.listFiles().length);
+            Assert.assertEquals(configured, BytecodeCache.getDefault().getLocation());
+        } finally {
+            System.clearProperty(OrikaSystemProperties.BYTECODE_CACHE_PATH);
+        }
+    }
+
+    @Test
+    public void testNoPrecompiledClassesOnClassPath() throws Exception {
+        URLClassLoader classPath = new URLClassLoader(new URL[] { folder.getRoot().toURI().toURL() }, null);
+        Assert.assertNull(BytecodeCache.fromClassPath(classPath));
+    }
+
+    private static String mapInNewClassLoader(BytecodeCache cache, String name) throws Exception {
+        ClassLoader loader = new IsolatingClassLoader(BytecodeCacheTestCase.class.getClassLoader());
+        Class<?> sourceType = loader.loadClass(CachedSource.class.getName());
+        Class<?> destinationType = loader.loadClass(CachedDestination.class.getName());
+        Assert.assertNotSame(CachedSource.class, sourceType);
+
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(new JavassistCompilerStrategy(cache)).build();
+        factory.classMap(TypeFactory.valueOf(sourceType), TypeFactory.valueOf(destinationType)).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Constructor<?> constructor = sourceType.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Object source = constructor.newInstance();
+        Method setName = sourceType.getDeclaredMethod("setName", String.class);
+        setName.setAccessible(true);
+        setName.invoke(source, name);
+
+        Object destination = mapper.map(source, destinationType);
+
+        Method getName = destinationType.getDeclaredMethod("getName");
+        getName.setAccessible(true);
+        return (String) getName.invoke(destination);
+    }
+
+    /**
+     * Compiles a source and a destination type, whose property is of a type
+     * with the specified additional members, into the specified directory;
+     * the types are package-private, so that their mapper is defined in
+     * their class-loader
+     */
+    private static void compileRecompiledTypes(File directory, String valueMembers) throws IOException {
+        String bean = "package recompiled; class %1$s { private RecompiledValue value; "
+                + "public RecompiledValue getValue() { return value; } public void setValue(RecompiledValue value) { this.value = value; } }";
+        Map<String, String> sources = new LinkedHashMap<>();
+        sources.put("RecompiledValue", "package recompiled; class RecompiledValue { private String text; "
+                + "public String getText() { return text; } public void setText(String text) { this.text = text; } " + valueMembers + " }");
+        sources.put("RecompiledSource", String.format(bean, "RecompiledSource"));
+        sources.put("RecompiledDestination", String.format(bean, "RecompiledDestination"));
+
+        List<File> files = new ArrayList<>();
+        File packageDirectory = new File(directory, "recompiled");
+        Assert.assertTrue(packageDirectory.mkdirs());
+        for (Map.Entry<String, String> source : sources.entrySet()) {
+            File file = new File(packageDirectory, source.getKey() + ".java");
+            Files.write(file.toPath(), source.getValue().getBytes(StandardCharsets.UTF_8));
+            files.add(file);
+        }
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            Assert.assertTrue(compiler.getTask(null, fileManager, null, Arrays.asList("-d", directory.getAbsolutePath()), null,
+                    fileManager.getJavaFileObjectsFromFiles(files)).call());
+        }
+    }
+
+    private static String mapRecompiledTypes(BytecodeCache cache, File root, String text) throws Exception {
+        File classes = new File(root, text);
+        try (URLClassLoader loader = new URLClassLoader(new URL[] { classes.toURI().toURL() },
+                BytecodeCacheTestCase.class.getClassLoader())) {
+            Class<?> sourceType = loader.loadClass("recompiled.RecompiledSource");
+            Class<?> destinationType = loader.loadClass("recompiled.RecompiledDestination");
+            Class<?> valueType = loader.loadClass("recompiled.RecompiledValue");
+
+            MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(new JavassistCompilerStrategy(cache)).build();
+            factory.classMap(TypeFactory.valueOf(sourceType), TypeFactory.valueOf(destinationType)).byDefault().register();
+            MapperFacade mapper = factory.getMapperFacade();
+
+            Object value = newInstance(valueType);
+            invoke(valueType, "setText", String.class, value, text);
+            Object source = newInstance(sourceType);
+            invoke(sourceType, "setValue", valueType, source, value);
+
+            Object destination = mapper.map(source, destinationType);
+
+            Object mappedValue = invoke(destinationType, "getValue", null, destination, null);
+            return (String) invoke(valueType, "getText", null, mappedValue, null);
+        }
+    }
+
+    private static Object newInstance(Class<?> type) throws Exception {
+        Constructor<?> constructor = type.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        return constructor.newInstance();
+    }
+
+    private static Object invoke(Class<?> type, String name, Class<?> parameterType, Object target, Object argument) throws Exception {
+        Method method = parameterType != null ? type.getDeclaredMethod(name, parameterType) : type.getDeclaredMethod(name);
+        method.setAccessible(true);
+        return parameterType != null ? method.invoke(target, argument) : method.invoke(target);
+    }
+
+    /**
+     * Loads the mapped types of this test itself, rather than from its parent
+     */
+    private static class IsolatingClassLoader extends ClassLoader {
+
+        IsolatingClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(CachedSource.class.getName()) && !name.equals(CachedDestination.class.getName())
+                    && !name.equals(PrecompiledConfiguration.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    byte[] bytes = readClassFile(name);
+                    type = defineClass(name, bytes, 0, bytes.length);
+                }
+                return type;
+            }
+        }
+
+        private byte[] readClassFile(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+}
+
+class CachedSource {
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
+
+class CachedDestination {
+    private String name;
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+}
+
+class PrecompiledConfiguration implements Supplier<MapperFactory> {
+
+    public MapperFactory get() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        factory.classMap(CachedSource.class, CachedDestination.class).byDefault().register();
+        return factory;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.generator;
+
+import ma.glasnost.orika.CustomMapper;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.OrikaSystemProperties;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.CodeGenerationStrategy;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import ma.glasnost.orika.impl.generator.VariableRef;
+import ma.glasnost.orika.impl.generator.specification.Convert;
+import ma.glasnost.orika.metadata.FieldMap;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies that mappers whose fields are all copied by reference are emitted
+ * directly as bytecode, and that any other mapper is generated from source.
+ */
+public class EmittedMapperTestCase {
+
+    private String writeSourceFiles;
+    private String writeClassFiles;
+
+    @Before
+    public void setUp() {
+        /*
+         * Classes are only emitted when no source or class files are written
+         */
+        writeSourceFiles = System.clearProperty(OrikaSystemProperties.WRITE_SOURCE_FILES);
+        writeClassFiles = System.clearProperty(OrikaSystemProperties.WRITE_CLASS_FILES);
+    }
+
+    @After
+    public void tearDown() {
+        if (writeSourceFiles != null) {
+            System.setProperty(OrikaSystemProperties.WRITE_SOURCE_FILES, writeSourceFiles);
+        }
+        if (writeClassFiles != null) {
+            System.setProperty(OrikaSystemProperties.WRITE_CLASS_FILES, writeClassFiles);
+        }
+    }
+
+    @Test
+    public void testMapperIsEmitted() {
+        CountingCompilerStrategy compilerStrategy = new CountingCompilerStrategy();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Source source = newSource();
+        Destination destination = mapper.map(source, Destination.class);
+        Assert.assertEquals("Khalil Gebran", destination.getName());
+        Assert.assertEquals(48, destination.getAge());
+        Assert.assertEquals(Integer.valueOf(3), destination.getCount());
+        Assert.assertEquals(1931L, destination.getYear());
+
+        destination.setName("Gibran Khalil Gibran");
+        Assert.assertEquals("Gibran Khalil Gibran", mapper.map(destination, Source.class).getName());
+
+        Assert.assertEquals(1, compilerStrategy.emitted.get());
+        Assert.assertEquals(0, compilerStrategy.compiled.get());
+    }
+
+    @Test
+    public void testNullsAreMapped() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(new CountingCompilerStrategy()).build();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+
+        Source source = newSource();
+        source.setName(null);
+        source.setCount(null);
+        Destination destination = new Destination();
+        destination.setName("Khalil Gebran");
+        destination.setCount(3);
+        factory.getMapperFacade().map(source, destination);
+        Assert.assertNull(destination.getName());
+        Assert.assertNull(destination.getCount());
+    }
+
+    @Test
+    public void testNullsAreNotMapped() {
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(new CountingCompilerStrategy())
+                .mapNulls(false)
+                .build();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+
+        Source source = newSource();
+        source.setName(null);
+        source.setCount(null);
+        Destination destination = new Destination();
+        destination.setName("Khalil Gebran");
+        destination.setCount(3);
+        factory.getMapperFacade().map(source, destination);
+        Assert.assertEquals("Khalil Gebran", destination.getName());
+        Assert.assertEquals(Integer.valueOf(3), destination.getCount());
+        Assert.assertEquals(48, destination.getAge());
+    }
+
+    @Test
+    public void testCustomMapperIsInvoked() {
+        CountingCompilerStrategy compilerStrategy = new CountingCompilerStrategy();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        factory.classMap(Source.class, Destination.class).byDefault().customize(new CustomMapper<Source, Destination>() {
+            @Override
+            public void mapAtoB(Source a, Destination b, MappingContext context) {
+                b.setName(b.getName().toUpperCase());
+            }
+        }).register();
+
+        Assert.assertEquals("KHALIL GEBRAN", factory.getMapperFacade().map(newSource(), Destination.class).getName());
+        Assert.assertEquals(1, compilerStrategy.emitted.get());
+    }
+
+    @Test
+    public void testMapperWithUserSpecificationIsGeneratedFromSource() {
+        CountingCompilerStrategy compilerStrategy = new CountingCompilerStrategy();
+        DefaultMapperFactory.Builder builder = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy);
+        builder.getCodeGenerationStrategy().addSpecification(new PrefixingConvert(), CodeGenerationStrategy.Position.IN_PLACE_OF,
+                Convert.class);
+        MapperFactory factory = builder.build();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+
+        Assert.assertEquals("Khalil Gebran", factory.getMapperFacade().map(newSource(), Destination.class).getName());
+        Assert.assertEquals(0, compilerStrategy.emitted.get());
+        Assert.assertEquals(1, compilerStrategy.compiled.get());
+    }
+
+    private static Source newSource() {
+        Source source = new Source();
+        source.setName("Khalil Gebran");
+        source.setAge(48);
+        source.setCount(3);
+        source.setYear(1931L);
+        return source;
+    }
+
+    /**
+     * Counts the mappers compiled from source and those emitted as bytecode
+     */
+    private static class CountingCompilerStrategy extends JavassistCompilerStrategy {
+
+        final AtomicInteger compiled = new AtomicInteger();
+        final AtomicInteger emitted = new AtomicInteger();
+
+        CountingCompilerStrategy() {
+            super(null);
+        }
+
+        @Override
+        public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+            compiled.incrementAndGet();
+            return super.compileClass(sourceCode);
+        }
+
+        @Override
+        public Class<?> defineEmittedClass(SourceCodeContext sourceCode, byte[] bytecode) throws SourceCodeGenerationException {
+            emitted.incrementAndGet();
+            return super.defineEmittedClass(sourceCode, bytecode);
+        }
+    }
+
+    /**
+     * Overrides the code generated by Convert, but not the bytecode it emits
+     */
+    private static class PrefixingConvert extends Convert {
+        @Override
+        public String generateMappingCode(FieldMap fieldMap, VariableRef source, VariableRef destination, SourceCodeContext code) {
+            return "\n/* " + fieldMap.getDestination().getName() + " */\n"
+                    + super.generateMappingCode(fieldMap, source, destination, code);
+        }
+    }
+
+    public static class Source {
+        private String name;
+        private int age;
+        private Integer count;
+        private long year;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public long getYear() {
+            return year;
+        }
+
+        public void setYear(long year) {
+            this.year = year;
+        }
+    }
+
+    public static class Destination {
+        private String name;
+        private int age;
+        private Integer count;
+        private long year;
+
+        public String getName() {
+            return name;
+        }
+
+        public Destination setName(String name) {
+            this.name = name;
+            return this;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+
+        public Integer getCount() {
+            return count;
+        }
+
+        public void setCount(Integer count) {
+            this.count = count;
+        }
+
+        public long getYear() {
+            return year;
+        }
+
+        public void setYear(long year) {
+            this.year = year;
+        }
+    }
+}
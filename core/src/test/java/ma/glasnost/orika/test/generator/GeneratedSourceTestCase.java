@@ -0,0 +1,94 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.generator;
+
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.GeneratedMapperBase;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Verifies the source of a generated class, which is assembled from its
+ * methods only when requested.
+ */
+public class GeneratedSourceTestCase {
+
+    @Test
+    public void testSourceFileOfGeneratedMapper() {
+        final List<String> sources = new ArrayList<>();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(new JavassistCompilerStrategy(null) {
+            @Override
+            public boolean canDefineEmittedClasses() {
+                /*
+                 * The mapper is generated from its source, rather than emitted
+                 */
+                return false;
+            }
+
+            @Override
+            public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+                sources.add(sourceCode.toSourceFile());
+                return super.compileClass(sourceCode);
+            }
+        }).build();
+        factory.classMap(Source.class, Destination.class).byDefault().register();
+
+        Source source = new Source();
+        source.setName("Khalil Gebran");
+        Assert.assertEquals(source.getName(), factory.getMapperFacade().map(source, Destination.class).getName());
+
+        Assert.assertEquals(1, sources.size());
+        String sourceFile = sources.get(0);
+        Assert.assertTrue(sourceFile.startsWith("package ma.glasnost.orika.generated;\n\npublic class Orika_Destination_Source_Mapper"));
+        Assert.assertTrue(sourceFile.contains(" extends " + GeneratedMapperBase.class.getCanonicalName() + " {\n"));
+        Assert.assertTrue(sourceFile.contains("public void mapAtoB("));
+        Assert.assertTrue(sourceFile.contains("public void mapBtoA("));
+        Assert.assertTrue(sourceFile.endsWith("\n}"));
+    }
+
+    public static class Source {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Destination {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.inheritance;
+
+import ma.glasnost.orika.CustomMapper;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.test.MappingUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that registered mappers are found through the super-classes and
+ * interfaces of the mapped types, in either direction.
+ */
+public class RegisteredMapperResolutionTestCase {
+
+    @Test
+    public void testMapperRegisteredForInterfaceIsResolved() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.registerMapper(new NamedMapper("interface"));
+
+        MapperFacade mapper = factory.getMapperFacade();
+
+        NamedDto result = mapper.map(new SpecialNamed("value"), NamedDto.class);
+        Assert.assertEquals("interface:value", result.getLabel());
+    }
+
+    @Test
+    public void testMapperRegisteredForInterfaceIsResolvedInReverse() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.registerMapper(new NamedMapper("interface"));
+        factory.getMapperFacade();
+
+        Assert.assertTrue(factory.existsRegisteredMapper(TypeFactory.valueOf(NamedDto.class), TypeFactory.valueOf(SpecialNamed.class), false));
+        Assert.assertFalse(factory.existsRegisteredMapper(TypeFactory.valueOf(Unrelated.class), TypeFactory.valueOf(NamedDto.class), false));
+    }
+
+    @Test
+    public void testMapperRegisteredAfterLookupIsResolved() {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.getMapperFacade();
+
+        Assert.assertFalse(factory.existsRegisteredMapper(TypeFactory.valueOf(SpecialNamed.class), TypeFactory.valueOf(NamedDto.class), false));
+
+        factory.registerMapper(new NamedMapper("late"));
+
+        Assert.assertTrue(factory.existsRegisteredMapper(TypeFactory.valueOf(SpecialNamed.class), TypeFactory.valueOf(NamedDto.class), false));
+    }
+
+    public interface Named {
+        String getName();
+    }
+
+    public static class BaseNamed implements Named {
+        private final String name;
+
+        public BaseNamed(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    public static class SpecialNamed extends BaseNamed {
+        public SpecialNamed(String name) {
+            super(name);
+        }
+    }
+
+    public static class Unrelated {
+        public String name;
+    }
+
+    public static class NamedDto {
+        private String label;
+
+        public String getLabel() {
+            return label;
+        }
+
+        public void setLabel(String label) {
+            this.label = label;
+        }
+    }
+
+    public static class NamedMapper extends CustomMapper<Named, NamedDto> {
+        private final String prefix;
+
+        public NamedMapper(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public void mapAtoB(Named a, NamedDto b, MappingContext context) {
+            b.setLabel(prefix + ":" + a.getName());
+        }
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.metadata;
+
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Verifies that the assignability of types, which is remembered by each type,
+ * is the same when it is checked again.
+ */
+public class TypeAssignabilityTestCase {
+
+    @Test
+    public void testRepeatedChecksOfGenericTypes() {
+        Type<?> listOfNumber = TypeFactory.valueOf(List.class, Number.class);
+        Type<?> listOfString = TypeFactory.valueOf(List.class, String.class);
+        Type<?> arrayListOfInteger = TypeFactory.valueOf(ArrayList.class, Integer.class);
+        Type<?> collectionOfInteger = TypeFactory.valueOf(Collection.class, Integer.class);
+
+        for (int i = 0; i < 3; ++i) {
+            Assert.assertTrue(listOfNumber.isAssignableFrom(arrayListOfInteger));
+            Assert.assertFalse(listOfString.isAssignableFrom(arrayListOfInteger));
+            Assert.assertTrue(collectionOfInteger.isAssignableFrom(arrayListOfInteger));
+            Assert.assertFalse(arrayListOfInteger.isAssignableFrom(collectionOfInteger));
+            Assert.assertFalse(listOfNumber.isAssignableFrom((Type<?>) null));
+        }
+    }
+
+    @Test
+    public void testChecksAgainstManyTypes() {
+        List<Type<?>> nested = new ArrayList<>();
+        Type<?> type = TypeFactory.valueOf(String.class);
+        for (int i = 0; i < 80; ++i) {
+            nested.add(type);
+            type = TypeFactory.valueOf(List.class, type);
+        }
+        List<Type<?>> maps = new ArrayList<>();
+        for (Type<?> key : nested) {
+            for (Type<?> value : nested) {
+                maps.add(TypeFactory.valueOf(Map.class, key, value));
+            }
+        }
+
+        Type<?> rawMap = TypeFactory.valueOf(Map.class);
+        Type<?> mapOfString = TypeFactory.valueOf(Map.class, String.class, String.class);
+        for (int i = 0; i < 2; ++i) {
+            for (Type<?> map : maps) {
+                Assert.assertTrue(rawMap.isAssignableFrom(map));
+                Assert.assertEquals(map.equals(mapOfString), mapOfString.isAssignableFrom(map));
+                Assert.assertFalse(map.isAssignableFrom(rawMap));
+            }
+        }
+    }
+}
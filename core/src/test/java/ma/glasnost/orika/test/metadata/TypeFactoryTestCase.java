@@ -25,6 +25,8 @@ import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
 import java.io.File;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.Collection;
@@ -121,6 +123,83 @@ public class TypeFactoryTestCase {
 
     }
 
+    @Test
+    public void testRawTypeIsInterned() {
+        Type<String> type = TypeFactory.valueOf(String.class);
+
+        Assert.assertSame(type, TypeFactory.valueOf(String.class));
+        Assert.assertSame(type, TypeFactory.valueOf((java.lang.reflect.Type) String.class));
+        Assert.assertSame(type, TypeFactory.valueOf(String.class, new java.lang.reflect.Type[0]));
+    }
+
+    @Test
+    @SuppressWarnings("rawtypes")
+    public void testRawTypeOfGenericClassIsInterned() {
+        Type<Map> type = TypeFactory.valueOf(Map.class);
+
+        Assert.assertSame(type, TypeFactory.valueOf(Map.class));
+        Assert.assertSame(type, TypeFactory.valueOf(Map.class, Object.class, Object.class));
+        Assert.assertSame(type, TypeFactory.valueOf("Map<Object, Object>"));
+        Assert.assertNotSame(type, TypeFactory.valueOf(Map.class, String.class, Object.class));
+    }
+
+    @Test
+    public void testRawTypeOfAnonymousClassIsItsGenericSuperType() {
+        Class<?> anonymousType = new MyGenericObject<Long>() {
+        }.getClass();
+
+        Type<?> type = TypeFactory.valueOf(anonymousType);
+
+        Assert.assertSame(TypeFactory.valueOf("ma.glasnost.orika.test.metadata.TypeFactoryTestCase$MyGenericObject<Long>"), type);
+        Assert.assertSame(type, TypeFactory.valueOf(anonymousType));
+    }
+
+    @Test
+    public void testCollectedTypesArePurged() throws Exception {
+        Map<?, ?> typeCache = typeCache();
+        WeakReference<Type<?>> collected = internNestedTypes(PurgedElement.class, 100);
+        int size = typeCache.size();
+
+        for (int i = 0; i < 10 && collected.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Assert.assertNull(collected.get());
+
+        /*
+         * Stale entries are removed when a new type is interned
+         */
+        for (int i = 0; i < 10 && typeCache.size() >= size; ++i) {
+            Thread.sleep(50);
+            TypeFactory.valueOf(List.class, TypeFactory.valueOf(List.class, PurgedElement.class));
+        }
+        Assert.assertTrue(typeCache.size() < size);
+    }
+
+    @Test
+    public void testTypesOfDistinctArgumentsAreDistinct() {
+        Type<?> first = TypeFactory.valueOf(Map.class, String.class, Long.class);
+        Type<?> second = TypeFactory.valueOf(Map.class, Long.class, String.class);
+
+        Assert.assertNotEquals(first, second);
+        Assert.assertSame(first, TypeFactory.valueOf(Map.class, String.class, Long.class));
+        Assert.assertSame(second, TypeFactory.valueOf(Map.class, Long.class, String.class));
+    }
+
+    private static WeakReference<Type<?>> internNestedTypes(Class<?> element, int depth) {
+        Type<?> type = TypeFactory.valueOf(element);
+        for (int i = 0; i < depth; ++i) {
+            type = TypeFactory.valueOf(Set.class, type);
+        }
+        return new WeakReference<Type<?>>(type);
+    }
+
+    private static Map<?, ?> typeCache() throws Exception {
+        Field field = TypeFactory.class.getDeclaredField("typeCache");
+        field.setAccessible(true);
+        return (Map<?, ?>) field.get(null);
+    }
+
     @Test
     public void testRefineBoundsSuccess() throws Exception {
         testRefineBoundsSuccess(Long.class, Long.class, Object.class);
@@ -171,6 +250,15 @@ public class TypeFactoryTestCase {
         // test Class
     }
 
+    public static class PurgedElement {
+        // test Class
+    }
+
+    @SuppressWarnings("unused")
+    public static class MyGenericObject<T> {
+        // test Class
+    }
+
     @SuppressWarnings("unused")
     public static class MyObjectWithMultibleBound<T extends Object & Collection<String> & Set<String>> {
         // test Class
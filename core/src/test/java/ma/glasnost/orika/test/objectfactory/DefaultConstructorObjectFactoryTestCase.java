@@ -0,0 +1,77 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.objectfactory;
+
+import ma.glasnost.orika.ObjectFactory;
+import ma.glasnost.orika.impl.DefaultConstructorObjectFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.lang.reflect.InvocationTargetException;
+
+public class DefaultConstructorObjectFactoryTestCase {
+
+    @Test
+    public void testPrivateConstructor() {
+        ObjectFactory<PrivateBean> factory = new DefaultConstructorObjectFactory<>(PrivateBean.class);
+
+        Assert.assertEquals("created", factory.create(null, null).value);
+    }
+
+    @Test
+    public void testFailingConstructor() {
+        ObjectFactory<FailingBean> factory = new DefaultConstructorObjectFactory<>(FailingBean.class);
+        try {
+            factory.create(null, null);
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof InvocationTargetException);
+            Assert.assertTrue(e.getCause().getCause() instanceof UnsupportedOperationException);
+        }
+    }
+
+    @Test
+    public void testAbstractTypeFailsOnCreate() {
+        ObjectFactory<AbstractBean> factory = new DefaultConstructorObjectFactory<>(AbstractBean.class);
+        try {
+            factory.create(null, null);
+            Assert.fail("expected IllegalStateException");
+        } catch (IllegalStateException e) {
+            Assert.assertTrue(e.getCause() instanceof InstantiationException);
+        }
+    }
+
+    public static class PrivateBean {
+        String value = "created";
+
+        private PrivateBean() {
+        }
+    }
+
+    public static class FailingBean {
+        public FailingBean() {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    public static abstract class AbstractBean {
+        public AbstractBean() {
+        }
+    }
+}
@@ -15,6 +15,234 @@
 // * See the License for the specific language governing permissions and
 // * limitations under the License.
 // */
+package ma.glasnost.orika.test.perf;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.CompilerStrategy;
+import ma.glasnost.orika.impl.generator.HiddenClassCompilerStrategy;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+import org.junit.Assert;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+
+/**
+ * This test attempts to confirm that Orika doesn't cause class-loaders (or
+ * the classes it generates) to leak, by retaining hard references to classes
+ * after the MapperFactory which used them is no longer reachable.<br>
+ * <br>
+ * This can cause problems specifically in web and enterprise application
+ * contexts where multiple web application (siblings) might share a common
+ * parent enterprise application (or shared library) class-loader.<br>
+ * <br>
+ *
+ * @author mattdeboer
+ *
+ */
+public class ClassLoaderLeakageTestCase {
+
+    /**
+     * Mappers defined as hidden classes are unloaded with their factory, even
+     * though the class-loader of the mapped types remains reachable.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testHiddenMapperClassesAreUnloadedWithTheirFactory() throws Exception {
+        Assume.assumeTrue(HiddenClassCompilerStrategy.isHiddenClassSupported());
+
+        WeakReference<Class<?>> mapperClassRef = mapAndReferenceMapperClass(new HiddenClassCompilerStrategy(null));
+
+        Assert.assertTrue(forceClearWeakReferences(mapperClassRef));
+    }
+
+    /**
+     * This initial test is to verify our own sanity: mappers defined through a
+     * class-loader are retained for as long as the class-loader is reachable.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testControl() throws Exception {
+        Assume.assumeTrue(HiddenClassCompilerStrategy.isHiddenClassSupported());
+
+        WeakReference<Class<?>> mapperClassRef = mapAndReferenceMapperClass(new JavassistCompilerStrategy(null));
+
+        Assert.assertFalse(forceClearWeakReferences(mapperClassRef));
+    }
+
+    /**
+     * Types loaded by a child class-loader (which are not public, so that
+     * their mappers are defined in their own package) do not keep the child
+     * class-loader alive once their factory is no longer reachable.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testChildClassLoaderIsNotRetained() throws Exception {
+        WeakReference<ClassLoader> childLoaderRef = mapInChildClassLoader(new HiddenClassCompilerStrategy(null));
+
+        Assert.assertTrue(forceClearWeakReferences(childLoaderRef));
+    }
+
+    private static WeakReference<Class<?>> mapAndReferenceMapperClass(CompilerStrategy compilerStrategy) {
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        factory.classMap(LeakSource.class, LeakDestination.class).byDefault().register();
+
+        LeakSource source = new LeakSource();
+        source.setName("Khalil Gebran");
+        Assert.assertEquals(source.getName(), factory.getMapperFacade().map(source, LeakDestination.class).getName());
+
+        Class<?> mapperClass = factory.lookupMapper(new MapperKey(TypeFactory.valueOf(LeakSource.class),
+                TypeFactory.valueOf(LeakDestination.class))).getClass();
+        Assert.assertSame(LeakSource.class.getClassLoader(), mapperClass.getClassLoader());
+        return new WeakReference<Class<?>>(mapperClass);
+    }
+
+    private static WeakReference<ClassLoader> mapInChildClassLoader(CompilerStrategy compilerStrategy) throws Exception {
+        ClassLoader childLoader = new ChildClassLoader(ClassLoaderLeakageTestCase.class.getClassLoader());
+        Class<?> sourceType = childLoader.loadClass(HiddenLeakSource.class.getName());
+        Class<?> destinationType = childLoader.loadClass(HiddenLeakDestination.class.getName());
+        Assert.assertNotSame(HiddenLeakSource.class, sourceType);
+
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+        MapperFacade mapper = factory.getMapperFacade();
+
+        Constructor<?> constructor = sourceType.getDeclaredConstructor();
+        constructor.setAccessible(true);
+        Object source = constructor.newInstance();
+        Method setTitle = sourceType.getDeclaredMethod("setTitle", String.class);
+        setTitle.setAccessible(true);
+        setTitle.invoke(source, "The Prophet");
+
+        Object destination = mapper.map(source, destinationType);
+
+        Method getTitle = destinationType.getDeclaredMethod("getTitle");
+        getTitle.setAccessible(true);
+        Assert.assertEquals("The Prophet", getTitle.invoke(destination));
+
+        return new WeakReference<>(childLoader);
+    }
+
+    /**
+     * Requests garbage collection until the specified reference is cleared, or
+     * a number of attempts have been made.
+     *
+     * @param ref
+     * @return true if the reference was cleared
+     * @throws InterruptedException
+     */
+    private static boolean forceClearWeakReferences(WeakReference<?> ref) throws InterruptedException {
+        for (int i = 0; i < 10 && ref.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        return ref.get() == null;
+    }
+
+    /**
+     * Loads the hidden types of this test itself, rather than from its parent
+     */
+    private static class ChildClassLoader extends ClassLoader {
+
+        ChildClassLoader(ClassLoader parent) {
+            super(parent);
+        }
+
+        @Override
+        protected Class<?> loadClass(String name, boolean resolve) throws ClassNotFoundException {
+            if (!name.equals(HiddenLeakSource.class.getName()) && !name.equals(HiddenLeakDestination.class.getName())) {
+                return super.loadClass(name, resolve);
+            }
+            synchronized (getClassLoadingLock(name)) {
+                Class<?> type = findLoadedClass(name);
+                if (type == null) {
+                    byte[] bytes = readClassFile(name);
+                    type = defineClass(name, bytes, 0, bytes.length);
+                }
+                return type;
+            }
+        }
+
+        private byte[] readClassFile(String name) throws ClassNotFoundException {
+            try (InputStream in = getParent().getResourceAsStream(name.replace('.', '/') + ".class")) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[4096];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(buffer, 0, read);
+                }
+                return out.toByteArray();
+            } catch (IOException e) {
+                throw new ClassNotFoundException(name, e);
+            }
+        }
+    }
+
+    public static class LeakSource {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class LeakDestination {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    /*
+     * The tests below depended on an EclipseJdtCompiler and on sources in
+     * "src/main/java-hidden" which are no longer part of the build.
+     */
+}
+
+class HiddenLeakSource {
+    private String title;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
+
+class HiddenLeakDestination {
+    private String title;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+}
+
 //package ma.glasnost.orika.test.perf;
 //
 //import ma.glasnost.orika.DefaultFieldMapper;
@@ -0,0 +1,105 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.ObjectFactory;
+import ma.glasnost.orika.impl.DefaultConstructorObjectFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.GeneratedObjectFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+import org.junit.Assert;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.Constructor;
+
+/**
+ * Measures the instantiation of objects by the different ObjectFactory
+ * implementations.<br>
+ * Note: this benchmark is named '_IDEOnly' so that it is skipped during maven
+ * tests; it only logs its results.
+ */
+public class InstantiationBenchmark_IDEOnly {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InstantiationBenchmark_IDEOnly.class);
+
+    /**
+     * Compares the time taken to create objects through reflection, through
+     * DefaultConstructorObjectFactory (bound through LambdaMetafactory), and through
+     * a generated ObjectFactory.
+     */
+    @Test
+    public void instantiation() throws Exception {
+        int iterations = 5000000;
+
+        final Constructor<Bean> constructor = Bean.class.getDeclaredConstructor();
+        ObjectFactory<Bean> reflective = new ObjectFactory<Bean>() {
+            public Bean create(Object source, MappingContext mappingContext) {
+                try {
+                    return constructor.newInstance();
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        ObjectFactory<Bean> defaultConstructor = new DefaultConstructorObjectFactory<>(Bean.class);
+        MapperFactory mapperFactory = new DefaultMapperFactory.Builder().build();
+        ObjectFactory<Bean> generated = mapperFactory.lookupObjectFactory(TypeFactory.valueOf(Bean.class),
+                TypeFactory.valueOf(String.class));
+        Assert.assertTrue((Object) generated instanceof GeneratedObjectFactory);
+
+        MappingContext context = new MappingContext.Factory().getContext();
+
+        // warm up
+        createObjects(reflective, context, iterations);
+        createObjects(defaultConstructor, context, iterations);
+        createObjects(generated, context, iterations);
+
+        long reflection = createObjects(reflective, context, iterations);
+        long bound = createObjects(defaultConstructor, context, iterations);
+        long generation = createObjects(generated, context, iterations);
+
+        LOGGER.info("{} instantiations: Constructor.newInstance = {} ms, DefaultConstructorObjectFactory = {} ms, generated = {} ms",
+                iterations, reflection / 1000000, bound / 1000000, generation / 1000000);
+    }
+
+    private static long createObjects(ObjectFactory<Bean> factory, MappingContext context, int iterations) {
+        long begin = System.nanoTime();
+        int total = 0;
+        for (int i = 0; i < iterations; ++i) {
+            total += factory.create("source", context).value;
+        }
+        long elapsed = System.nanoTime() - begin;
+        Assert.assertEquals(iterations, total);
+        return elapsed;
+    }
+
+    public static class Bean {
+        int value = 1;
+
+        public Bean() {
+        }
+
+        public Bean(int value) {
+            this.value = value;
+        }
+    }
+}
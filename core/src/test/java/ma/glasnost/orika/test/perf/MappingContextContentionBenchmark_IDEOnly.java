@@ -0,0 +1,95 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingContextFactory;
+import ma.glasnost.orika.impl.StripedMappingContextFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Measures the contention on the MappingContextFactory implementations.<br>
+ * Note: this benchmark is named '_IDEOnly' so that it is skipped during maven
+ * tests; it only logs its results.
+ */
+public class MappingContextContentionBenchmark_IDEOnly {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MappingContextContentionBenchmark_IDEOnly.class);
+
+    /**
+     * Compares the time taken by many threads acquiring and releasing contexts
+     * from the default queue-based factory and from the striped factory.
+     */
+    @Test
+    public void contention() throws Throwable {
+        int threads = 64;
+        int iterations = 20000;
+
+        // warm up
+        runContextCycles(new MappingContext.Factory(), threads, iterations);
+        runContextCycles(new StripedMappingContextFactory(), threads, iterations);
+
+        long queued = runContextCycles(new MappingContext.Factory(), threads, iterations);
+        long striped = runContextCycles(new StripedMappingContextFactory(), threads, iterations);
+
+        LOGGER.info("{} threads x {} context cycles: queue-based factory = {} ms, striped factory = {} ms", threads, iterations,
+                queued / 1000000, striped / 1000000);
+    }
+
+    private long runContextCycles(final MappingContextFactory factory, int threads, final int iterations) throws Throwable {
+        final CountDownLatch start = new CountDownLatch(1);
+        final CountDownLatch finish = new CountDownLatch(threads);
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        final Object source = new Object();
+
+        for (int t = 0; t < threads; ++t) {
+            new Thread(new Runnable() {
+                public void run() {
+                    try {
+                        start.await();
+                        for (int i = 0; i < iterations; ++i) {
+                            MappingContext context = factory.getContext();
+                            context.cacheMappedObject(source, TypeFactory.TYPE_OF_OBJECT, source);
+                            factory.release(context);
+                        }
+                    } catch (Throwable e) {
+                        failure.compareAndSet(null, e);
+                    } finally {
+                        finish.countDown();
+                    }
+                }
+            }).start();
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        finish.await();
+        long elapsed = System.nanoTime() - begin;
+
+        if (failure.get() != null) {
+            throw failure.get();
+        }
+        return elapsed;
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingContextFactory;
+import ma.glasnost.orika.MappingStrategy;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Verifies that resolved mapping strategies are reused for the same inputs, and
+ * kept apart for inputs which differ in any part of their key.
+ */
+public class MappingStrategyCacheTestCase {
+
+    private final MappingContextFactory contextFactory = new MappingContext.Factory();
+    private final MapperFactory factory = new DefaultMapperFactory.Builder().mappingContextFactory(contextFactory).build();
+
+    @Test
+    public void testStrategyIsReused() {
+        MapperFacade mapper = factory.getMapperFacade();
+        MappingContext context = contextFactory.getContext();
+
+        MappingStrategy first = mapper.resolveMappingStrategy(new Source("a"), null, Destination.class, false, context);
+        MappingStrategy second = mapper.resolveMappingStrategy(new Source("b"), null, Destination.class, false, context);
+
+        Assert.assertSame(first, second);
+        Assert.assertSame(first, context.getResolvedStrategy());
+    }
+
+    @Test
+    public void testStrategyIsKeyedByEachInput() {
+        MapperFacade mapper = factory.getMapperFacade();
+        MappingContext context = contextFactory.getContext();
+
+        MappingStrategy strategy = mapper.resolveMappingStrategy(new Source("a"), null, Destination.class, false, context);
+
+        Assert.assertNotSame(strategy, mapper.resolveMappingStrategy(new Source("a"), null, Destination.class, true, context));
+        Assert.assertNotSame(strategy,
+                mapper.resolveMappingStrategy(new Source("a"), TypeFactory.valueOf(Source.class), Destination.class, false, context));
+        Assert.assertNotSame(strategy, mapper.resolveMappingStrategy(new ExtendedSource("a"), null, Destination.class, false, context));
+        Assert.assertNotSame(strategy, mapper.resolveMappingStrategy(new Source("a"), null, OtherDestination.class, false, context));
+
+        Assert.assertSame(strategy, mapper.resolveMappingStrategy(new Source("a"), null, Destination.class, false, context));
+    }
+
+    @Test
+    public void testFactoryModificationClearsStrategies() {
+        MapperFacade mapper = factory.getMapperFacade();
+        MappingContext context = contextFactory.getContext();
+
+        MappingStrategy strategy = mapper.resolveMappingStrategy(new Source("a"), null, Destination.class, false, context);
+
+        factory.classMap(Source.class, OtherDestination.class).byDefault().register();
+
+        Assert.assertNotSame(strategy, mapper.resolveMappingStrategy(new Source("a"), null, Destination.class, false, context));
+        Assert.assertEquals("a", mapper.map(new Source("a"), OtherDestination.class).getName());
+    }
+
+    public static class Source {
+        private String name;
+
+        public Source() {
+        }
+
+        public Source(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class ExtendedSource extends Source {
+        public ExtendedSource(String name) {
+            super(name);
+        }
+    }
+
+    public static class Destination {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class OtherDestination {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Verifies that mappers generated in parallel during build() behave the same
+ * as those generated sequentially.
+ */
+public class ParallelBuildTestCase {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void testParallelBuildMatchesSequentialBuild() {
+        MapperFacade sequential = registerClassMaps(new DefaultMapperFactory.Builder().build()).getMapperFacade();
+        MapperFactory parallelFactory = registerClassMaps(new DefaultMapperFactory.Builder().buildExecutor(executor).build());
+        MapperFacade parallel = parallelFactory.getMapperFacade();
+
+        Employee employee = newEmployee();
+
+        EmployeeDto expected = sequential.map(employee, EmployeeDto.class);
+        EmployeeDto result = parallel.map(employee, EmployeeDto.class);
+
+        Assert.assertEquals(expected.getName(), result.getName());
+        Assert.assertEquals(expected.getTitle(), result.getTitle());
+        Assert.assertEquals("Main street", result.getAddress().getStreet());
+        Assert.assertEquals(cityNames(expected.getCities()), cityNames(result.getCities()));
+        Assert.assertEquals(Arrays.asList("Rabat", "Paris"), cityNames(result.getCities()));
+
+        Employee mappedBack = parallel.map(result, Employee.class);
+        Assert.assertEquals(employee.getName(), mappedBack.getName());
+        Assert.assertEquals(employee.getTitle(), mappedBack.getTitle());
+        Assert.assertEquals(employee.getAddress().getCity(), mappedBack.getAddress().getCity());
+    }
+
+    @Test
+    public void testClassMapsRegisteredDuringParallelBuild() {
+        MapperFactory factory = registerClassMaps(new DefaultMapperFactory.Builder().buildExecutor(executor).build());
+        factory.getMapperFacade();
+
+        /*
+         * The element mapping of "addresses{city}" to "cities{name}" registers
+         * a class-map while the mapper for Person is being generated
+         */
+        Assert.assertNotNull(factory.getClassMap(new MapperKey(TypeFactory.valueOf(Address.class), TypeFactory.valueOf(CityDto.class))));
+    }
+
+    @Test
+    public void testRejectedTasksRunOnBuildingThread() {
+        Executor rejecting = new Executor() {
+            public void execute(Runnable command) {
+                throw new RejectedExecutionException();
+            }
+        };
+        MapperFacade mapper = registerClassMaps(new DefaultMapperFactory.Builder().buildExecutor(rejecting).build()).getMapperFacade();
+
+        EmployeeDto result = mapper.map(newEmployee(), EmployeeDto.class);
+
+        Assert.assertEquals("Jane", result.getName());
+        Assert.assertEquals("Engineer", result.getTitle());
+    }
+
+    private static MapperFactory registerClassMaps(MapperFactory factory) {
+        factory.classMap(Address.class, AddressDto.class).byDefault().register();
+        factory.classMap(Person.class, PersonDto.class)
+                .field("addresses{city}", "cities{name}")
+                .byDefault()
+                .register();
+        factory.classMap(Employee.class, EmployeeDto.class).use(Person.class, PersonDto.class).byDefault().register();
+        return factory;
+    }
+
+    private static Employee newEmployee() {
+        Employee employee = new Employee();
+        employee.setName("Jane");
+        employee.setTitle("Engineer");
+        employee.setAddress(new Address("Main street", "Rabat"));
+        employee.getAddresses().add(new Address("Main street", "Rabat"));
+        employee.getAddresses().add(new Address("Rue de Rivoli", "Paris"));
+        return employee;
+    }
+
+    private static List<String> cityNames(List<CityDto> cities) {
+        List<String> names = new ArrayList<>();
+        for (CityDto city : cities) {
+            names.add(city.getName());
+        }
+        return names;
+    }
+
+    public static class Address {
+        private String street;
+        private String city;
+
+        public Address() {
+        }
+
+        public Address(String street, String city) {
+            this.street = street;
+            this.city = city;
+        }
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+
+    public static class AddressDto {
+        private String street;
+        private String city;
+
+        public String getStreet() {
+            return street;
+        }
+
+        public void setStreet(String street) {
+            this.street = street;
+        }
+
+        public String getCity() {
+            return city;
+        }
+
+        public void setCity(String city) {
+            this.city = city;
+        }
+    }
+
+    public static class CityDto {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private Address address;
+        private List<Address> addresses = new ArrayList<>();
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Address getAddress() {
+            return address;
+        }
+
+        public void setAddress(Address address) {
+            this.address = address;
+        }
+
+        public List<Address> getAddresses() {
+            return addresses;
+        }
+
+        public void setAddresses(List<Address> addresses) {
+            this.addresses = addresses;
+        }
+    }
+
+    public static class Employee extends Person {
+        private String title;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+    }
+
+    public static class PersonDto {
+        private String name;
+        private AddressDto address;
+        private List<CityDto> cities;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public AddressDto getAddress() {
+            return address;
+        }
+
+        public void setAddress(AddressDto address) {
+            this.address = address;
+        }
+
+        public List<CityDto> getCities() {
+            return cities;
+        }
+
+        public void setCities(List<CityDto> cities) {
+            this.cities = cities;
+        }
+    }
+
+    public static class EmployeeDto extends PersonDto {
+        private String title;
+
+        public String getTitle() {
+            return title;
+        }
+
+        public void setTitle(String title) {
+            this.title = title;
+        }
+    }
+}
@@ -0,0 +1,175 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package ma.glasnost.orika.test.perf;
+
+import ma.glasnost.orika.BoundMapperFacade;
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingContext;
+import ma.glasnost.orika.MappingContextFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.StripedMappingContextFactory;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.test.ConcurrentRule;
+import ma.glasnost.orika.test.ConcurrentRule.Concurrent;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class StripedMappingContextFactoryTestCase {
+
+    @Rule
+    public ConcurrentRule concurrentRule = new ConcurrentRule();
+
+    private final MapperFacade mapper = new DefaultMapperFactory.Builder()
+            .mappingContextFactory(new StripedMappingContextFactory())
+            .build()
+            .getMapperFacade();
+
+    @Test
+    public void testContextIsReusedByReleasingThread() {
+        StripedMappingContextFactory factory = new StripedMappingContextFactory(4, 16);
+
+        MappingContext context = factory.getContext();
+        factory.release(context);
+
+        Assert.assertSame(context, factory.getContext());
+        Assert.assertTrue(context.containsCycle());
+    }
+
+    @Test
+    public void testOversizedContextIsNotRetained() {
+        StripedMappingContextFactory factory = new StripedMappingContextFactory(4, 2);
+
+        MappingContext context = factory.getContext();
+        for (int i = 0; i < 3; ++i) {
+            context.setProperty("key" + i, i);
+        }
+        factory.release(context);
+
+        Assert.assertEquals(0, factory.getPooledCount());
+        Assert.assertNotSame(context, factory.getContext());
+    }
+
+    @Test
+    public void testContextHoldingManyMappedObjectsIsNotRetained() {
+        StripedMappingContextFactory factory = new StripedMappingContextFactory(4, 2);
+
+        MappingContext context = factory.getContext();
+        for (int i = 0; i < 3; ++i) {
+            context.cacheMappedObject(new Object(), TypeFactory.TYPE_OF_OBJECT, new Object());
+        }
+        Assert.assertEquals(3, context.getCachedEntryCount());
+        factory.release(context);
+
+        Assert.assertEquals(0, factory.getPooledCount());
+    }
+
+    @Test
+    public void testPoolIsBounded() {
+        StripedMappingContextFactory factory = new StripedMappingContextFactory(2, 16);
+
+        List<MappingContext> contexts = new ArrayList<>();
+        for (int i = 0; i < 10; ++i) {
+            contexts.add(factory.getContext());
+        }
+        for (MappingContext context : contexts) {
+            factory.release(context);
+        }
+
+        Assert.assertTrue(factory.getPooledCount() <= 2);
+    }
+
+    @Test
+    public void testPoolingDisabled() {
+        StripedMappingContextFactory factory = new StripedMappingContextFactory(0, 16);
+
+        MappingContext context = factory.getContext();
+        factory.release(context);
+
+        Assert.assertEquals(0, factory.getPooledCount());
+        Assert.assertNotSame(context, factory.getContext());
+    }
+
+    @Test
+    public void testNonCyclicSharesGlobalProperties() {
+        StripedMappingContextFactory factory = new StripedMappingContextFactory();
+        MappingContextFactory nonCyclic = factory.nonCyclic();
+
+        factory.getGlobalProperties().put("shared", Boolean.TRUE);
+        MappingContext context = nonCyclic.getContext();
+
+        Assert.assertFalse(context.containsCycle());
+        Assert.assertEquals(Boolean.TRUE, context.getProperty("shared"));
+    }
+
+    @Test
+    public void testBoundMapperFacadeWithoutCycles() {
+        MapperFactory factory = new DefaultMapperFactory.Builder()
+                .mappingContextFactory(new StripedMappingContextFactory())
+                .build();
+        BoundMapperFacade<Source, Destination> boundMapper = factory.getMapperFacade(Source.class, Destination.class, false);
+
+        Destination result = boundMapper.map(new Source("value"));
+
+        Assert.assertEquals("value", result.getName());
+    }
+
+    @Test
+    @Concurrent(32)
+    public void testConcurrentMapping() {
+        for (int i = 0; i < 1000; ++i) {
+            Destination result = mapper.map(new Source("name" + i), Destination.class);
+            Assert.assertEquals("name" + i, result.getName());
+        }
+    }
+
+    public static class Source {
+        private String name;
+
+        public Source() {
+        }
+
+        public Source(String name) {
+            this.name = name;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Destination {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.perf;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.MappingException;
+import ma.glasnost.orika.StateReporter;
+import ma.glasnost.orika.WarmUpResult;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+import ma.glasnost.orika.impl.generator.SourceCodeContext;
+import ma.glasnost.orika.metadata.MapperKey;
+import ma.glasnost.orika.metadata.TypeFactory;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Verifies that warming up a MapperFactory prepares the mapping of the
+ * specified types in the background, and reports the types which could not be
+ * prepared.
+ */
+public class WarmUpTestCase {
+
+    @Test
+    public void testWarmedUpTypesAreMappedWithoutGeneration() throws Exception {
+        CountingCompilerStrategy compilerStrategy = new CountingCompilerStrategy();
+        MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            MapperKey orderToDto = new MapperKey(TypeFactory.valueOf(Order.class), TypeFactory.valueOf(OrderDto.class));
+            MapperKey customerToDto = new MapperKey(TypeFactory.valueOf(Customer.class), TypeFactory.valueOf(CustomerDto.class));
+
+            WarmUpResult result = factory.warmUp(Arrays.asList(orderToDto, customerToDto), executor).get(30, TimeUnit.SECONDS);
+
+            Assert.assertTrue(result.isSuccessful());
+            Assert.assertEquals(Arrays.asList(orderToDto, customerToDto), result.getPreparedTypePairs());
+            Assert.assertTrue(compilerStrategy.compilations.get() > 0);
+        } finally {
+            executor.shutdown();
+        }
+
+        int compilations = compilerStrategy.compilations.get();
+        MapperFacade mapper = factory.getMapperFacade();
+        Order order = new Order();
+        order.setNumber("42");
+        order.setCustomer(new Customer());
+        order.getCustomer().setName("Alice");
+
+        OrderDto dto = mapper.map(order, OrderDto.class);
+
+        Assert.assertEquals("42", dto.getNumber());
+        Assert.assertEquals("Alice", dto.getCustomer().getName());
+        Assert.assertEquals(compilations, compilerStrategy.compilations.get());
+    }
+
+    @Test
+    public void testMappingStrategiesAreResolved() throws Exception {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+        MapperKey customerToDto = new MapperKey(TypeFactory.valueOf(Customer.class), TypeFactory.valueOf(CustomerDto.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Assert.assertTrue(factory.warmUp(Collections.singletonList(customerToDto), executor).get(30, TimeUnit.SECONDS)
+                    .isSuccessful());
+        } finally {
+            executor.shutdown();
+        }
+
+        MapperFacade mapper = factory.getMapperFacade();
+        String resolved = resolvedStrategies(mapper);
+        Assert.assertTrue(resolved, resolved.startsWith("Resolved strategies: 2 "));
+
+        Customer customer = new Customer();
+        customer.setName("Alice");
+        Assert.assertEquals("Alice", mapper.map(customer, CustomerDto.class).getName());
+        Assert.assertEquals("Alice",
+                mapper.map(customer, TypeFactory.valueOf(Customer.class), TypeFactory.valueOf(CustomerDto.class)).getName());
+        Assert.assertEquals(resolved, resolvedStrategies(mapper));
+    }
+
+    @Test
+    public void testFailuresAreReported() throws Exception {
+        MapperFactory factory = new DefaultMapperFactory.Builder().build();
+
+        MapperKey orderToDto = new MapperKey(TypeFactory.valueOf(Order.class), TypeFactory.valueOf(OrderDto.class));
+        MapperKey orderToInteger = new MapperKey(TypeFactory.valueOf(Order.class), TypeFactory.valueOf(Integer.class));
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        WarmUpResult result;
+        try {
+            result = factory.warmUp(Arrays.asList(orderToDto, orderToInteger), executor).get(30, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdown();
+        }
+
+        Assert.assertFalse(result.isSuccessful());
+        Assert.assertEquals(Collections.singletonList(orderToDto), result.getPreparedTypePairs());
+        Assert.assertEquals(Collections.singleton(orderToInteger), result.getFailures().keySet());
+        Assert.assertTrue(result.getFailures().get(orderToInteger) instanceof MappingException);
+    }
+
+    private static String resolvedStrategies(MapperFacade mapper) {
+        StringBuilder state = new StringBuilder();
+        ((StateReporter.Reportable) mapper).reportCurrentState(state);
+        String report = state.toString();
+        int start = report.indexOf("Resolved strategies: ");
+        return report.substring(start, report.indexOf(StateReporter.DIVIDER, start));
+    }
+
+    private static class CountingCompilerStrategy extends JavassistCompilerStrategy {
+
+        final AtomicInteger compilations = new AtomicInteger();
+
+        @Override
+        public Class<?> compileClass(SourceCodeContext sourceCode) throws SourceCodeGenerationException {
+            compilations.incrementAndGet();
+            return super.compileClass(sourceCode);
+        }
+
+        @Override
+        public Class<?> defineEmittedClass(SourceCodeContext sourceCode, byte[] bytecode) throws SourceCodeGenerationException {
+            compilations.incrementAndGet();
+            return super.defineEmittedClass(sourceCode, bytecode);
+        }
+    }
+
+    public static class Order {
+        private String number;
+        private Customer customer;
+
+        public String getNumber() {
+            return number;
+        }
+
+        public void setNumber(String number) {
+            this.number = number;
+        }
+
+        public Customer getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(Customer customer) {
+            this.customer = customer;
+        }
+    }
+
+    public static class Customer {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class OrderDto {
+        private String number;
+        private CustomerDto customer;
+
+        public String getNumber() {
+            return number;
+        }
+
+        public void setNumber(String number) {
+            this.number = number;
+        }
+
+        public CustomerDto getCustomer() {
+            return customer;
+        }
+
+        public void setCustomer(CustomerDto customer) {
+            this.customer = customer;
+        }
+    }
+
+    public static class CustomerDto {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -38,7 +38,10 @@ import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.Serializable;
+import java.lang.ref.WeakReference;
 import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
@@ -47,6 +50,10 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class PropertyResolverTestCase {
 
@@ -862,4 +869,63 @@ public class PropertyResolverTestCase {
 
     public interface ChildInterface extends ParentInterface<Map<String, Element>> {
     }
+
+    @Test
+    public void testConcurrentResolutionCachesOneResult() throws Exception {
+        final PropertyResolverStrategy resolver = new IntrospectorPropertyResolver();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Map<String, Property>>> results = new ArrayList<>();
+            for (int i = 0; i < 8; ++i) {
+                results.add(executor.submit(new Callable<Map<String, Property>>() {
+                    public Map<String, Property> call() {
+                        return resolver.getProperties(Student.class);
+                    }
+                }));
+            }
+            Map<String, Property> cached = resolver.getProperties(Student.class);
+            for (Future<Map<String, Property>> result : results) {
+                Assert.assertEquals(cached, result.get());
+            }
+            Assert.assertSame(cached, resolver.getProperties(Student.class));
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    public void testResolvedClassesCanBeUnloaded() throws Exception {
+        PropertyResolverStrategy resolver = new IntrospectorPropertyResolver();
+        WeakReference<ClassLoader> loader = resolveInSeparateLoader(resolver, ReloadableBean.class);
+
+        for (int i = 0; i < 10 && loader.get() != null; ++i) {
+            System.gc();
+            Thread.sleep(50);
+        }
+        Assert.assertNull(loader.get());
+        Assert.assertFalse(resolver.getProperties(ReloadableBean.class).isEmpty());
+    }
+
+    private static WeakReference<ClassLoader> resolveInSeparateLoader(PropertyResolverStrategy resolver, Class<?> type)
+            throws Exception {
+        URL classes = type.getProtectionDomain().getCodeSource().getLocation();
+        ClassLoader loader = new URLClassLoader(new URL[] { classes }, null);
+        Class<?> reloaded = loader.loadClass(type.getName());
+        Assert.assertNotSame(type, reloaded);
+        Assert.assertTrue(resolver.getProperties(reloaded).containsKey("name"));
+        Assert.assertTrue(resolver.getProperties(TypeFactory.valueOf(reloaded)).containsKey("name"));
+        return new WeakReference<>(loader);
+    }
+
+    public static class ReloadableBean {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
 }
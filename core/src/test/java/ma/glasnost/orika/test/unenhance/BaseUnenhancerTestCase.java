@@ -0,0 +1,103 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.unenhance;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import ma.glasnost.orika.inheritance.DefaultSuperTypeResolverStrategy;
+import ma.glasnost.orika.metadata.Type;
+import ma.glasnost.orika.metadata.TypeFactory;
+import ma.glasnost.orika.unenhance.BaseUnenhancer;
+import ma.glasnost.orika.unenhance.UnenhanceStrategy;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class BaseUnenhancerTestCase {
+
+    @Test
+    public void testSuperTypeIsResolvedOnce() {
+        BaseUnenhancer unenhancer = new BaseUnenhancer();
+        CountingStrategy strategy = new CountingStrategy(TypeFactory.valueOf(List.class));
+        unenhancer.addSuperTypeResolverStrategy(strategy);
+
+        Type<ArrayList> type = TypeFactory.valueOf(ArrayList.class);
+        Assert.assertEquals(TypeFactory.valueOf(List.class), unenhancer.unenhanceType(new ArrayList<Object>(), type));
+        int lookups = strategy.lookups.get();
+        Assert.assertTrue(lookups > 0);
+
+        Assert.assertEquals(TypeFactory.valueOf(List.class), unenhancer.unenhanceType(new ArrayList<Object>(), type));
+        Assert.assertEquals(lookups, strategy.lookups.get());
+    }
+
+    @Test
+    public void testAddedStrategyInvalidatesResolvedSuperTypes() {
+        BaseUnenhancer unenhancer = new BaseUnenhancer();
+        Type<String> type = TypeFactory.valueOf(String.class);
+        Assert.assertEquals(type, unenhancer.unenhanceType("value", type));
+
+        unenhancer.addSuperTypeResolverStrategy(new CountingStrategy(TypeFactory.valueOf(CharSequence.class)));
+        Assert.assertEquals(TypeFactory.valueOf(CharSequence.class), unenhancer.unenhanceType("value", type));
+    }
+
+    @Test
+    public void testUnenhanceStrategyIsConsultedForEachObject() {
+        BaseUnenhancer unenhancer = new BaseUnenhancer();
+        unenhancer.addUnenhanceStrategy(new UnenhanceStrategy() {
+            @SuppressWarnings("unchecked")
+            public <T> Type<T> unenhanceType(T object, Type<T> type) {
+                return (Type<T>) TypeFactory.valueOf(object.getClass());
+            }
+
+            public <T> T unenhanceObject(T object, Type<T> type) {
+                return object;
+            }
+        });
+
+        Type<Object> type = TypeFactory.valueOf(Object.class);
+        Assert.assertEquals(TypeFactory.valueOf(String.class), unenhancer.unenhanceType((Object) "value", type));
+        Assert.assertEquals(TypeFactory.valueOf(Integer.class), unenhancer.unenhanceType((Object) 1, type));
+    }
+
+    /**
+     * Accepts only the given super-type, counting the types looked up
+     */
+    private static class CountingStrategy extends DefaultSuperTypeResolverStrategy {
+
+        private final Type<?> acceptedType;
+        private final AtomicInteger lookups = new AtomicInteger();
+
+        CountingStrategy(Type<?> acceptedType) {
+            this.acceptedType = acceptedType;
+        }
+
+        @Override
+        public boolean isAcceptable(Type<?> type) {
+            return acceptedType.equals(type);
+        }
+
+        @Override
+        public boolean shouldLookupSuperType(Type<?> type) {
+            lookups.incrementAndGet();
+            return super.shouldLookupSuperType(type);
+        }
+    }
+}
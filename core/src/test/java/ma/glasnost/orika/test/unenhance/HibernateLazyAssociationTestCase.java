@@ -0,0 +1,186 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.unenhance;
+
+import java.io.Serializable;
+import java.util.HashSet;
+import java.util.Set;
+
+import ma.glasnost.orika.MapperFacade;
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.test.MappingUtil;
+import ma.glasnost.orika.unenhance.HibernateLazyAssociationFilter;
+import ma.glasnost.orika.unenhance.HibernateLazyAssociationFilter.LazyAssociationPolicy;
+
+import org.hibernate.Hibernate;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = "classpath:HibernateProxyTestCase-context.xml")
+@Transactional
+@DirtiesContext
+public class HibernateLazyAssociationTestCase {
+
+    @Autowired
+    private SessionFactory sessionFactory;
+
+    private Serializable authorId;
+    private Serializable bookId;
+
+    protected Session getSession() {
+        return sessionFactory.getCurrentSession();
+    }
+
+    @Before
+    public void setup() {
+        Author author = new Author();
+        author.setName("Khalil Gebran");
+        authorId = getSession().save(author);
+
+        Book book = new Book();
+        book.setTitle("The Prophet");
+        book.setAuthor(author);
+        bookId = getSession().save(book);
+        author.getBooks().add(book);
+
+        getSession().flush();
+        getSession().clear();
+    }
+
+    @Test
+    public void testUninitializedProxyIsSkipped() {
+        MapperFacade mapper = lazyAwareMapper(LazyAssociationPolicy.SKIP);
+        Book book = getSession().get(Book.class, bookId);
+        Statistics statistics = resetStatistics();
+
+        BookDTO bookDto = mapper.map(book, BookDTO.class);
+
+        Assert.assertEquals("The Prophet", bookDto.getTitle());
+        Assert.assertNull(bookDto.getAuthor());
+        Assert.assertFalse(Hibernate.isInitialized(book.getAuthor()));
+        Assert.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testUninitializedCollectionIsSkipped() {
+        MapperFacade mapper = lazyAwareMapper(LazyAssociationPolicy.SKIP);
+        Author author = getSession().get(Author.class, authorId);
+        Statistics statistics = resetStatistics();
+
+        AuthorWithBooksDTO authorDto = new AuthorWithBooksDTO();
+        Set<BookDTO> existingBooks = new HashSet<>();
+        authorDto.setBooks(existingBooks);
+        mapper.map(author, authorDto);
+
+        Assert.assertEquals("Khalil Gebran", authorDto.getName());
+        Assert.assertSame(existingBooks, authorDto.getBooks());
+        Assert.assertFalse(Hibernate.isInitialized(author.getBooks()));
+        Assert.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testUninitializedCollectionIsMappedAsNull() {
+        MapperFacade mapper = lazyAwareMapper(LazyAssociationPolicy.NULL);
+        Author author = getSession().get(Author.class, authorId);
+        Statistics statistics = resetStatistics();
+
+        AuthorWithBooksDTO authorDto = new AuthorWithBooksDTO();
+        authorDto.setBooks(new HashSet<BookDTO>());
+        mapper.map(author, authorDto);
+
+        Assert.assertEquals("Khalil Gebran", authorDto.getName());
+        Assert.assertNull(authorDto.getBooks());
+        Assert.assertFalse(Hibernate.isInitialized(author.getBooks()));
+        Assert.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testInitializedAssociationsAreMapped() {
+        MapperFacade mapper = lazyAwareMapper(LazyAssociationPolicy.SKIP);
+        Book book = getSession().get(Book.class, bookId);
+        Hibernate.initialize(book.getAuthor());
+        Hibernate.initialize(book.getAuthor().getBooks());
+        Statistics statistics = resetStatistics();
+
+        BookDTO bookDto = mapper.map(book, BookDTO.class);
+        AuthorWithBooksDTO authorDto = mapper.map(book.getAuthor(), AuthorWithBooksDTO.class);
+
+        Assert.assertEquals("Khalil Gebran", bookDto.getAuthor().getName());
+        Assert.assertEquals(1, authorDto.getBooks().size());
+        Assert.assertEquals("The Prophet", authorDto.getBooks().iterator().next().getTitle());
+        Assert.assertEquals(0, statistics.getPrepareStatementCount());
+    }
+
+    @Test
+    public void testWithoutFilterAssociationsAreLoaded() {
+        MapperFacade mapper = MappingUtil.getMapperFactory().getMapperFacade();
+        Author author = getSession().get(Author.class, authorId);
+        Statistics statistics = resetStatistics();
+
+        AuthorWithBooksDTO authorDto = mapper.map(author, AuthorWithBooksDTO.class);
+
+        Assert.assertEquals(1, authorDto.getBooks().size());
+        Assert.assertTrue(statistics.getPrepareStatementCount() > 0);
+    }
+
+    private static MapperFacade lazyAwareMapper(LazyAssociationPolicy policy) {
+        MapperFactory factory = MappingUtil.getMapperFactory();
+        factory.registerFilter(new HibernateLazyAssociationFilter(policy));
+        return factory.getMapperFacade();
+    }
+
+    private Statistics resetStatistics() {
+        Statistics statistics = sessionFactory.getStatistics();
+        statistics.setStatisticsEnabled(true);
+        statistics.clear();
+        return statistics;
+    }
+
+    public static class AuthorWithBooksDTO {
+        private String name;
+        private Set<BookDTO> books;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public Set<BookDTO> getBooks() {
+            return books;
+        }
+
+        public void setBooks(Set<BookDTO> books) {
+            this.books = books;
+        }
+    }
+}
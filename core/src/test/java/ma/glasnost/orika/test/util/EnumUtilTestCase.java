@@ -0,0 +1,80 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.test.util;
+
+import ma.glasnost.orika.impl.util.EnumUtil;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class EnumUtilTestCase {
+
+    @Test
+    public void testValueOf() {
+        Assert.assertSame(Color.GREEN, EnumUtil.valueOf(Color.class, "GREEN"));
+        Assert.assertSame(Shade.DARK, EnumUtil.valueOf(Shade.class, "DARK"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testValueOfUnknownName() {
+        EnumUtil.valueOf(Color.class, "PURPLE");
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testValueOfNullName() {
+        EnumUtil.valueOf(Color.class, null);
+    }
+
+    @Test
+    public void testConvertByName() {
+        Assert.assertSame(Colour.RED, EnumUtil.convert(Color.RED, Colour.class));
+        Assert.assertSame(Colour.GREEN, EnumUtil.convert(Color.GREEN, Colour.class));
+        Assert.assertSame(Colour.BLUE, EnumUtil.convert(Color.BLUE, Colour.class));
+        Assert.assertSame(Color.GREEN, EnumUtil.convert(Colour.GREEN, Color.class));
+    }
+
+    @Test
+    public void testConvertConstantWithBody() {
+        Assert.assertSame(Color.RED, EnumUtil.convert(Shade.RED, Color.class));
+        Assert.assertSame(Shade.RED, EnumUtil.convert(Colour.RED, Shade.class));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testConvertUnknownName() {
+        EnumUtil.convert(Shade.DARK, Color.class);
+    }
+
+    public enum Color {
+        RED, GREEN, BLUE
+    }
+
+    public enum Colour {
+        BLUE, RED, YELLOW, GREEN
+    }
+
+    public enum Shade {
+        DARK {
+            @Override
+            public String toString() {
+                return "dark";
+            }
+        },
+        RED
+    }
+}
@@ -30,6 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.StringReader;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 public class JaninoCompilerStrategy extends CompilerStrategy {
     
@@ -39,12 +41,18 @@ public class JaninoCompilerStrategy extends CompilerStrategy {
     private static final String WRITE_CLASS_FILES_BY_DEFAULT = "false";
 
     private final ByteArrayClassLoader classLoader;
-    private IClassLoader iClassLoader = null;
+    private final ClassLoader parentClassLoader;
+    /**
+     * The IClassLoaders not currently in use; an IClassLoader caches the
+     * classes it has loaded and is not safe for concurrent use, so each
+     * compilation takes one for itself (creating it if none is idle) and
+     * returns it afterwards
+     */
+    private final Queue<IClassLoader> idleIClassLoaders = new ConcurrentLinkedQueue<>();
     
     public JaninoCompilerStrategy() {
         super(WRITE_SOURCE_FILES_BY_DEFAULT, WRITE_CLASS_FILES_BY_DEFAULT);
-        ClassLoader parentClassLoader = Thread.currentThread().getContextClassLoader();
-        iClassLoader = new ClassLoaderIClassLoader(parentClassLoader);
+        parentClassLoader = Thread.currentThread().getContextClassLoader();
         classLoader = new ByteArrayClassLoader(parentClassLoader);
     }
     
@@ -55,8 +63,17 @@ public class JaninoCompilerStrategy extends CompilerStrategy {
         try {
             scanner = new Scanner(sourceCode.getClassName(), new StringReader(sourceCode.toSourceFile()));
             Java.CompilationUnit localCompilationUnit = new Parser(scanner).parseCompilationUnit();
-            UnitCompiler unitCompile = new UnitCompiler(localCompilationUnit, iClassLoader);
-            ClassFile[] classes = unitCompile.compileUnit(false, false, false);
+            ClassFile[] classes;
+            IClassLoader iClassLoader = idleIClassLoaders.poll();
+            if (iClassLoader == null) {
+                iClassLoader = new ClassLoaderIClassLoader(parentClassLoader);
+            }
+            try {
+                UnitCompiler unitCompile = new UnitCompiler(localCompilationUnit, iClassLoader);
+                classes = unitCompile.compileUnit(false, false, false);
+            } finally {
+                idleIClassLoaders.offer(iClassLoader);
+            }
             return classLoader.findClass(classes[0].getThisClassName());
         } catch (Exception e) {
             LOG.error("Can not compile " + sourceCode.getClassName(), e);
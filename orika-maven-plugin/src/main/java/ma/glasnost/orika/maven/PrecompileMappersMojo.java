@@ -0,0 +1,138 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.maven;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Collection;
+import java.util.List;
+
+import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugins.annotations.LifecyclePhase;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.plugins.annotations.ResolutionScope;
+
+/**
+ * PrecompileMappersMojo generates the mappers of the configured Orika mapper
+ * configurations at build time, and writes their compiled classes to the
+ * output directory of the project, from where the mapper factories discover
+ * them at runtime instead of compiling them.<br>
+ * <br>
+ *
+ * The configurations are loaded, together with Orika itself, from the runtime
+ * class-path of the project, so the classes are generated by the Orika version
+ * which uses them; see <code>ma.glasnost.orika.impl.MapperPrecompiler</code>
+ * for the supported kinds of configuration.<br>
+ * <br>
+ *
+ * Precompiling saves the compilation of each mapper at runtime, but not the
+ * generation of its source: a mapper factory still generates the source of
+ * each mapper on its first use, since the source binds the mapper to the
+ * converters, types and mapper facades of that factory, and its digest is the
+ * key under which the precompiled class is looked up. Only when the digest
+ * matches is the compilation skipped; a mapper whose configuration or mapped
+ * types changed since the build is compiled as usual.
+ */
+@Mojo(name = "precompile", defaultPhase = LifecyclePhase.PROCESS_CLASSES, requiresDependencyResolution = ResolutionScope.RUNTIME)
+public class PrecompileMappersMojo extends AbstractMojo {
+
+    private static final String PRECOMPILER_CLASS = "ma.glasnost.orika.impl.MapperPrecompiler";
+
+    /**
+     * The names of the configuration classes, which either extend
+     * <code>ConfigurableMapper</code> or implement
+     * <code>Supplier&lt;MapperFactory&gt;</code>
+     */
+    @Parameter(required = true)
+    private List<String> configurations;
+
+    /**
+     * The directory to which the precompiled classes are written
+     */
+    @Parameter(defaultValue = "${project.build.outputDirectory}", required = true)
+    private File outputDirectory;
+
+    @Parameter(defaultValue = "${project.runtimeClasspathElements}", readonly = true, required = true)
+    private List<String> classpathElements;
+
+    /**
+     * Skips the precompilation of mappers
+     */
+    @Parameter(property = "orika.precompile.skip", defaultValue = "false")
+    private boolean skip;
+
+    public void execute() throws MojoExecutionException {
+        if (skip) {
+            getLog().info("Skipping the precompilation of mappers");
+            return;
+        }
+
+        /*
+         * Isolate the project class-path from that of the build
+         */
+        URLClassLoader classLoader = new URLClassLoader(toUrls(classpathElements), ClassLoader.getSystemClassLoader().getParent());
+        try {
+            Method precompile;
+            try {
+                precompile = classLoader.loadClass(PRECOMPILER_CLASS).getMethod("precompile", File.class, Collection.class,
+                        ClassLoader.class);
+            } catch (ClassNotFoundException | NoSuchMethodException e) {
+                throw new MojoExecutionException("The runtime class-path of the project does not contain a version of orika-core"
+                        + " which supports precompiled mappers", e);
+            }
+
+            int count = (Integer) precompile.invoke(null, outputDirectory, configurations, classLoader);
+            if (count == 0) {
+                getLog().warn("No mappers were precompiled; configurations which use a compiler strategy other than"
+                        + " the default JavassistCompilerStrategy cannot be precompiled");
+            } else {
+                getLog().info("Precompiled " + count + " classes to " + outputDirectory);
+            }
+        } catch (InvocationTargetException e) {
+            throw new MojoExecutionException("Could not precompile mappers of " + configurations, e.getCause());
+        } catch (IllegalAccessException e) {
+            throw new MojoExecutionException("Could not precompile mappers of " + configurations, e);
+        } finally {
+            try {
+                classLoader.close();
+            } catch (IOException e) {
+                getLog().debug(e);
+            }
+        }
+    }
+
+    private static URL[] toUrls(List<String> elements) throws MojoExecutionException {
+        URL[] urls = new URL[elements.size()];
+        for (int i = 0; i < urls.length; ++i) {
+            try {
+                urls[i] = new File(elements.get(i)).toURI().toURL();
+            } catch (MalformedURLException e) {
+                throw new MojoExecutionException("Invalid class-path element " + elements.get(i), e);
+            }
+        }
+        return urls;
+    }
+}
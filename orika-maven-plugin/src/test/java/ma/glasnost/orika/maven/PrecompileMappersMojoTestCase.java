@@ -0,0 +1,123 @@
+/*
+ * Orika - simpler, better and faster Java bean mapping
+ *
+ * Copyright (C) 2011-2013 Orika authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package ma.glasnost.orika.maven;
+
+import java.io.File;
+import java.lang.reflect.Field;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.function.Supplier;
+
+import ma.glasnost.orika.MapperFactory;
+import ma.glasnost.orika.impl.DefaultMapperFactory;
+import ma.glasnost.orika.impl.generator.BytecodeCache;
+import ma.glasnost.orika.impl.generator.JavassistCompilerStrategy;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/**
+ * Verifies that the mappers precompiled by the plugin are loaded, rather than
+ * compiled, by a factory with the same configuration.<br>
+ * <br>
+ *
+ * The plugin loads the configuration from its own class-loader (built from
+ * the test class-path), so the mapper it generates is a different class from
+ * the one the factory of this test defines from the precompiled bytecode.
+ */
+public class PrecompileMappersMojoTestCase {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPrecompiledMappersAreLoaded() throws Exception {
+        PrecompileMappersMojo mojo = new PrecompileMappersMojo();
+        setParameter(mojo, "configurations", Collections.singletonList(Configuration.class.getName()));
+        setParameter(mojo, "outputDirectory", folder.getRoot());
+        setParameter(mojo, "classpathElements", Arrays.asList(System.getProperty("java.class.path").split(File.pathSeparator)));
+
+        mojo.execute();
+
+        URLClassLoader classPath = new URLClassLoader(new URL[] { folder.getRoot().toURI().toURL() }, null);
+        BytecodeCache cache = BytecodeCache.fromClassPath(classPath);
+        Assert.assertNotNull(cache);
+
+        MapperFactory factory = new Configuration(new JavassistCompilerStrategy(cache)).get();
+        Source source = new Source();
+        source.setName("precompiled");
+
+        Assert.assertEquals("precompiled", factory.getMapperFacade().map(source, Destination.class).getName());
+        Assert.assertTrue(cache.getHitCount() > 0);
+        Assert.assertEquals(0, cache.getMissCount());
+    }
+
+    private static void setParameter(PrecompileMappersMojo mojo, String name, Object value) throws ReflectiveOperationException {
+        Field field = PrecompileMappersMojo.class.getDeclaredField(name);
+        field.setAccessible(true);
+        field.set(mojo, value);
+    }
+
+    public static class Configuration implements Supplier<MapperFactory> {
+
+        private final JavassistCompilerStrategy compilerStrategy;
+
+        public Configuration() {
+            this(new JavassistCompilerStrategy());
+        }
+
+        Configuration(JavassistCompilerStrategy compilerStrategy) {
+            this.compilerStrategy = compilerStrategy;
+        }
+
+        public MapperFactory get() {
+            MapperFactory factory = new DefaultMapperFactory.Builder().compilerStrategy(compilerStrategy).build();
+            factory.classMap(Source.class, Destination.class).byDefault().register();
+            return factory;
+        }
+    }
+
+    public static class Source {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+
+    public static class Destination {
+        private String name;
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+    }
+}